@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+# Smoke test de l'image native : démarre l'application, mesure le temps de démarrage et la mémoire
+# résidente (RSS), appelle toutes les opérations SOAP puis vérifie les réponses.
+# Le Dockerfile s'en sert aussi comme entraînement de l'archive AppCDS.
+#
+# Usage : scripts/native-smoke.sh [commande de lancement...]
+#   Par défaut : target/appExamSOAP --spring.profiles.active=prod (binaire de mvn -Pnative native:compile)
+#   La base MySQL du compose.yaml doit tourner : docker compose up -d mysql
+#   Pour comparer avec la JVM : scripts/native-smoke.sh java -jar target/appExamSOAP-0.0.1-SNAPSHOT.jar
+#
+# Variables : PORT (9080), STARTUP_TIMEOUT en secondes (60).
+set -euo pipefail
+
+PORT=${PORT:-9080}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-60}
+WS_URL="http://localhost:${PORT}/ws/"
+if [ $# -eq 0 ]; then
+  set -- target/appExamSOAP --spring.profiles.active=prod
+fi
+
+LOG=$(mktemp)
+FAILURES=0
+
+now_ms() { date +%s%3N; }
+rss_mb() { awk '/^VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$PID/status"; }
+
+start=$(now_ms)
+"$@" --server.port="$PORT" --spring.docker.compose.enabled=false >"$LOG" 2>&1 &
+PID=$!
+trap 'status=$?; kill "$PID" 2>/dev/null; wait "$PID" 2>/dev/null || true; rm -f "$LOG"; exit $status' EXIT
+
+until curl -sf "http://localhost:${PORT}/actuator/health" >/dev/null; do
+  if ! kill -0 "$PID" 2>/dev/null; then
+    cat "$LOG"
+    echo "ECHEC : l'application s'est arrêtée au démarrage" >&2
+    exit 1
+  fi
+  if [ $(( $(now_ms) - start )) -gt $(( STARTUP_TIMEOUT * 1000 )) ]; then
+    tail -50 "$LOG"
+    echo "ECHEC : application non prête après ${STARTUP_TIMEOUT}s" >&2
+    exit 1
+  fi
+  sleep 0.02
+done
+ready_ms=$(( $(now_ms) - start ))
+reported=$(grep -ao 'Started AppExamSaopApplication in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]* seconds' || echo "?")
+rss_ready=$(rss_mb)
+
+# soap <operation> <namespace> <corps> <motif attendu> : affiche la réponse, compte les échecs
+soap() {
+  local operation=$1 namespace=$2 body=$3 expected=$4 response
+  response=$(curl -s -H 'Content-Type: text/xml; charset=utf-8' --data \
+    "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:s=\"http://examensoap.com/Sectors\" xmlns:c=\"http://examensoap.com/Classes\" xmlns:b=\"http://examensoap.com/Batch\" xmlns:x=\"http://examensoap.com/Export\"><soapenv:Header/><soapenv:Body>${body}</soapenv:Body></soapenv:Envelope>" \
+    "$WS_URL" || true)
+  if [[ "$response" == *"Fault>"* || ! "$response" =~ $expected ]]; then
+    echo "  ECHEC  ${operation} (${namespace})" >&2
+    echo "         ${response:0:300}" >&2
+    FAILURES=$((FAILURES + 1))
+  else
+    echo "  OK     ${operation}"
+  fi
+  LAST_RESPONSE=$response
+}
+
+first_id() { grep -o '<ns2:id>[0-9]*' <<<"$LAST_RESPONSE" | head -1 | cut -d'>' -f2; }
+
+echo "Opérations SOAP :"
+soap addSectors Sectors "<s:addSectorsRequest><s:sectors><s:id>0</s:id><s:name>Smoke</s:name></s:sectors></s:addSectorsRequest>" "addSectorsResponse.*<ns2:id>[0-9]+"
+SECTOR_ID=$(first_id || echo 0)
+soap getSectors Sectors "<s:getSectorsRequest><s:id>${SECTOR_ID}</s:id></s:getSectorsRequest>" "<ns2:name>Smoke</ns2:name>"
+soap getAllSectors Sectors "<s:getAllSectorsRequest/>" "getAllSectorsResponse.*<ns2:sectorsList>"
+soap getSectorsByIds Sectors "<s:getSectorsByIdsRequest><s:id>${SECTOR_ID}</s:id><s:id>999999</s:id></s:getSectorsByIdsRequest>" "<ns2:missingId>999999</ns2:missingId>"
+soap updateSectors Sectors "<s:updateSectorsRequest><s:id>${SECTOR_ID}</s:id><s:name>Smoke 2</s:name></s:updateSectorsRequest>" "<ns2:name>Smoke 2</ns2:name>"
+soap suggestSectors Sectors "<s:suggestSectorsRequest><s:prefix>smo</s:prefix></s:suggestSectorsRequest>" "suggestSectorsResponse.*<ns2:id>${SECTOR_ID}</ns2:id>"
+soap createClasses Classes "<c:createClassesRequest><c:className><c:id>0</c:id><c:className>Smoke</c:className><c:description>Smoke test</c:description><c:sectors>${SECTOR_ID}</c:sectors></c:className></c:createClassesRequest>" "createClassesResponse.*<ns2:sectors>${SECTOR_ID}</ns2:sectors>"
+CLASS_ID=$(first_id || echo 0)
+soap getClasses Classes "<c:getClassesRequest><c:id>${CLASS_ID}</c:id></c:getClassesRequest>" "<ns2:className>Smoke</ns2:className>"
+soap getAllClasses Classes "<c:getAllClassesRequest/>" "getAllClassesResponse.*<ns2:classLitst>"
+soap getClassesByIds Classes "<c:getClassesByIdsRequest><c:id>${CLASS_ID}</c:id></c:getClassesByIdsRequest>" "<ns2:classesList>"
+soap searchClasses Classes "<c:searchClassesRequest><c:query>smoke TEST</c:query></c:searchClassesRequest>" "searchClassesResponse.*<ns2:id>${CLASS_ID}</ns2:id>"
+soap suggestClasses Classes "<c:suggestClassesRequest><c:prefix>smo</c:prefix><c:sectors>${SECTOR_ID}</c:sectors></c:suggestClassesRequest>" "suggestClassesResponse.*<ns2:id>${CLASS_ID}</ns2:id>"
+soap getClassesChangedSince Classes "<c:getClassesChangedSinceRequest><c:since>0</c:since></c:getClassesChangedSinceRequest>" "getClassesChangedSinceResponse.*<ns2:id>${CLASS_ID}</ns2:id>.*<ns2:highWaterMark>"
+soap getSectorsChangedSince Sectors "<s:getSectorsChangedSinceRequest><s:since>0</s:since></s:getSectorsChangedSinceRequest>" "getSectorsChangedSinceResponse.*<ns2:id>${SECTOR_ID}</ns2:id>.*<ns2:highWaterMark>"
+soap getSectorStats Sectors "<s:getSectorStatsRequest/>" "<ns2:id>${SECTOR_ID}</ns2:id>(<ns2:name>[^<]*</ns2:name>)?<ns2:classCount>1</ns2:classCount>"
+soap batch Batch "<b:batchRequest><s:getSectorsRequest><s:id>${SECTOR_ID}</s:id></s:getSectorsRequest><c:getClassesRequest><c:id>${CLASS_ID}</c:id></c:getClassesRequest></b:batchRequest>" "batchResponse.*getSectorsResponse.*getClassesResponse"
+soap exportSnapshot Export "<x:exportSnapshotRequest/>" "exportSnapshotResponse.*<ns2:path>[^<]+\.ndjson\.gz</ns2:path>"
+soap deleteClasses Classes "<c:deleteClassesRequest><c:id>${CLASS_ID}</c:id></c:deleteClassesRequest>" "supprimée avec succès"
+soap deleteSectors Sectors "<s:deleteSectorsRequest><s:id>${SECTOR_ID}</s:id></s:deleteSectorsRequest>" "deleteSectorsResponse"
+
+for wsdl in sectorsWsdl classesWsdl batchWsdl exportWsdl; do
+  definition=$(curl -sf "${WS_URL}${wsdl}.wsdl" || true)
+  if [[ "$definition" == *"wsdl:definitions"* ]]; then
+    echo "  OK     ${wsdl}.wsdl"
+  else
+    echo "  ECHEC  ${wsdl}.wsdl" >&2
+    FAILURES=$((FAILURES + 1))
+  fi
+done
+
+echo
+echo "Démarrage : ${ready_ms} ms jusqu'à /actuator/health (Spring : ${reported})"
+echo "RSS       : ${rss_ready} Mo au démarrage, $(rss_mb) Mo après les appels"
+if [ "$FAILURES" -gt 0 ]; then
+  echo "${FAILURES} opération(s) en échec" >&2
+  exit 1
+fi
@@ -0,0 +1,92 @@
+package com.examensoap.benchmark;
+
+import com.examensoap.model.Classes;
+import com.examensoap.model.GetAllClassesResponse;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.jvnet.fastinfoset.FastInfosetResult;
+import org.jvnet.fastinfoset.FastInfosetSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût CPU de la conversion faite par {@code FastInfosetFilter} sur {@code GetAllClassesResponse}
+ * à 10, 1 000 et 100 000 classes : encodage de la réponse XML en Fast Infoset, et décodage d'un
+ * corps Fast Infoset en XML texte.
+ * <p>
+ * Les tailles XML et Fast Infoset de chaque cas sont affichées une fois, au début de l'essai. Les
+ * documents sont produits une fois par essai ; le benchmark mesure la conversion seule.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FastInfosetBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+    private byte[] xml;
+    private byte[] fastInfoset;
+    private ByteArrayOutputStream output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JAXBException, TransformerException {
+        GetAllClassesResponse response = new GetAllClassesResponse();
+        for (int i = 1; i <= size; i++) {
+            Classes classes = new Classes();
+            classes.setId(i);
+            classes.setClassName("Classe " + i);
+            classes.setDescription("Description de la classe " + i + " pour le benchmark de sérialisation");
+            classes.setSectors(i % 20 + 1);
+            response.getClassLitst().add(classes);
+        }
+        output = new ByteArrayOutputStream(size * 256);
+        JAXBContext.newInstance(GetAllClassesResponse.class).createMarshaller().marshal(response, output);
+        xml = output.toByteArray();
+        fastInfoset = toFastInfoset();
+        System.out.printf("%n%d classes : XML %d octets, Fast Infoset %d octets (%.0f %%)%n",
+                size, xml.length, fastInfoset.length, 100.0 * fastInfoset.length / xml.length);
+    }
+
+    @Benchmark
+    public int encode() throws TransformerException {
+        output.reset();
+        transformerHelper.transform(new StreamSource(new ByteArrayInputStream(xml)), new FastInfosetResult(output));
+        return output.size();
+    }
+
+    @Benchmark
+    public int decode() throws TransformerException {
+        output.reset();
+        transformerHelper.transform(new FastInfosetSource(new ByteArrayInputStream(fastInfoset)),
+                new StreamResult(output));
+        return output.size();
+    }
+
+    private byte[] toFastInfoset() throws TransformerException {
+        encode();
+        return output.toByteArray();
+    }
+}
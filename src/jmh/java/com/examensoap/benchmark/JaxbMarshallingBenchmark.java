@@ -0,0 +1,82 @@
+package com.examensoap.benchmark;
+
+import com.examensoap.model.Classes;
+import com.examensoap.model.GetAllClassesResponse;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marshal / unmarshal JAXB de {@code GetAllClassesResponse}, la plus grosse réponse du service,
+ * à 10, 1 000 et 100 000 classes.
+ * <p>
+ * Le contexte JAXB et les {@code Marshaller} / {@code Unmarshaller} sont créés une seule fois par essai
+ * ({@code Level.Trial}) et par thread, puis réutilisés comme le ferait un pool : le benchmark mesure la
+ * conversion elle-même, pas la création du contexte JAXB.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JaxbMarshallingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private GetAllClassesResponse response;
+    private byte[] xml;
+    private Marshaller marshaller;
+    private Unmarshaller unmarshaller;
+    private ByteArrayOutputStream output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(GetAllClassesResponse.class);
+        marshaller = context.createMarshaller();
+        unmarshaller = context.createUnmarshaller();
+
+        response = new GetAllClassesResponse();
+        for (int i = 1; i <= size; i++) {
+            Classes classes = new Classes();
+            classes.setId(i);
+            classes.setClassName("Classe " + i);
+            classes.setDescription("Description de la classe " + i + " pour le benchmark de sérialisation");
+            classes.setSectors(i % 20 + 1);
+            response.getClassLitst().add(classes);
+        }
+        output = new ByteArrayOutputStream(size * 256);
+        marshaller.marshal(response, output);
+        xml = output.toByteArray();
+    }
+
+    @Benchmark
+    public int marshal() throws JAXBException {
+        output.reset();
+        marshaller.marshal(response, output);
+        return output.size();
+    }
+
+    @Benchmark
+    public Object unmarshal() throws JAXBException {
+        return unmarshaller.unmarshal(new ByteArrayInputStream(xml));
+    }
+}
@@ -0,0 +1,73 @@
+package com.examensoap.benchmark;
+
+import com.examensoap.dto.ClassesDto;
+import com.examensoap.dto.SectorsDto;
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.mapper.ClassesMapper;
+import com.examensoap.mapper.ClassesMapperImpl;
+import com.examensoap.mapper.SectorsMapper;
+import com.examensoap.mapper.SectorsMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions MapStruct entité / DTO ({@code ClassesMapper}, {@code SectorsMapper}), appelées
+ * une fois par élément de chaque liste renvoyée par les services.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ClassesMapper classesMapper = new ClassesMapperImpl();
+    private final SectorsMapper sectorsMapper = new SectorsMapperImpl();
+
+    private ClassesEntity classesEntity;
+    private ClassesDto classesDto;
+    private SectorsEntity sectorsEntity;
+    private SectorsDto sectorsDto;
+
+    @Setup
+    public void setUp() {
+        sectorsEntity = new SectorsEntity(new ArrayList<>(), 7L, "Informatique", 1L);
+        classesEntity = new ClassesEntity(42L, "L3 Génie logiciel", "Troisième année de licence", sectorsEntity, 1L);
+        sectorsEntity.getClasses().add(classesEntity);
+        classesDto = new ClassesDto(42L, "L3 Génie logiciel", "Troisième année de licence", 7L);
+        sectorsDto = new SectorsDto(7L, "Informatique");
+    }
+
+    @Benchmark
+    public ClassesDto classesToDto() {
+        return classesMapper.toClassesDto(classesEntity);
+    }
+
+    @Benchmark
+    public ClassesEntity classesToEntity() {
+        return classesMapper.toClassesEntity(classesDto);
+    }
+
+    @Benchmark
+    public SectorsDto sectorsToDto() {
+        return sectorsMapper.toSectorsDto(sectorsEntity);
+    }
+
+    @Benchmark
+    public SectorsEntity sectorsToEntity() {
+        return sectorsMapper.toSectorsEntity(sectorsDto);
+    }
+}
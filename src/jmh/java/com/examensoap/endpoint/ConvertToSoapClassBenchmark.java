@@ -0,0 +1,35 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.dto.ClassesDto;
+import com.examensoap.model.Classes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion DTO → type SOAP faite par {@link ClassesEndpoint} pour chaque classe d'une réponse.
+ * Dans le package de l'endpoint parce que {@code convertToSoapClass} n'est pas public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToSoapClassBenchmark {
+
+    private final ClassesDto dto = new ClassesDto(42L, "L3 Génie logiciel", "Troisième année de licence", 7L);
+
+    @Benchmark
+    public Classes convertToSoapClass() {
+        return ClassesEndpoint.convertToSoapClass(dto);
+    }
+}
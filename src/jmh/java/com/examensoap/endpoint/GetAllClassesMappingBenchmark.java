@@ -0,0 +1,73 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.dto.ClassesDto;
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.mapper.ClassesMapper;
+import com.examensoap.mapper.ClassesMapperImpl;
+import com.examensoap.mapper.ClassesSoapMapper;
+import com.examensoap.mapper.ClassesSoapMapperImpl;
+import com.examensoap.model.GetAllClassesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction de la réponse {@code getAllClasses} à partir des entités chargées :
+ * ancien chemin entité → {@code ClassesDto} → {@code Classes}, contre la conversion directe
+ * de {@code ClassesSoapMapper}. À lancer avec {@code -prof gc} pour comparer {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetAllClassesMappingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final ClassesMapper classesMapper = new ClassesMapperImpl();
+    private final ClassesSoapMapper classesSoapMapper = new ClassesSoapMapperImpl();
+    private List<ClassesEntity> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SectorsEntity sector = new SectorsEntity(new ArrayList<>(), 7L, "Informatique", 1L);
+        entities = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            entities.add(new ClassesEntity(i, "Classe " + i, "Description de la classe " + i, sector, 1L));
+        }
+    }
+
+    @Benchmark
+    public GetAllClassesResponse viaDto() {
+        List<ClassesDto> dtos = entities.stream().map(classesMapper::toClassesDto).toList();
+        GetAllClassesResponse response = new GetAllClassesResponse();
+        for (ClassesDto dto : dtos) {
+            response.getClassLitst().add(ClassesEndpoint.convertToSoapClass(dto));
+        }
+        return response;
+    }
+
+    @Benchmark
+    public GetAllClassesResponse direct() {
+        GetAllClassesResponse response = new GetAllClassesResponse();
+        response.getClassLitst().addAll(classesSoapMapper.toSoapClasses(entities));
+        return response;
+    }
+}
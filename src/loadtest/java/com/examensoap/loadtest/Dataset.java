@@ -0,0 +1,63 @@
+package com.examensoap.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identifiants connus du test : données initiales (lues et mises à jour) et entités jetables
+ * (créées pendant le test, puis supprimées).
+ * <p>
+ * Les données initiales sont ajoutées par un seul thread avant le démarrage de la charge, puis
+ * seulement lues.
+ */
+final class Dataset {
+
+    private final List<Long> sectorIds = new ArrayList<>();
+    private final List<Long> classIds = new ArrayList<>();
+    private final Queue<Long> disposableSectors = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> disposableClasses = new ConcurrentLinkedQueue<>();
+    private final AtomicLong names = new AtomicLong();
+
+    void addSector(long id) {
+        sectorIds.add(id);
+    }
+
+    void addClass(long id) {
+        classIds.add(id);
+    }
+
+    int sectorCount() {
+        return sectorIds.size();
+    }
+
+    int classCount() {
+        return classIds.size();
+    }
+
+    long sectorId() {
+        return sectorIds.get(ThreadLocalRandom.current().nextInt(sectorIds.size()));
+    }
+
+    long classId() {
+        if (classIds.isEmpty()) {
+            return -1;
+        }
+        return classIds.get(ThreadLocalRandom.current().nextInt(classIds.size()));
+    }
+
+    long nextName() {
+        return names.incrementAndGet();
+    }
+
+    Queue<Long> disposableSectors() {
+        return disposableSectors;
+    }
+
+    Queue<Long> disposableClasses() {
+        return disposableClasses;
+    }
+}
@@ -0,0 +1,132 @@
+package com.examensoap.loadtest;
+
+import com.examensoap.AppExamSaopApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Test de charge de bout en bout : démarre l'application sur une base H2 en mode MySQL (profil
+ * {@code loadtest}), crée un jeu de données, puis rejoue les opérations du projet SoapUI à débit
+ * constant et affiche, par opération, le débit et les percentiles HdrHistogram.
+ * <p>
+ * Lancement : {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=500 duration=60s"}.
+ * Voir {@link LoadTestOptions} pour les paramètres.
+ */
+public final class LoadTest {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        URI endpoint = options.target();
+        if (endpoint == null) {
+            // Le redémarrage à chaud de devtools relancerait l'application dans un autre classloader
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(AppExamSaopApplication.class)
+                    .profiles(options.profiles().toArray(String[]::new))
+                    .run();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            endpoint = URI.create("http://localhost:" + port + "/ws/");
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Dataset dataset = seed(client, endpoint, options);
+            System.out.printf("%nCible %s : %.0f req/s, %d en vol max, chauffe %s, mesure %s, %d secteurs / %d classes%n",
+                    endpoint, options.rate(), options.concurrency(), options.warmup(), options.duration(),
+                    dataset.sectorCount(), dataset.classCount());
+
+            OpenModelGenerator generator = new OpenModelGenerator(client, endpoint, dataset, options);
+            Map<SoapOperation, OperationStats> stats = generator.run();
+            report(stats, options, generator.maxBacklog(), generator.abandoned());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Données initiales créées par SOAP, comme le ferait un client.
+     */
+    private static Dataset seed(HttpClient client, URI endpoint, LoadTestOptions options)
+            throws IOException, InterruptedException {
+        Dataset dataset = new Dataset();
+        for (int i = 0; i < options.sectors(); i++) {
+            dataset.addSector(create(client, endpoint, SoapOperation.ADD_SECTORS.envelope(dataset)));
+        }
+        for (int i = 0; i < options.classes(); i++) {
+            dataset.addClass(create(client, endpoint, SoapOperation.CREATE_CLASSES.envelope(dataset)));
+        }
+        return dataset;
+    }
+
+    private static long create(HttpClient client, URI endpoint, String envelope)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = OpenModelGenerator.send(client, endpoint, envelope);
+        Long id = OpenModelGenerator.isSuccess(response) ? SoapOperation.firstId(response.body()) : null;
+        if (id == null) {
+            throw new IllegalStateException("Échec de la création des données initiales : " + response.body());
+        }
+        return id;
+    }
+
+    private static void report(Map<SoapOperation, OperationStats> stats, LoadTestOptions options, int maxBacklog,
+                               int abandoned) throws IOException {
+        double seconds = options.duration().toNanos() / 1e9;
+        Files.createDirectories(options.output());
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+
+        System.out.printf("%n%-15s %9s %9s %7s %9s %9s %9s %9s %9s %12s%n", "operation", "requetes", "req/s",
+                "erreurs", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 svc ms");
+        for (Map.Entry<SoapOperation, OperationStats> entry : stats.entrySet()) {
+            Histogram responseTime = entry.getValue().responseTime();
+            Histogram serviceTime = entry.getValue().serviceTime();
+            total.add(responseTime);
+            totalErrors += entry.getValue().errors();
+            print(entry.getKey().operationName(), responseTime, serviceTime, entry.getValue().errors(), seconds);
+            try (PrintStream out = new PrintStream(
+                    options.output().resolve(entry.getKey().operationName() + ".hgrm").toFile())) {
+                responseTime.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        print("TOTAL", total, null, totalErrors, seconds);
+        System.out.printf("%nFile d'attente max : %d requêtes. Distributions (ms) écrites dans %s%n",
+                maxBacklog, options.output().toAbsolutePath());
+        if (abandoned > 0) {
+            System.out.printf("%d requêtes abandonnées après %d s de vidange de la file, comptées en erreur%n",
+                    abandoned, OpenModelGenerator.DRAIN_TIMEOUT.toSeconds());
+        }
+    }
+
+    private static void print(String name, Histogram responseTime, Histogram serviceTime, long errors, double seconds) {
+        StringBuilder line = new StringBuilder(String.format("%-15s %9d %9.1f %7d",
+                name, responseTime.getTotalCount(), responseTime.getTotalCount() / seconds, errors));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %9.2f", responseTime.getValueAtPercentile(percentile) / 1000.0));
+        }
+        line.append(String.format(" %9.2f", responseTime.getMaxValue() / 1000.0));
+        if (serviceTime != null) {
+            line.append(String.format(" %12.2f", serviceTime.getValueAtPercentile(99) / 1000.0));
+        }
+        System.out.println(line);
+    }
+}
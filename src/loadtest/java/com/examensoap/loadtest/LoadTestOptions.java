@@ -0,0 +1,93 @@
+package com.examensoap.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paramètres du test de charge, passés en arguments {@code cle=valeur}
+ * (par exemple {@code rate=500 duration=60s concurrency=64}).
+ *
+ * @param rate        débit cible en requêtes par seconde (modèle ouvert : indépendant des temps de réponse)
+ * @param warmup      durée de chauffe, non mesurée
+ * @param duration    durée de la mesure
+ * @param concurrency nombre maximal de requêtes en vol
+ * @param mix         poids relatif de chaque opération
+ * @param sectors     secteurs créés avant la chauffe
+ * @param classes     classes créées avant la chauffe
+ * @param target      URL d'une instance déjà démarrée ; si absente, l'application est démarrée sur H2
+ * @param output      répertoire des distributions HdrHistogram ({@code .hgrm})
+ * @param profiles    profils Spring de l'application démarrée ({@code loadtest} par défaut, {@code loadtest,prod}
+ *                    pour mesurer la configuration de production)
+ */
+public record LoadTestOptions(double rate, Duration warmup, Duration duration, int concurrency,
+                              Map<SoapOperation, Integer> mix, int sectors, int classes,
+                              URI target, Path output, List<String> profiles) {
+
+    static final String DEFAULT_MIX = "getSectors:20,getAllSectors:5,addSectors:5,updateSectors:5,deleteSectors:5,"
+            + "getClasses:30,getAllClasses:5,createClasses:15,deleteClasses:10";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argument attendu sous la forme cle=valeur : " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("sectors", "20")),
+                Integer.parseInt(values.getOrDefault("classes", "200")),
+                values.containsKey("target") ? URI.create(values.get("target")) : null,
+                Path.of(values.getOrDefault("output", "target/loadtest")),
+                List.of(values.getOrDefault("profiles", "loadtest").split(",")));
+        if (options.rate <= 0 || options.concurrency <= 0 || options.sectors <= 0) {
+            throw new IllegalArgumentException("rate, concurrency et sectors doivent être positifs");
+        }
+        return options;
+    }
+
+    /**
+     * Format {@code operation:poids,...} ; les opérations absentes ne sont pas appelées.
+     */
+    static Map<SoapOperation, Integer> mix(String value) {
+        Map<SoapOperation, Integer> mix = new EnumMap<>(SoapOperation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight > 0) {
+                mix.put(SoapOperation.byName(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Le mix ne contient aucune opération : " + value);
+        }
+        return mix;
+    }
+
+    /**
+     * Durées au format {@code 30s}, {@code 2m} ou ISO-8601 ({@code PT30S}).
+     */
+    private static Duration duration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Durée invalide : " + value);
+        };
+    }
+}
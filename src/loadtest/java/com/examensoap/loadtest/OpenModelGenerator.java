@@ -0,0 +1,178 @@
+package com.examensoap.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur de charge en modèle ouvert : les requêtes partent à débit constant, selon un calendrier
+ * fixé à l'avance, que le serveur suive ou non.
+ * <p>
+ * Un thread planificateur publie chaque requête à son instant prévu ; {@code concurrency} workers les
+ * envoient. Quand tous les workers sont occupés, les requêtes attendent dans la file et ce retard est
+ * compté dans leur temps de réponse, au lieu de disparaître comme dans un générateur en boucle fermée.
+ * <p>
+ * En fin de mesure, la file est vidée pendant au plus {@link #DRAIN_TIMEOUT}. Les requêtes encore en
+ * attente ou en cours sont alors abandonnées, mais comptées en erreur avec le temps écoulé depuis leur
+ * instant prévu : ce sont celles qui ont le plus attendu, les écarter sous-estimerait les percentiles
+ * hauts.
+ */
+final class OpenModelGenerator {
+
+    static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final Dataset dataset;
+    private final LoadTestOptions options;
+    private final Map<SoapOperation, OperationStats> stats = new EnumMap<>(SoapOperation.class);
+    private final AtomicInteger abandoned = new AtomicInteger();
+    private int maxBacklog;
+
+    OpenModelGenerator(HttpClient client, URI endpoint, Dataset dataset, LoadTestOptions options) {
+        this.client = client;
+        this.endpoint = endpoint;
+        this.dataset = dataset;
+        this.options = options;
+        options.mix().keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+    }
+
+    Map<SoapOperation, OperationStats> run() throws InterruptedException {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(options.concurrency(), options.concurrency(),
+                0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                task -> new Thread(task, "loadtest-" + threads.incrementAndGet()));
+        SoapOperation[] wheel = wheel(options.mix());
+        SplittableRandom random = new SplittableRandom(42);
+        double intervalNanos = 1_000_000_000d / options.rate();
+
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            parkUntil(intendedStart);
+            SoapOperation operation = wheel[random.nextInt(wheel.length)];
+            boolean measured = intendedStart >= measureStart;
+            workers.execute(new ScheduledCall(operation, intendedStart, measured));
+            maxBacklog = Math.max(maxBacklog, workers.getQueue().size());
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            // Les requêtes en cours, interrompues, s'enregistrent elles-mêmes
+            List<Runnable> queued = workers.shutdownNow();
+            long now = System.nanoTime();
+            queued.forEach(call -> ((ScheduledCall) call).abandon(now));
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return stats;
+    }
+
+    /**
+     * Requêtes abandonnées à la fin de la vidange de la file, mesurées ou non : chacune est comptée en
+     * erreur dans les statistiques de son opération si elle était dans la fenêtre de mesure.
+     */
+    int abandoned() {
+        return abandoned.get();
+    }
+
+    /**
+     * Plus grand nombre de requêtes en attente d'un worker : au-delà de quelques unités, le débit cible
+     * dépasse ce que le serveur (ou {@code concurrency}) peut absorber.
+     */
+    int maxBacklog() {
+        return maxBacklog;
+    }
+
+    private final class ScheduledCall implements Runnable {
+
+        private final SoapOperation operation;
+        private final long intendedStart;
+        private final boolean measured;
+
+        ScheduledCall(SoapOperation operation, long intendedStart, boolean measured) {
+            this.operation = operation;
+            this.intendedStart = intendedStart;
+            this.measured = measured;
+        }
+
+        @Override
+        public void run() {
+            long actualStart = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<String> response = send(client, endpoint, operation.envelope(dataset));
+                success = isSuccess(response);
+                if (success) {
+                    operation.onResponse(dataset, response.body());
+                }
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(actualStart);
+                return;
+            }
+            if (measured) {
+                stats.get(operation).record(intendedStart, actualStart, System.nanoTime(), success);
+            }
+        }
+
+        /**
+         * @param actualStart l'envoi effectif, ou l'abandon pour une requête restée dans la file
+         */
+        void abandon(long actualStart) {
+            abandoned.incrementAndGet();
+            if (measured) {
+                stats.get(operation).record(intendedStart, actualStart, System.nanoTime(), false);
+            }
+        }
+    }
+
+    static HttpResponse<String> send(HttpClient client, URI endpoint, String envelope)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    static boolean isSuccess(HttpResponse<String> response) {
+        return response.statusCode() == 200 && !response.body().contains("Fault>");
+    }
+
+    private static SoapOperation[] wheel(Map<SoapOperation, Integer> mix) {
+        List<SoapOperation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        return wheel.toArray(SoapOperation[]::new);
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
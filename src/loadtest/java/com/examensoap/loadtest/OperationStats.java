@@ -0,0 +1,42 @@
+package com.examensoap.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences d'une opération, en microsecondes.
+ * <ul>
+ *     <li>temps de réponse : depuis l'instant où la requête <em>aurait dû</em> partir selon le débit cible.
+ *     Il inclut l'attente d'un slot libre quand le serveur ralentit, ce qui corrige l'omission
+ *     coordonnée ;</li>
+ *     <li>temps de service : depuis l'envoi effectif, ce que mesurerait un générateur en boucle fermée.</li>
+ * </ul>
+ */
+final class OperationStats {
+
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long intendedStart, long actualStart, long end, boolean success) {
+        responseTime.recordValue((end - intendedStart) / 1_000);
+        serviceTime.recordValue((end - actualStart) / 1_000);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Histogram responseTime() {
+        return responseTime.getIntervalHistogram();
+    }
+
+    Histogram serviceTime() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
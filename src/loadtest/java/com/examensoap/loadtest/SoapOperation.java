@@ -0,0 +1,134 @@
+package com.examensoap.loadtest;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Opérations du projet SoapUI ({@code soap-examen-soapui-project.xml}) et leurs requêtes.
+ * <p>
+ * Les lectures et mises à jour visent les données créées au démarrage ; les suppressions visent
+ * les entités créées pendant le test par {@code addSectors} et {@code createClasses}, pour ne pas
+ * vider le jeu de données. Sans entité à supprimer, la requête vise un id inexistant.
+ */
+public enum SoapOperation {
+
+    GET_SECTORS("getSectors", Namespace.SECTORS) {
+        @Override
+        String body(Dataset dataset) {
+            return "<s:getSectorsRequest><s:id>" + dataset.sectorId() + "</s:id></s:getSectorsRequest>";
+        }
+    },
+    GET_ALL_SECTORS("getAllSectors", Namespace.SECTORS) {
+        @Override
+        String body(Dataset dataset) {
+            return "<s:getAllSectorsRequest/>";
+        }
+    },
+    ADD_SECTORS("addSectors", Namespace.SECTORS) {
+        @Override
+        String body(Dataset dataset) {
+            return "<s:addSectorsRequest><s:sectors><s:id>0</s:id><s:name>Secteur " + dataset.nextName()
+                    + "</s:name></s:sectors></s:addSectorsRequest>";
+        }
+
+        @Override
+        void onResponse(Dataset dataset, String response) {
+            Long id = firstId(response);
+            if (id != null) {
+                dataset.disposableSectors().add(id);
+            }
+        }
+    },
+    UPDATE_SECTORS("updateSectors", Namespace.SECTORS) {
+        @Override
+        String body(Dataset dataset) {
+            return "<s:updateSectorsRequest><s:id>" + dataset.sectorId() + "</s:id><s:name>Secteur "
+                    + dataset.nextName() + "</s:name></s:updateSectorsRequest>";
+        }
+    },
+    DELETE_SECTORS("deleteSectors", Namespace.SECTORS) {
+        @Override
+        String body(Dataset dataset) {
+            Long id = dataset.disposableSectors().poll();
+            return "<s:deleteSectorsRequest><s:id>" + (id != null ? id : -1) + "</s:id></s:deleteSectorsRequest>";
+        }
+    },
+    GET_CLASSES("getClasses", Namespace.CLASSES) {
+        @Override
+        String body(Dataset dataset) {
+            return "<c:getClassesRequest><c:id>" + dataset.classId() + "</c:id></c:getClassesRequest>";
+        }
+    },
+    GET_ALL_CLASSES("getAllClasses", Namespace.CLASSES) {
+        @Override
+        String body(Dataset dataset) {
+            return "<c:getAllClassesRequest/>";
+        }
+    },
+    CREATE_CLASSES("createClasses", Namespace.CLASSES) {
+        @Override
+        String body(Dataset dataset) {
+            return "<c:createClassesRequest><c:className><c:id>0</c:id><c:className>Classe " + dataset.nextName()
+                    + "</c:className><c:description>Créée par le test de charge</c:description><c:sectors>"
+                    + dataset.sectorId() + "</c:sectors></c:className></c:createClassesRequest>";
+        }
+
+        @Override
+        void onResponse(Dataset dataset, String response) {
+            Long id = firstId(response);
+            if (id != null) {
+                dataset.disposableClasses().add(id);
+            }
+        }
+    },
+    DELETE_CLASSES("deleteClasses", Namespace.CLASSES) {
+        @Override
+        String body(Dataset dataset) {
+            Long id = dataset.disposableClasses().poll();
+            return "<c:deleteClassesRequest><c:id>" + (id != null ? id : -1) + "</c:id></c:deleteClassesRequest>";
+        }
+    };
+
+    private static final Pattern ID = Pattern.compile("<(?:\\w+:)?id>(\\d+)</");
+
+    private final String operationName;
+    private final String namespace;
+
+    SoapOperation(String operationName, String namespace) {
+        this.operationName = operationName;
+        this.namespace = namespace;
+    }
+
+    public String operationName() {
+        return operationName;
+    }
+
+    abstract String body(Dataset dataset);
+
+    void onResponse(Dataset dataset, String response) {
+    }
+
+    String envelope(Dataset dataset) {
+        return "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:"
+                + namespace + "><soapenv:Header/><soapenv:Body>" + body(dataset)
+                + "</soapenv:Body></soapenv:Envelope>";
+    }
+
+    static Long firstId(String response) {
+        Matcher matcher = ID.matcher(response);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    static SoapOperation byName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.operationName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Opération inconnue : " + name));
+    }
+
+    private static final class Namespace {
+        static final String SECTORS = "s=\"http://examensoap.com/Sectors\"";
+        static final String CLASSES = "c=\"http://examensoap.com/Classes\"";
+    }
+}
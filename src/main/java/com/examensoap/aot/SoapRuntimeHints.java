@@ -0,0 +1,81 @@
+package com.examensoap.aot;
+
+import com.examensoap.jfr.JfrEndpoint;
+import com.examensoap.statistics.HibernateQueriesEndpoint;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.ws.server.endpoint.annotation.Endpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Hints de l'image native (GraalVM) pour ce que l'AOT de Spring ne peut pas déduire des beans.
+ * <ul>
+ *     <li>JAXB : les classes générées de {@code com.examensoap.model}, leur {@code ObjectFactory} et
+ *     le {@code package-info} qui porte le namespace, lus par réflexion ;</li>
+ *     <li>les XSD de {@code xsd/}, servis avec les WSDL ;</li>
+ *     <li>Spring-WS : les méthodes {@code @PayloadRoot} des classes {@code @Endpoint} (trouvées par scan,
+ *     un nouvel endpoint est donc couvert), appelées par réflexion, et l'implémentation SAAJ, chargée par
+ *     {@code ServiceLoader} ;</li>
+ *     <li>les records sérialisés en JSON par les endpoints actuator.</li>
+ * </ul>
+ * Les entités Hibernate et les mappers MapStruct (beans Spring) sont pris en charge par l'AOT
+ * de Spring Boot et les métadonnées GraalVM des bibliothèques. {@code SoapRuntimeHintsTests} vérifie ces
+ * hints contre le classpath.
+ */
+public class SoapRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String MODEL_PACKAGE = "com.examensoap.model";
+
+    static final String ENDPOINT_PACKAGE = "com.examensoap";
+
+    private static final List<String> SAAJ_IMPLEMENTATIONS = List.of(
+            "com.sun.xml.messaging.saaj.soap.SAAJMetaFactoryImpl",
+            "com.sun.xml.messaging.saaj.soap.ver1_1.SOAPMessageFactory1_1Impl",
+            "com.sun.xml.messaging.saaj.soap.ver1_1.SOAPFactory1_1Impl",
+            "com.sun.xml.messaging.saaj.soap.ver1_2.SOAPMessageFactory1_2Impl",
+            "com.sun.xml.messaging.saaj.soap.ver1_2.SOAPFactory1_2Impl");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        for (BeanDefinition model : scanner.findCandidateComponents(MODEL_PACKAGE)) {
+            hints.reflection().registerType(TypeReference.of(model.getBeanClassName()), MemberCategory.values());
+        }
+        // Porte @XmlSchema (namespace des éléments) : lu avec Package#getAnnotation
+        hints.reflection().registerType(ClassUtils.resolveClassName(MODEL_PACKAGE + ".package-info", classLoader));
+        hints.resources().registerPattern("xsd/*.xsd");
+
+        ClassPathScanningCandidateComponentProvider endpoints = new ClassPathScanningCandidateComponentProvider(false);
+        endpoints.setResourceLoader(new DefaultResourceLoader(classLoader));
+        endpoints.addIncludeFilter(new AnnotationTypeFilter(Endpoint.class));
+        for (BeanDefinition endpoint : endpoints.findCandidateComponents(ENDPOINT_PACKAGE)) {
+            for (Method method : ClassUtils.resolveClassName(endpoint.getBeanClassName(), classLoader).getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PayloadRoot.class)) {
+                    hints.reflection().registerMethod(method, ExecutableMode.INVOKE);
+                }
+            }
+        }
+        for (String implementation : SAAJ_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(implementation), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/jakarta.xml.soap.*");
+        hints.resources().registerPattern("com/sun/xml/messaging/saaj/**/LocalStrings*.properties");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                JfrEndpoint.RecordingInfo.class, HibernateQueriesEndpoint.QueryAggregate.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.examensoap.config;
+
+import com.examensoap.statistics.HibernateQueriesEndpoint;
+import com.examensoap.statistics.SlowQueryStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.cfg.StatisticsSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Statistiques Hibernate et journal des requêtes lentes (opt-in).
+ * <p>
+ * Activé par {@code examensoap.hibernate.statistics.enabled=true} (profil {@code prod}) : c'est le
+ * remplaçant de {@code spring.jpa.show-sql}, qui imprime chaque requête sans dire lesquelles sont lentes.
+ * Seules les requêtes au-delà de {@code examensoap.hibernate.slow-query-threshold} sont journalisées,
+ * avec leur nombre de lignes ; les agrégats par requête sont servis par l'endpoint actuator
+ * {@code hibernatequeries}, à exposer sur un port de management séparé.
+ */
+@Configuration
+@ConditionalOnProperty(name = "examensoap.hibernate.statistics.enabled")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer slowQueryStatisticsCustomizer(
+            @Value("${examensoap.hibernate.slow-query-threshold:200}") long thresholdMillis) {
+        StatisticsFactory statisticsFactory = sessionFactory -> new SlowQueryStatistics(sessionFactory, thresholdMillis);
+        return properties -> {
+            properties.put(StatisticsSettings.GENERATE_STATISTICS, true);
+            properties.put(StatisticsSettings.STATS_BUILDER, statisticsFactory);
+            properties.put(JdbcSettings.LOG_SLOW_QUERY, thresholdMillis);
+        };
+    }
+
+    @Bean
+    public HibernateQueriesEndpoint hibernateQueriesEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueriesEndpoint(entityManagerFactory);
+    }
+}
@@ -0,0 +1,35 @@
+package com.examensoap.config;
+
+import com.examensoap.jfr.JfrEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Enregistrements JDK Flight Recorder : endpoint actuator {@code jfr} et, si
+ * {@code examensoap.jfr.continuous.enabled=true} (profil {@code prod}), un enregistrement permanent
+ * à faible surcoût (configuration {@code default}) borné par {@code max-age} et {@code max-size}.
+ */
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(
+            @Value("${examensoap.jfr.dump-directory:${java.io.tmpdir}/examensoap-jfr}") Path dumpDirectory,
+            @Value("${examensoap.jfr.continuous.enabled:false}") boolean continuous,
+            @Value("${examensoap.jfr.continuous.settings:default}") String settings,
+            @Value("${examensoap.jfr.continuous.max-age:30m}") Duration maxAge,
+            @Value("${examensoap.jfr.continuous.max-size:250MB}") DataSize maxSize) throws IOException, ParseException {
+        JfrEndpoint endpoint = new JfrEndpoint(dumpDirectory);
+        if (continuous) {
+            endpoint.startContinuous(settings, maxAge, maxSize.toBytes());
+        }
+        return endpoint;
+    }
+}
@@ -0,0 +1,13 @@
+package com.examensoap.config;
+
+import com.examensoap.aot.SoapRuntimeHints;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Enregistre les hints de l'image native ({@link SoapRuntimeHints}) ; sans effet sur la JVM.
+ */
+@Configuration
+@ImportRuntimeHints(SoapRuntimeHints.class)
+public class NativeHintsConfig {
+}
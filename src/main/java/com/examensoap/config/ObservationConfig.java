@@ -0,0 +1,62 @@
+package com.examensoap.config;
+
+import com.examensoap.tracing.FileSpanExporter;
+import com.examensoap.tracing.ObservedEndpointAdapter;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Observations Micrometer des phases SOAP et export des traces.
+ * <p>
+ * Les observations ({@code soap.dispatch}, {@code soap.invoke}, {@code soap.unmarshal},
+ * {@code soap.marshal}, {@code soap.service}, requêtes JDBC) produisent des métriques en
+ * permanence ; elles ne deviennent des spans OpenTelemetry que si le tracing est actif
+ * (profil {@code tracing}). Les spans sont alors exportés vers un collecteur OTLP
+ * ({@code management.otlp.tracing.endpoint}) et/ou un fichier local ({@code examensoap.tracing.file.path}).
+ */
+@Configuration
+public class ObservationConfig {
+
+    /**
+     * Remplace l'adaptateur des méthodes {@code @PayloadRoot} créé par {@code @EnableWs}
+     * par sa version observée.
+     */
+    @Bean
+    public static BeanPostProcessor observedEndpointAdapterPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DefaultMethodEndpointAdapter adapter) {
+                    return new ObservedEndpointAdapter(adapter,
+                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Propage le contexte de trace aux tâches de l'exécuteur applicatif (éléments parallèles d'un lot).
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "examensoap.tracing.file.path")
+    public FileSpanExporter fileSpanExporter(@Value("${examensoap.tracing.file.path}") Path path) throws IOException {
+        return new FileSpanExporter(path);
+    }
+}
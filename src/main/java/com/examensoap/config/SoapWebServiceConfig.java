@@ -1,16 +1,27 @@
 package com.examensoap.config;
 
+import com.examensoap.transport.FastInfosetFilter;
+import com.examensoap.transport.SoapSizeMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.ws.config.annotation.EnableWs;
+import org.springframework.ws.config.annotation.WsConfigurer;
+import org.springframework.ws.server.EndpointInterceptor;
 import org.springframework.ws.transport.http.MessageDispatcherServlet;
 import org.springframework.ws.wsdl.wsdl11.DefaultWsdl11Definition;
 import org.springframework.xml.xsd.SimpleXsdSchema;
 import org.springframework.xml.xsd.XsdSchema;
 
+import java.util.List;
+
 /**
  * Configuration du service web SOAP pour l'application.
  * <p>
@@ -23,10 +34,29 @@ import org.springframework.xml.xsd.XsdSchema;
  * <p>
  * Les schémas XSD sont utilisés pour valider les messages échangés et générer dynamiquement
  * les WSDL exposés par l'application.
+ * <p>
+ * Tous les beans {@link EndpointInterceptor} du contexte sont enregistrés auprès des endpoints,
+ * dans l'ordre défini par leur annotation {@code @Order}.
  */
 @EnableWs
 @Configuration
-public class SoapWebServiceConfig {
+public class SoapWebServiceConfig implements WsConfigurer {
+
+    private final ObjectProvider<EndpointInterceptor> endpointInterceptors;
+
+    public SoapWebServiceConfig(ObjectProvider<EndpointInterceptor> endpointInterceptors) {
+        this.endpointInterceptors = endpointInterceptors;
+    }
+
+    /**
+     * Enregistre les intercepteurs SOAP déclarés comme beans (métriques, limites de concurrence, ...).
+     *
+     * @param interceptors la liste des intercepteurs de Spring-WS à compléter
+     */
+    @Override
+    public void addInterceptors(List<EndpointInterceptor> interceptors) {
+        endpointInterceptors.orderedStream().forEach(interceptors::add);
+    }
 
     /**
      * Configure et enregistre le MessageDispatcherServlet pour gérer les requêtes SOAP.
@@ -48,6 +78,43 @@ public class SoapWebServiceConfig {
         return registrationBean;
     }
 
+    /**
+     * Enregistre la négociation Fast Infoset devant le MessageDispatcherServlet.
+     * <p>
+     * Seules les requêtes qui demandent explicitement Fast Infoset (Content-Type ou Accept)
+     * sont converties ; le XML texte reste le format par défaut.
+     *
+     * @return un bean FilterRegistrationBean limité aux URLs /ws/*
+     */
+    @Bean
+    @ConditionalOnProperty(name = "examensoap.ws.fastinfoset.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<FastInfosetFilter> fastInfosetFilter() {
+        FilterRegistrationBean<FastInfosetFilter> registrationBean =
+                new FilterRegistrationBean<>(new FastInfosetFilter());
+        registrationBean.addUrlPatterns("/ws/*");
+        registrationBean.setName("fastInfosetFilter");
+        registrationBean.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registrationBean;
+    }
+
+    /**
+     * Enregistre la mesure de la taille des messages SOAP.
+     * <p>
+     * Il est placé avant le filtre Fast Infoset pour compter les octets réellement échangés.
+     *
+     * @param meterRegistry le registre Micrometer injecté automatiquement
+     * @return un bean FilterRegistrationBean limité aux URLs /ws/*
+     */
+    @Bean
+    public FilterRegistrationBean<SoapSizeMetricsFilter> soapSizeMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SoapSizeMetricsFilter> registrationBean =
+                new FilterRegistrationBean<>(new SoapSizeMetricsFilter(meterRegistry));
+        registrationBean.addUrlPatterns("/ws/*");
+        registrationBean.setName("soapSizeMetricsFilter");
+        registrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registrationBean;
+    }
+
     //Configuration des schémas XSD pour le système de classes et secteurs
 
     /**
@@ -73,6 +140,26 @@ public class SoapWebServiceConfig {
         return new SimpleXsdSchema(new ClassPathResource("xsd/Classes.xsd"));
     }
 
+    /**
+     * Définit le schéma XSD de l'enveloppe de lot.
+     *
+     * @return un bean XsdSchema basé sur le fichier Batch.xsd situé dans le dossier xsd du classpath
+     */
+    @Bean(name = "batchSchema")
+    public XsdSchema batchSchema() {
+        return new SimpleXsdSchema(new ClassPathResource("xsd/Batch.xsd"));
+    }
+
+    /**
+     * Définit le schéma XSD de l'export complet.
+     *
+     * @return un bean XsdSchema basé sur le fichier Export.xsd situé dans le dossier xsd du classpath
+     */
+    @Bean(name = "exportSchema")
+    public XsdSchema exportSchema() {
+        return new SimpleXsdSchema(new ClassPathResource("xsd/Export.xsd"));
+    }
+
     /**
      * Définit le bean WSDL pour les secteurs.
      * <p>
@@ -112,4 +199,42 @@ public class SoapWebServiceConfig {
         wsdl11Definition.setSchema(classesSchema);
         return wsdl11Definition;
     }
+
+    /**
+     * Définit le bean WSDL pour les lots de requêtes.
+     * <p>
+     * Ce bean expose le schéma XSD des lots via un WSDL généré dynamiquement,
+     * accessible à l'URL /ws/batchWsdl.wsdl.
+     *
+     * @param batchSchema le schéma XSD des lots injecté automatiquement par Spring
+     * @return une instance de DefaultWsdl11Definition configurée pour les lots
+     */
+    @Bean(name = "batchWsdl")
+    public DefaultWsdl11Definition batchWsdl11Definition(XsdSchema batchSchema) {
+        DefaultWsdl11Definition wsdl11Definition = new DefaultWsdl11Definition();
+        wsdl11Definition.setPortTypeName("BatchPort");
+        wsdl11Definition.setLocationUri("/ws/");
+        wsdl11Definition.setTargetNamespace("http://examensoap.com/Batch");
+        wsdl11Definition.setSchema(batchSchema);
+        return wsdl11Definition;
+    }
+
+    /**
+     * Définit le bean WSDL pour l'export complet.
+     * <p>
+     * Ce bean expose le schéma XSD de l'export via un WSDL généré dynamiquement,
+     * accessible à l'URL /ws/exportWsdl.wsdl.
+     *
+     * @param exportSchema le schéma XSD de l'export injecté automatiquement par Spring
+     * @return une instance de DefaultWsdl11Definition configurée pour l'export
+     */
+    @Bean(name = "exportWsdl")
+    public DefaultWsdl11Definition exportWsdl11Definition(XsdSchema exportSchema) {
+        DefaultWsdl11Definition wsdl11Definition = new DefaultWsdl11Definition();
+        wsdl11Definition.setPortTypeName("ExportPort");
+        wsdl11Definition.setLocationUri("/ws/");
+        wsdl11Definition.setTargetNamespace("http://examensoap.com/Export");
+        wsdl11Definition.setSchema(exportSchema);
+        return wsdl11Definition;
+    }
 }
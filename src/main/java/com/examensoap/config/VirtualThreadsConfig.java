@@ -0,0 +1,39 @@
+package com.examensoap.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Vérifications du mode threads virtuels (profil {@code virtual-threads}).
+ * <p>
+ * Spring Boot ignore silencieusement {@code spring.threads.virtual.enabled} sur un runtime
+ * antérieur à Java 21 : l'application tournerait alors sur le pool Tomcat classique avec un
+ * pool JDBC dimensionné pour les threads virtuels. Cette classe le signale au démarrage.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private final int maximumPoolSize;
+
+    public VirtualThreadsConfig(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            logger.warn("Profil virtual-threads actif sur Java {} : les threads virtuels nécessitent Java 21+, "
+                    + "Tomcat reste sur son pool de threads classique", javaVersion);
+            return;
+        }
+        logger.info("Requêtes SOAP exécutées sur des threads virtuels, accès MySQL borné à {} connexions", maximumPoolSize);
+    }
+}
@@ -0,0 +1,19 @@
+package com.examensoap.dao;
+
+import com.examensoap.entity.ChangeSequenceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequenceEntity, String> {
+
+    // SELECT ... FOR UPDATE : la ligne reste verrouillée jusqu'à la fin de la transaction d'écriture
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ChangeSequenceEntity s WHERE s.name = :name")
+    Optional<ChangeSequenceEntity> findForUpdate(String name);
+}
@@ -0,0 +1,18 @@
+package com.examensoap.dao;
+
+import com.examensoap.entity.ChangeTombstoneEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeTombstoneRepository extends JpaRepository<ChangeTombstoneEntity, Long> {
+
+    @Query("SELECT t FROM ChangeTombstoneEntity t WHERE t.entityType = :entityType"
+            + " AND t.seq > :since AND t.seq <= :upTo ORDER BY t.seq")
+    List<ChangeTombstoneEntity> findChangedSince(ChangeTombstoneEntity.EntityType entityType,
+                                                 long since, long upTo, Limit limit);
+}
@@ -1,6 +1,7 @@
 package com.examensoap.dao;
 
 import com.examensoap.entity.ClassesEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,7 +14,22 @@ public interface ClassesRepository extends JpaRepository<ClassesEntity, Long> {
     @Query("SELECT c FROM ClassesEntity c  JOIN FETCH c.sectors WHERE c.id = :id")
     ClassesEntity findByIdWithSectors(Long id);
 
+    // Requête explicite : la version dérivée du nom de méthode joint sectors_entity pour filtrer
+    // sur son id, au lieu de lire l'index de classes_entity.sector_id
+    @Query("SELECT c FROM ClassesEntity c WHERE c.sectors.id = :sectorsId")
     List<ClassesEntity> findBySectorsId(Long sectorsId);
 
+    @Query("SELECT c FROM ClassesEntity c WHERE c.updatedSeq > :since AND c.updatedSeq <= :upTo ORDER BY c.updatedSeq")
+    List<ClassesEntity> findChangedSince(long since, long upTo, Limit limit);
+
+    // Lue par la réconciliation des compteurs par filière, jamais pendant une requête SOAP
+    @Query("SELECT c.sectors.id AS sectorId, COUNT(c) AS classCount FROM ClassesEntity c GROUP BY c.sectors.id")
+    List<SectorClassCount> countBySector();
+
+    interface SectorClassCount {
+        Long getSectorId();
+
+        long getClassCount();
+    }
 
 }
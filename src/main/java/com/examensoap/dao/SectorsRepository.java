@@ -1,13 +1,19 @@
 package com.examensoap.dao;
 
 import com.examensoap.entity.SectorsEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SectorsRepository extends JpaRepository<SectorsEntity, Long> {
 
     @Query("SELECT s FROM SectorsEntity s LEFT JOIN FETCH s.classes")
     public SectorsEntity findAllWithClasses();
+
+    @Query("SELECT s FROM SectorsEntity s WHERE s.updatedSeq > :since AND s.updatedSeq <= :upTo ORDER BY s.updatedSeq")
+    List<SectorsEntity> findChangedSince(long since, long upTo, Limit limit);
 }
@@ -0,0 +1,48 @@
+package com.examensoap.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas en lecture ({@code examensoap.datasource.*}).
+ * <p>
+ * Sans réplica configuré, l'application garde la source de données unique de Spring Boot.
+ */
+@Data
+@ConfigurationProperties(prefix = "examensoap.datasource")
+public class ReadReplicaProperties {
+
+    /**
+     * Réplicas qui reçoivent les transactions en lecture seule, à tour de rôle.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Requête qui renvoie le retard du réplica en secondes. {@code SHOW REPLICA STATUS} (MySQL 8)
+     * est lu via sa colonne {@code Seconds_Behind_Source} ; toute autre requête doit renvoyer un nombre.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /**
+     * Au-delà de ce retard, le réplica est écarté et ses lectures repartent vers le primaire.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Intervalle entre deux vérifications du retard des réplicas.
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,81 @@
+package com.examensoap.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source de données qui envoie les transactions en lecture seule vers les réplicas.
+ * <p>
+ * La clé est lue au moment où la connexion est réellement demandée : cette source doit donc être
+ * enveloppée dans un {@code LazyConnectionDataSourceProxy}, sinon la connexion serait prise avant
+ * que le gestionnaire de transactions n'ait indiqué {@code readOnly}.
+ * <p>
+ * Seuls les réplicas déclarés sains par {@link ReplicaLagMonitor} sont utilisés, à tour de rôle.
+ * S'il n'y en a aucun, toutes les lectures repartent vers le primaire.
+ * <p>
+ * Le primaire reçoit tout ce qui n'est pas dans une transaction {@code readOnly}, donc toutes les
+ * écritures (elles sont faites dans les transactions en lecture-écriture des services) et les lectures
+ * faites dans ces transactions. Attention : les méthodes de lecture de {@code SimpleJpaRepository}
+ * ({@code findById}, {@code findAll}…) sont elles-mêmes {@code @Transactional(readOnly = true)}.
+ * Appelées hors transaction, elles ouvrent leur propre transaction en lecture seule et vont vers un
+ * réplica, qui peut être en retard. Une lecture qui doit voir une écriture qui vient d'être faite se
+ * place dans une transaction en lecture-écriture.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    // Vide tant que la première vérification n'a pas eu lieu : lectures sur le primaire
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = new LinkedHashMap<>(replicas);
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    void setHealthyReplicas(List<String> healthyReplicas) {
+        this.healthyReplicas = List.copyOf(healthyReplicas);
+    }
+
+    /**
+     * Les réplicas ne sont pas des beans : c'est cette source qui ferme leurs pools.
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
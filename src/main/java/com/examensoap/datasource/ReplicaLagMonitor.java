@@ -0,0 +1,107 @@
+package com.examensoap.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vérifie périodiquement le retard de chaque réplica et met à jour la liste des réplicas
+ * utilisables par {@link ReadReplicaRoutingDataSource}.
+ * <p>
+ * Un réplica injoignable, dont la réplication est arrêtée ou dont le retard dépasse
+ * {@code examensoap.datasource.max-lag} est écarté jusqu'à la vérification suivante.
+ * <p>
+ * Métrique exposée (tag {@code replica}) : {@code datasource.replica.lag}, en secondes
+ * ({@code NaN} si le retard est inconnu).
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final ReadReplicaRoutingDataSource routingDataSource;
+    private final ReadReplicaProperties properties;
+    private final Map<String, Double> lags = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReadReplicaRoutingDataSource routingDataSource, ReadReplicaProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+        for (String replica : routingDataSource.getReplicas().keySet()) {
+            lags.put(replica, Double.NaN);
+            Gauge.builder("datasource.replica.lag", lags, values -> values.getOrDefault(replica, Double.NaN))
+                    .tag("replica", replica)
+                    .baseUnit("seconds")
+                    .description("Retard de réplication du réplica en lecture")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${examensoap.datasource.check-interval:5s}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            double lag = measureLag(replica.getKey(), replica.getValue());
+            double previous = lags.put(replica.getKey(), lag);
+
+            boolean usable = !Double.isNaN(lag) && lag <= properties.getMaxLag().toSeconds();
+            boolean wasUsable = !Double.isNaN(previous) && previous <= properties.getMaxLag().toSeconds();
+            if (usable) {
+                healthy.add(replica.getKey());
+            }
+            if (usable && !wasUsable) {
+                logger.info("Réplica {} utilisé pour les lectures (retard {} s)", replica.getKey(), lag);
+            } else if (!usable && wasUsable) {
+                logger.warn("Réplica {} écarté (retard {} s), lectures renvoyées vers le primaire", replica.getKey(), lag);
+            }
+        }
+        routingDataSource.setHealthyReplicas(healthy);
+    }
+
+    private double measureLag(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+                if (!resultSet.next()) {
+                    // SHOW REPLICA STATUS vide : le serveur n'est pas un réplica
+                    return Double.NaN;
+                }
+                Number lag = (Number) resultSet.getObject(lagColumn(resultSet));
+                // Seconds_Behind_Source est NULL quand la réplication est arrêtée
+                return lag == null ? Double.NaN : lag.doubleValue();
+            }
+        } catch (SQLException | ClassCastException e) {
+            logger.debug("Vérification du réplica {} impossible : {}", name, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    private static int lagColumn(ResultSet resultSet) throws SQLException {
+        int columns = resultSet.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            String label = resultSet.getMetaData().getColumnLabel(i);
+            for (String lagColumn : LAG_COLUMNS) {
+                if (lagColumn.toLowerCase(Locale.ROOT).equals(label.toLowerCase(Locale.ROOT))) {
+                    return i;
+                }
+            }
+        }
+        return 1;
+    }
+}
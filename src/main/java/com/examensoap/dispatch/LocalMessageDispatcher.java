@@ -0,0 +1,61 @@
+package com.examensoap.dispatch;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.soap.server.SoapMessageDispatcher;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.transform.Source;
+
+/**
+ * Dispatcher SOAP interne, sans transport HTTP.
+ * <p>
+ * Il fait passer un payload XML par la même chaîne que le MessageDispatcherServlet :
+ * mappings {@code @PayloadRoot}, intercepteurs, adaptateurs et résolveurs d'exceptions
+ * déclarés dans le contexte Spring. Les opérations existantes sont donc réutilisées telles
+ * quelles, par exemple pour exécuter les éléments d'un lot.
+ * <p>
+ * Les stratégies sont détectées une fois tous les singletons créés, car les endpoints qui
+ * utilisent ce dispatcher sont eux-mêmes enregistrés dans les mappings.
+ */
+@Component
+public class LocalMessageDispatcher implements ApplicationContextAware, SmartInitializingSingleton {
+
+    private final SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+    private final SoapMessageDispatcher dispatcher = new SoapMessageDispatcher();
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        messageFactory.afterPropertiesSet();
+        dispatcher.setApplicationContext(applicationContext);
+    }
+
+    /**
+     * Enveloppe le payload dans un nouveau message SOAP et le dispatche vers l'endpoint correspondant.
+     *
+     * @param payload le contenu du Body SOAP (par exemple un élément getSectorsRequest)
+     * @return le contexte du message, qui contient la réponse ou la faute SOAP éventuelle
+     * @throws Exception si aucun endpoint ne correspond ou si une erreur n'a pas été convertie en faute
+     */
+    public MessageContext dispatch(Source payload) throws Exception {
+        SoapMessage request = messageFactory.createWebServiceMessage();
+        transformerHelper.transform(payload, request.getPayloadResult());
+        MessageContext messageContext = new DefaultMessageContext(request, messageFactory);
+        dispatcher.receive(messageContext);
+        return messageContext;
+    }
+}
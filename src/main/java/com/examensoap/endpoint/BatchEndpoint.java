@@ -0,0 +1,200 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.dispatch.LocalMessageDispatcher;
+import com.examensoap.exception.ServiceException;
+import com.examensoap.model.BatchRequest;
+import com.examensoap.model.BatchResponse;
+import com.examensoap.model.BatchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.ws.FaultAwareWebServiceMessage;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.annotation.Endpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.xml.transform.TransformerHelper;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * BatchEndpoint exécute plusieurs requêtes existantes en un seul échange SOAP.
+ * <p>
+ * Chaque élément de {@code batchRequest} (getSectorsRequest, getClassesRequest, ...) est
+ * redirigé vers la méthode {@code @PayloadRoot} habituelle via {@link LocalMessageDispatcher}.
+ * Les lectures consécutives sont exécutées en parallèle ; une écriture attend la fin des
+ * lectures qui la précèdent, ce qui conserve l'ordre visible par le client.
+ * Les résultats sont renvoyés dans l'ordre de la requête, chacun avec sa propre erreur.
+ * <p>
+ * Une lecture parallèle reçoit une copie de son élément dans un {@link Document} à elle, faite sur le
+ * thread de la requête : le DOM de la requête n'est pas thread-safe, même en lecture. Elle reçoit
+ * aussi le contexte de transport de la requête HTTP, pour que les intercepteurs qui le lisent
+ * (adresse du client, en-têtes) voient la même chose que sur le thread de la requête. Un lot n'occupe
+ * jamais plus de {@code examensoap.ws.batch.parallelism} threads de l'exécuteur partagé.
+ */
+@Endpoint
+public class BatchEndpoint {
+
+    private static final String NAMESPACE_URI = "http://examensoap.com/Batch";
+    private static final Logger logger = LoggerFactory.getLogger(BatchEndpoint.class);
+
+    /**
+     * Préfixes des opérations sans effet de bord, qui peuvent s'exécuter en parallèle.
+     */
+    private static final List<String> READ_OPERATION_PREFIXES = List.of("get");
+
+    private final LocalMessageDispatcher localMessageDispatcher;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int maxItems;
+    private final int parallelism;
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+
+    public BatchEndpoint(LocalMessageDispatcher localMessageDispatcher,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                         @Value("${examensoap.ws.batch.max-items:50}") int maxItems,
+                         @Value("${examensoap.ws.batch.parallelism:4}") int parallelism) {
+        this.localMessageDispatcher = localMessageDispatcher;
+        this.taskExecutor = taskExecutor;
+        this.maxItems = maxItems;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Traite la requête SOAP `batchRequest`.
+     *
+     * @param request la liste ordonnée des requêtes à exécuter
+     * @return un résultat par requête, dans le même ordre
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "batchRequest")
+    @ResponsePayload
+    public BatchResponse batch(@RequestPayload BatchRequest request) {
+        List<Element> items = request.getAny();
+        logger.info("Exécution d'un lot de {} requêtes", items.size());
+
+        if (items.size() > maxItems) {
+            throw new ServiceException("Le lot contient " + items.size() + " requêtes (maximum " + maxItems + ")");
+        }
+
+        BatchResult[] results = new BatchResult[items.size()];
+        List<CompletableFuture<Void>> pendingReads = new ArrayList<>();
+        Semaphore slots = new Semaphore(parallelism);
+        TransportContext transportContext = TransportContextHolder.getTransportContext();
+
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            Element item = items.get(i);
+            if (!isRead(item)) {
+                // Une écriture ne doit pas être réordonnée avec les lectures qui l'entourent
+                awaitAll(pendingReads);
+                results[index] = execute(index, item);
+                continue;
+            }
+            Element copy;
+            try {
+                copy = toElement(new DOMSource(item));
+            } catch (Exception e) {
+                results[index] = fault(index, item, e);
+                continue;
+            }
+            acquire(slots);
+            try {
+                pendingReads.add(CompletableFuture.runAsync(() -> {
+                    TransportContext previous = TransportContextHolder.getTransportContext();
+                    TransportContextHolder.setTransportContext(transportContext);
+                    try {
+                        results[index] = execute(index, copy);
+                    } finally {
+                        TransportContextHolder.setTransportContext(previous);
+                        slots.release();
+                    }
+                }, taskExecutor));
+            } catch (TaskRejectedException e) {
+                slots.release();
+                results[index] = execute(index, copy);
+            }
+        }
+        awaitAll(pendingReads);
+
+        BatchResponse response = new BatchResponse();
+        response.getResult().addAll(Arrays.asList(results));
+        return response;
+    }
+
+    private BatchResult execute(int index, Element item) {
+        BatchResult result = new BatchResult();
+        result.setIndex(index);
+
+        if (NAMESPACE_URI.equals(item.getNamespaceURI())) {
+            result.setFault("Les lots imbriqués ne sont pas supportés");
+            return result;
+        }
+
+        try {
+            MessageContext messageContext = localMessageDispatcher.dispatch(new DOMSource(item));
+            if (!messageContext.hasResponse()) {
+                return result;
+            }
+            WebServiceMessage response = messageContext.getResponse();
+            if (response instanceof FaultAwareWebServiceMessage faultAware && faultAware.hasFault()) {
+                result.setFault(faultAware.getFaultReason());
+            } else {
+                result.setAny(toElement(response.getPayloadSource()));
+            }
+        } catch (Exception e) {
+            return fault(index, item, e);
+        }
+        return result;
+    }
+
+    private static BatchResult fault(int index, Element item, Exception e) {
+        logger.error("Erreur lors de l'exécution de l'élément {} du lot ({}): {}", index, item.getLocalName(), e.getMessage());
+        BatchResult result = new BatchResult();
+        result.setIndex(index);
+        result.setFault("Erreur lors de l'exécution de " + item.getLocalName() + ": " + e.getMessage());
+        return result;
+    }
+
+    private Element toElement(Source payload) throws Exception {
+        if (payload == null) {
+            return null;
+        }
+        DOMResult result = new DOMResult();
+        transformerHelper.transform(payload, result);
+        return ((Document) result.getNode()).getDocumentElement();
+    }
+
+    private static boolean isRead(Element item) {
+        String localName = item.getLocalName();
+        return localName != null && READ_OPERATION_PREFIXES.stream().anyMatch(localName::startsWith);
+    }
+
+    private static void acquire(Semaphore slots) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Exécution du lot interrompue", e);
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> pending) {
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        pending.clear();
+    }
+}
@@ -3,16 +3,21 @@ package com.examensoap.endpoint;
 import com.examensoap.dto.ClassesDto;
 import com.examensoap.exception.ServiceException;
 import com.examensoap.model.*;
+import com.examensoap.search.ClassesSearchIndex;
 import com.examensoap.service.impl.ClassesService;
 import com.examensoap.service.impl.SectorsService;
+import com.examensoap.service.support.ChangeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ClassesEndpoint gère les requêtes SOAP liées aux classes.
@@ -27,11 +32,32 @@ public class ClassesEndpoint {
 
     private final ClassesService classesService;
     private final SectorsService sectorsService;
-
-
-    public ClassesEndpoint(ClassesService classesService, SectorsService sectorsService) {
+    private final int maxIds;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultSuggestLimit;
+    private final int maxSuggestLimit;
+    private final int defaultSyncLimit;
+    private final int maxSyncLimit;
+
+
+    public ClassesEndpoint(ClassesService classesService, SectorsService sectorsService,
+                           @Value("${examensoap.ws.multi-get.max-ids:1000}") int maxIds,
+                           @Value("${examensoap.search.default-page-size:20}") int defaultPageSize,
+                           @Value("${examensoap.search.max-page-size:100}") int maxPageSize,
+                           @Value("${examensoap.suggest.default-limit:10}") int defaultSuggestLimit,
+                           @Value("${examensoap.suggest.max-limit:50}") int maxSuggestLimit,
+                           @Value("${examensoap.sync.default-limit:500}") int defaultSyncLimit,
+                           @Value("${examensoap.sync.max-limit:5000}") int maxSyncLimit) {
         this.classesService = classesService;
         this.sectorsService = sectorsService;
+        this.maxIds = maxIds;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultSuggestLimit = defaultSuggestLimit;
+        this.maxSuggestLimit = maxSuggestLimit;
+        this.defaultSyncLimit = defaultSyncLimit;
+        this.maxSyncLimit = maxSyncLimit;
     }
 
     /**
@@ -54,8 +80,7 @@ public class ClassesEndpoint {
         GetClassesResponse response = new GetClassesResponse();
 
         try {
-            ClassesDto foundClassDto = classesService.getClasseById(classId);
-            Classes foundClass = convertToSoapClass(foundClassDto);
+            Classes foundClass = classesService.getClasseById(classId);
             response.setClasses(foundClass);
             logger.info("Classe trouvée: {}", foundClass.getClassName());
         } catch (ServiceException e) {
@@ -86,11 +111,8 @@ public class ClassesEndpoint {
         GetAllClassesResponse response = new GetAllClassesResponse();
 
         try {
-            List<ClassesDto> listClasses = classesService.getAllClasses();
-
-            for (ClassesDto classDto : listClasses) {
-                response.getClassLitst().add(convertToSoapClass(classDto));
-            }
+            List<Classes> listClasses = classesService.getAllClasses();
+            response.getClassLitst().addAll(listClasses);
 
             logger.info("{} classes retournées", listClasses.size());
         } catch (ServiceException e) {
@@ -103,6 +125,146 @@ public class ClassesEndpoint {
     }
 
 
+    /**
+     * Récupération de plusieurs classes par leurs IDs.
+     * Cette méthode traite la requête SOAP `getClassesByIdsRequest`.
+     * Les classes sont chargées en une seule requête `IN` (découpée pour les très grandes listes)
+     * et renvoyées dans l'ordre des IDs demandés, une seule fois par ID. Les IDs inexistants sont listés
+     * dans `missingId`. Une erreur de lecture donne une faute SOAP, comme un nombre d'IDs trop grand.
+     *
+     * @param request La requête contenant les IDs des classes (au plus `examensoap.ws.multi-get.max-ids`)
+     * @return Une réponse contenant les classes trouvées et les IDs manquants
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getClassesByIdsRequest")
+    @ResponsePayload
+    public GetClassesByIdsResponse getClassesByIds(@RequestPayload GetClassesByIdsRequest request) {
+        List<Long> ids = request.getId();
+        logger.info("Recherche de {} classes par ID", ids.size());
+
+        if (ids.size() > maxIds) {
+            throw new ServiceException("Trop d'IDs demandés: " + ids.size() + " (maximum " + maxIds + ")");
+        }
+
+        // Une erreur devient une faute SOAP : une réponse vide dirait qu'aucune classe n'existe
+        GetClassesByIdsResponse response = new GetClassesByIdsResponse();
+        Set<Long> foundIds = new HashSet<>();
+        for (Classes classes : classesService.getClassesByIds(ids)) {
+            response.getClassesList().add(classes);
+            foundIds.add(classes.getId());
+        }
+        ids.stream().distinct()
+                .filter(id -> !foundIds.contains(id))
+                .forEach(response.getMissingId()::add);
+
+        logger.info("{} classes trouvées, {} IDs manquants", foundIds.size(), response.getMissingId().size());
+
+        return response;
+    }
+
+    /**
+     * Recherche de classes par mots-clés.
+     * Cette méthode traite la requête SOAP `searchClassesRequest`.
+     * La recherche porte sur le nom et la description des classes, sans tenir compte de la casse ni des
+     * accents ; seules les classes qui contiennent tous les mots sont renvoyées, les plus pertinentes d'abord.
+     * Elle est servie par l'index en mémoire ({@link ClassesSearchIndex}), sans requête SQL.
+     *
+     * @param request La requête contenant les mots recherchés, le numéro de page (à partir de 0) et sa taille
+     * @return Une réponse contenant le nombre total de classes trouvées et celles de la page demandée
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "searchClassesRequest")
+    @ResponsePayload
+    public SearchClassesResponse searchClasses(@RequestPayload SearchClassesRequest request) {
+        String query = request.getQuery();
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : defaultPageSize;
+        logger.info("Recherche des classes '{}' (page {}, taille {})", query, page, size);
+
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ServiceException("Pagination invalide: page " + page + ", taille " + size
+                    + " (page >= 0, taille entre 1 et " + maxPageSize + ")");
+        }
+
+        SearchClassesResponse response = new SearchClassesResponse();
+        response.setPage(page);
+        response.setSize(size);
+
+        try {
+            ClassesSearchIndex.Page result = classesService.searchClasses(query, page, size);
+            response.setTotal(result.total());
+            response.getHit().addAll(result.hits());
+
+            logger.info("{} classes trouvées, {} renvoyées", result.total(), result.hits().size());
+        } catch (ServiceException e) {
+            logger.error("Erreur lors de la recherche des classes '{}': {}", query, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Erreur inattendue lors de la recherche des classes '{}': {}", query, e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Suggestions de classes pendant la saisie.
+     * Cette méthode traite la requête SOAP `suggestClassesRequest`, envoyée à chaque frappe par les
+     * champs d'autocomplétion : elle renvoie les classes dont le nom, ou l'un de ses mots, commence par
+     * le préfixe, éventuellement limitées à une filière. Elle est servie par l'index en mémoire
+     * ({@link com.examensoap.search.NameSuggestions}) et ne journalise qu'en DEBUG.
+     *
+     * @param request La requête contenant le préfixe, la filière éventuelle et le nombre maximal de suggestions
+     * @return Une réponse contenant les classes suggérées
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "suggestClassesRequest")
+    @ResponsePayload
+    public SuggestClassesResponse suggestClasses(@RequestPayload SuggestClassesRequest request) {
+        String prefix = request.getPrefix();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultSuggestLimit;
+        logger.debug("Suggestions de classes pour '{}' (filière {}, limite {})", prefix, request.getSectors(), limit);
+
+        if (limit < 1 || limit > maxSuggestLimit) {
+            throw new ServiceException("Nombre de suggestions invalide: " + limit + " (entre 1 et " + maxSuggestLimit + ")");
+        }
+
+        SuggestClassesResponse response = new SuggestClassesResponse();
+        response.getSuggestion().addAll(classesService.suggestClasses(prefix, request.getSectors(), limit));
+        return response;
+    }
+
+    /**
+     * Synchronisation incrémentale des classes.
+     * Cette méthode traite la requête SOAP `getClassesChangedSinceRequest` : elle renvoie les classes
+     * créées ou modifiées et les IDs supprimés après la séquence `since`, dans l'ordre des changements,
+     * ainsi que le `highWaterMark` à renvoyer à l'appel suivant. Un miroir n'a donc plus besoin de relire
+     * toutes les classes par `getAllClassesRequest`.
+     *
+     * @param request La requête contenant la séquence de départ et le nombre maximal de changements
+     * @return Une réponse contenant les changements, la nouvelle séquence et l'indicateur `hasMore`
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getClassesChangedSinceRequest")
+    @ResponsePayload
+    public GetClassesChangedSinceResponse getClassesChangedSince(@RequestPayload GetClassesChangedSinceRequest request) {
+        long since = request.getSince();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultSyncLimit;
+        logger.info("Changements des classes depuis la séquence {} (limite {})", since, limit);
+
+        if (since < 0) {
+            throw new ServiceException("Séquence invalide: " + since);
+        }
+        if (limit < 1 || limit > maxSyncLimit) {
+            throw new ServiceException("Nombre de changements invalide: " + limit + " (entre 1 et " + maxSyncLimit + ")");
+        }
+
+        ChangeSet<Classes> changes = classesService.getClassesChangedSince(since, limit);
+        GetClassesChangedSinceResponse response = new GetClassesChangedSinceResponse();
+        response.getChanged().addAll(changes.changed());
+        response.getDeletedId().addAll(changes.deletedIds());
+        response.setHighWaterMark(changes.highWaterMark());
+        response.setHasMore(changes.hasMore());
+
+        logger.info("{} classes modifiées, {} supprimées, séquence {}",
+                changes.changed().size(), changes.deletedIds().size(), changes.highWaterMark());
+        return response;
+    }
+
     /**
      * Traite la requête SOAP `createClassesRequest` pour créer une nouvelle classe.
      * <p>
@@ -221,7 +383,7 @@ public class ClassesEndpoint {
 
         try {
             // Récupération des informations avant suppression pour le log
-            ClassesDto classToDelete = classesService.getClasseById(classId);
+            Classes classToDelete = classesService.getClasseById(classId);
 
             // Suppression via le service (avec gestion transactionnelle)
             classesService.deleteClasse(classId);
@@ -243,12 +405,14 @@ public class ClassesEndpoint {
     }
 
     /**
-     * Convertit un DTO de classe en un objet SOAP Classes.
+     * Convertit un DTO de classe en un objet SOAP Classes (réponses des écritures ; les lectures
+     * reçoivent directement les types SOAP du service).
+     * Visible dans le package pour les benchmarks JMH ({@code src/jmh/java}).
      *
      * @param dto l'objet DTO à convertir
      * @return l'objet Classes correspondant
      */
-    private Classes convertToSoapClass(ClassesDto dto) {
+    static Classes convertToSoapClass(ClassesDto dto) {
         Classes classes = new Classes();
         classes.setId(dto.getId());
         classes.setClassName(dto.getClassName());
@@ -0,0 +1,138 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.exception.ServiceException;
+import com.examensoap.export.SnapshotExporter;
+import com.examensoap.model.ExportDelivery;
+import com.examensoap.model.ExportSnapshotRequest;
+import com.examensoap.model.ExportSnapshotResponse;
+import com.examensoap.transport.ClientNetwork;
+import jakarta.activation.DataHandler;
+import jakarta.activation.FileDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.annotation.Endpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+import org.springframework.ws.support.MarshallingUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * ExportEndpoint produit l'export complet du catalogue pour l'analytique.
+ * <p>
+ * L'export est écrit sur disque par {@link SnapshotExporter} puis livré selon {@code delivery} :
+ * le nom du fichier dans {@code examensoap.export.directory} (FILE), ou le fichier lui-même en pièce
+ * jointe XOP/MTOM, lue depuis le disque pendant l'envoi de la réponse. La réponse est donc sérialisée
+ * ici : avec un marshaller MTOM pour la pièce jointe (celui des {@code @ResponsePayload} mettrait le
+ * fichier en base64 dans le XML), et avec un marshaller simple sinon, pour garder une réponse FILE en
+ * XML ordinaire.
+ * <p>
+ * L'export lit tout le catalogue : il n'est accepté que des adresses de
+ * {@code examensoap.export.allowed-networks} (la machine locale par défaut). Une requête sans adresse
+ * HTTP, par exemple traitée en asynchrone, est refusée. Un refus ou une erreur de l'export (un autre
+ * export en cours, par exemple) donne une réponse dont {@code fileName} porte le message et
+ * {@code changeSequence} vaut -1.
+ */
+@Endpoint
+public class ExportEndpoint {
+
+    private static final String NAMESPACE_URI = "http://examensoap.com/Export";
+    private static final Logger logger = LoggerFactory.getLogger(ExportEndpoint.class);
+
+    private final SnapshotExporter snapshotExporter;
+    private final Jaxb2Marshaller marshaller;
+    private final Jaxb2Marshaller mtomMarshaller;
+    private final List<ClientNetwork> allowedNetworks;
+
+    public ExportEndpoint(SnapshotExporter snapshotExporter,
+                          @Value("${examensoap.export.allowed-networks:127.0.0.1/32,::1/128}") List<String> allowedNetworks)
+            throws Exception {
+        this.snapshotExporter = snapshotExporter;
+        this.allowedNetworks = ClientNetwork.parseAll(allowedNetworks);
+        this.marshaller = responseMarshaller(false);
+        this.mtomMarshaller = responseMarshaller(true);
+    }
+
+    /**
+     * Traite la requête SOAP `exportSnapshotRequest`.
+     *
+     * @param request        le mode de livraison (FILE par défaut)
+     * @param messageContext le contexte de l'échange, dont la réponse est écrite ici
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "exportSnapshotRequest")
+    public void exportSnapshot(@RequestPayload ExportSnapshotRequest request, MessageContext messageContext)
+            throws IOException {
+        ExportDelivery delivery = request.getDelivery() != null ? request.getDelivery() : ExportDelivery.FILE;
+        InetAddress client = ClientNetwork.currentClientAddress();
+        if (!ClientNetwork.anyContains(allowedNetworks, client)) {
+            logger.warn("Export refusé pour {} : adresse hors de examensoap.export.allowed-networks",
+                    client != null ? client.getHostAddress() : "un client sans adresse HTTP");
+            MarshallingUtils.marshal(marshaller, errorResponse("Export non autorisé depuis cette adresse"),
+                    messageContext.getResponse());
+            return;
+        }
+        logger.info("Export complet du catalogue (livraison {}) pour {}", delivery, client.getHostAddress());
+
+        SnapshotExporter.SnapshotExport export;
+        try {
+            export = snapshotExporter.export();
+        } catch (ServiceException e) {
+            logger.info("Erreur lors de l'export : {}", e.getMessage());
+            MarshallingUtils.marshal(marshaller, errorResponse(e.getMessage()), messageContext.getResponse());
+            return;
+        }
+
+        ExportSnapshotResponse response = new ExportSnapshotResponse();
+        String fileName = export.file().getFileName().toString();
+        response.setFileName(fileName);
+        if (delivery == ExportDelivery.MTOM) {
+            response.setFile(new DataHandler(new GzipFileDataSource(export.file().toFile())));
+        } else {
+            // Relatif au dossier d'export : le chemin du serveur n'est pas divulgué
+            response.setPath(fileName);
+        }
+        response.setChangeSequence(export.changeSequence());
+        response.setSectors(export.sectors());
+        response.setClasses(export.classes());
+        response.setBytes(export.bytes());
+        response.setDurationMs(export.duration().toMillis());
+        response.setRowsPerSecond(export.rowsPerSecond());
+
+        MarshallingUtils.marshal(delivery == ExportDelivery.MTOM ? mtomMarshaller : marshaller,
+                response, messageContext.getResponse());
+    }
+
+    private static ExportSnapshotResponse errorResponse(String message) {
+        ExportSnapshotResponse response = new ExportSnapshotResponse();
+        response.setFileName("Erreur: " + message);
+        response.setChangeSequence(-1);
+        return response;
+    }
+
+    private static Jaxb2Marshaller responseMarshaller(boolean mtomEnabled) throws Exception {
+        Jaxb2Marshaller responseMarshaller = new Jaxb2Marshaller();
+        responseMarshaller.setClassesToBeBound(ExportSnapshotResponse.class);
+        responseMarshaller.setMtomEnabled(mtomEnabled);
+        responseMarshaller.afterPropertiesSet();
+        return responseMarshaller;
+    }
+
+    // FileDataSource déduit le type de l'extension et répondrait application/octet-stream
+    private static final class GzipFileDataSource extends FileDataSource {
+
+        GzipFileDataSource(File file) {
+            super(file);
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/gzip";
+        }
+    }
+}
@@ -4,14 +4,18 @@ import com.examensoap.dto.SectorsDto;
 import com.examensoap.exception.ServiceException;
 import com.examensoap.model.*;
 import com.examensoap.service.impl.SectorsService;
+import com.examensoap.service.support.ChangeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Endpoint SOAP pour la gestion des secteurs
@@ -34,6 +38,11 @@ public class SectorsEndpoint {
 
 
     private final SectorsService sectorsService;
+    private final int maxIds;
+    private final int defaultSuggestLimit;
+    private final int maxSuggestLimit;
+    private final int defaultSyncLimit;
+    private final int maxSyncLimit;
 
 
     /**
@@ -42,8 +51,18 @@ public class SectorsEndpoint {
      * C'est plus sûr que l'injection par champ car elle garantit que
      * la dépendance est toujours présente.
      */
-    public SectorsEndpoint(SectorsService sectorsService) {
+    public SectorsEndpoint(SectorsService sectorsService,
+                           @Value("${examensoap.ws.multi-get.max-ids:1000}") int maxIds,
+                           @Value("${examensoap.suggest.default-limit:10}") int defaultSuggestLimit,
+                           @Value("${examensoap.suggest.max-limit:50}") int maxSuggestLimit,
+                           @Value("${examensoap.sync.default-limit:500}") int defaultSyncLimit,
+                           @Value("${examensoap.sync.max-limit:5000}") int maxSyncLimit) {
         this.sectorsService = sectorsService;
+        this.maxIds = maxIds;
+        this.defaultSuggestLimit = defaultSuggestLimit;
+        this.maxSuggestLimit = maxSuggestLimit;
+        this.defaultSyncLimit = defaultSyncLimit;
+        this.maxSyncLimit = maxSyncLimit;
     }
 
     /**
@@ -66,7 +85,7 @@ public class SectorsEndpoint {
         GetSectorsResponse response = new GetSectorsResponse();
 
         try {
-            Sectors foundSector = convertToSector(sectorsService.getSectorById(sectorId));
+            Sectors foundSector = sectorsService.getSectorById(sectorId);
             response.setSectors(foundSector);
             logger.info("Secteur trouvé: {}", foundSector.getName());
         } catch (IllegalArgumentException e) {
@@ -96,12 +115,10 @@ public class SectorsEndpoint {
         try {
 
 
-            List<SectorsDto> sectorsList = sectorsService.getAllSectors();
+            List<Sectors> sectorsList = sectorsService.getAllSectors();
             logger.info("{} secteurs trouvés", sectorsList.size());
 
-            for (SectorsDto sector : sectorsList) {
-                response.getSectorsList().add(convertToSector(sector));
-            }
+            response.getSectorsList().addAll(sectorsList);
 
             logger.info("{} secteurs ajoutés à la réponse", response.getSectorsList().size());
         } catch (Exception e) {
@@ -110,6 +127,129 @@ public class SectorsEndpoint {
         return response;
     }
 
+    /**
+     * Récupération de plusieurs secteurs par leurs IDs
+     * <p>
+     * Cette méthode est appelée lorsque le serveur reçoit une requête de type GetSectorsByIdsRequest.
+     * Les secteurs sont chargés en une seule requête `IN` et renvoyés dans l'ordre des IDs demandés, une
+     * seule fois par ID ; les IDs inexistants sont listés explicitement dans `missingId`. Une erreur de
+     * lecture donne une faute SOAP, comme un nombre d'IDs trop grand.
+     *
+     * @param request La requête contenant les IDs des secteurs (au plus `examensoap.ws.multi-get.max-ids`).
+     * @return Une réponse contenant les secteurs trouvés et les IDs manquants.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getSectorsByIdsRequest")
+    @ResponsePayload
+    public GetSectorsByIdsResponse getSectorsByIds(@RequestPayload GetSectorsByIdsRequest request) {
+        List<Long> ids = request.getId();
+        logger.info("Recherche de {} secteurs par ID", ids.size());
+
+        if (ids.size() > maxIds) {
+            throw new ServiceException("Trop d'IDs demandés: " + ids.size() + " (maximum " + maxIds + ")");
+        }
+
+        // Une erreur devient une faute SOAP : une réponse vide dirait qu'aucun secteur n'existe
+        GetSectorsByIdsResponse response = new GetSectorsByIdsResponse();
+        Set<Long> foundIds = new HashSet<>();
+        for (Sectors sector : sectorsService.getSectorsByIds(ids)) {
+            response.getSectorsList().add(sector);
+            foundIds.add(sector.getId());
+        }
+        ids.stream().distinct()
+                .filter(id -> !foundIds.contains(id))
+                .forEach(response.getMissingId()::add);
+
+        logger.info("{} secteurs trouvés, {} IDs manquants", foundIds.size(), response.getMissingId().size());
+
+        return response;
+    }
+
+    /**
+     * Suggestions de secteurs pendant la saisie
+     * <p>
+     * Cette méthode est appelée lorsque le serveur reçoit une requête de type SuggestSectorsRequest, envoyée
+     * à chaque frappe par les champs d'autocomplétion. Elle renvoie les secteurs dont le nom, ou l'un de ses
+     * mots, commence par le préfixe, depuis l'index en mémoire, et ne journalise qu'en DEBUG.
+     *
+     * @param request La requête contenant le préfixe et le nombre maximal de suggestions.
+     * @return Une réponse contenant les secteurs suggérés.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "suggestSectorsRequest")
+    @ResponsePayload
+    public SuggestSectorsResponse suggestSectors(@RequestPayload SuggestSectorsRequest request) {
+        String prefix = request.getPrefix();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultSuggestLimit;
+        logger.debug("Suggestions de secteurs pour '{}' (limite {})", prefix, limit);
+
+        if (limit < 1 || limit > maxSuggestLimit) {
+            throw new ServiceException("Nombre de suggestions invalide: " + limit + " (entre 1 et " + maxSuggestLimit + ")");
+        }
+
+        SuggestSectorsResponse response = new SuggestSectorsResponse();
+        response.getSuggestion().addAll(sectorsService.suggestSectors(prefix, limit));
+        return response;
+    }
+
+    /**
+     * Nombre de classes par secteur
+     * <p>
+     * Cette méthode est appelée lorsque le serveur reçoit une requête de type GetSectorStatsRequest.
+     * Les compteurs sont lus en mémoire, tenus à jour à chaque écriture de classe et réconciliés
+     * périodiquement avec la base : aucune requête SQL n'est faite pendant l'appel.
+     *
+     * @param request La requête (sans paramètre).
+     * @return Une réponse contenant le nombre de classes de chaque secteur et le total.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getSectorStatsRequest")
+    @ResponsePayload
+    public GetSectorStatsResponse getSectorStats(@RequestPayload GetSectorStatsRequest request) {
+        logger.info("Récupération du nombre de classes par secteur");
+
+        GetSectorStatsResponse response = new GetSectorStatsResponse();
+        List<SectorStats> stats = sectorsService.getSectorStats();
+        response.getSectorStats().addAll(stats);
+        response.setTotalClasses(stats.stream().mapToLong(SectorStats::getClassCount).sum());
+
+        logger.info("{} secteurs, {} classes", stats.size(), response.getTotalClasses());
+        return response;
+    }
+
+    /**
+     * Synchronisation incrémentale des secteurs
+     * <p>
+     * Cette méthode est appelée lorsque le serveur reçoit une requête de type GetSectorsChangedSinceRequest.
+     * Elle renvoie les secteurs créés ou modifiés et les IDs supprimés après la séquence `since`, ainsi que
+     * le `highWaterMark` à renvoyer à l'appel suivant, au lieu de toute la liste de getAllSectorsRequest.
+     *
+     * @param request La requête contenant la séquence de départ et le nombre maximal de changements.
+     * @return Une réponse contenant les changements, la nouvelle séquence et l'indicateur `hasMore`.
+     */
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getSectorsChangedSinceRequest")
+    @ResponsePayload
+    public GetSectorsChangedSinceResponse getSectorsChangedSince(@RequestPayload GetSectorsChangedSinceRequest request) {
+        long since = request.getSince();
+        int limit = request.getLimit() != null ? request.getLimit() : defaultSyncLimit;
+        logger.info("Changements des secteurs depuis la séquence {} (limite {})", since, limit);
+
+        if (since < 0) {
+            throw new ServiceException("Séquence invalide: " + since);
+        }
+        if (limit < 1 || limit > maxSyncLimit) {
+            throw new ServiceException("Nombre de changements invalide: " + limit + " (entre 1 et " + maxSyncLimit + ")");
+        }
+
+        ChangeSet<Sectors> changes = sectorsService.getSectorsChangedSince(since, limit);
+        GetSectorsChangedSinceResponse response = new GetSectorsChangedSinceResponse();
+        response.getChanged().addAll(changes.changed());
+        response.getDeletedId().addAll(changes.deletedIds());
+        response.setHighWaterMark(changes.highWaterMark());
+        response.setHasMore(changes.hasMore());
+
+        logger.info("{} secteurs modifiés, {} supprimés, séquence {}",
+                changes.changed().size(), changes.deletedIds().size(), changes.highWaterMark());
+        return response;
+    }
+
     /**
      * Ajout d'un nouveau secter
      * <p>
@@ -170,7 +310,7 @@ public class SectorsEndpoint {
 
         try {
             // Récupération du secteur existant
-            Sectors existingSector = convertToSector(sectorsService.getSectorById(sectorId));
+            Sectors existingSector = sectorsService.getSectorById(sectorId);
 
             // Création d'un nouveau secteur avec les données mises à jour
             Sectors updatedSector = new Sectors();
@@ -0,0 +1,21 @@
+package com.examensoap.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeSequenceEntity {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long seqValue;
+
+}
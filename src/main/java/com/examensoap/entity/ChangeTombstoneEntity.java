@@ -0,0 +1,32 @@
+package com.examensoap.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeTombstoneEntity {
+    @Id
+    private Long seq;
+
+    // VARCHAR et non le type ENUM de MySQL que Hibernate choisirait par défaut (voir la migration V3)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    public enum EntityType {
+        CLASSES,
+        SECTORS
+    }
+
+}
@@ -23,4 +23,8 @@ public class ClassesEntity {
     @JoinColumn(name = "sector_id", nullable = false)
     private SectorsEntity sectors;
 
+    // Sequence de la dernière écriture (voir ChangeSequence)
+    @Column(nullable = false)
+    private long updatedSeq;
+
 }
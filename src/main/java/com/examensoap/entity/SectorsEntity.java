@@ -20,4 +20,8 @@ public class SectorsEntity {
     private Long id;
     private String name;
 
+    // Sequence de la dernière écriture (voir ChangeSequence)
+    @Column(nullable = false)
+    private long updatedSeq;
+
 }
@@ -0,0 +1,275 @@
+package com.examensoap.export;
+
+import com.examensoap.exception.ServiceException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export complet des filières et des classes en NDJSON compressé ({@code exportSnapshotRequest}).
+ * <p>
+ * Les deux tables sont lues dans une seule transaction en lecture seule et {@code REPEATABLE_READ} :
+ * le fichier est un instantané cohérent, daté par la séquence des changements qu'il contient. Chaque table
+ * est parcourue par un curseur en avant seulement et chaque ligne est écrite aussitôt dans le flux gzip ;
+ * la mémoire utilisée ne dépend pas du nombre de lignes. Avec MySQL, le fetch size
+ * {@link Integer#MIN_VALUE} fait diffuser les lignes une à une par Connector/J, qui sinon chargerait tout
+ * le résultat ; les autres bases utilisent {@code examensoap.export.fetch-size}.
+ * <p>
+ * Format, une ligne JSON par enregistrement :
+ * <pre>
+ * {"type":"snapshot","changeSequence":1042,"exportedAt":"2026-10-19T02:00:00Z"}
+ * {"type":"sector","id":1,"name":"Informatique"}
+ * {"type":"class","id":7,"className":"L3 Génie logiciel","description":"...","sectorId":1}
+ * {"type":"end","sectors":12,"classes":1000000}
+ * </pre>
+ * La dernière ligne permet au lecteur de détecter un fichier tronqué. Le fichier est écrit sous un nom
+ * temporaire puis renommé ; seuls les {@code examensoap.export.keep} derniers exports sont gardés.
+ * Un seul export tourne à la fois.
+ * <p>
+ * Métriques exposées : {@code export.rows} (tag {@code table}), compté au fil de l'export,
+ * {@code export.active} et {@code export.duration}.
+ */
+@Component
+public class SnapshotExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotExporter.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS").withZone(ZoneOffset.UTC);
+    private static final String FILE_PREFIX = "catalogue-";
+    private static final String FILE_SUFFIX = ".ndjson.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Les compteurs de progression sont incrémentés par paquets, et la progression journalisée plus rarement.
+     */
+    private static final int METRICS_EVERY = 10_000;
+    private static final int LOG_EVERY = 250_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final Path directory;
+    private final int fetchSize;
+    private final int keep;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter sectorRows;
+    private final Counter classRows;
+    private final Timer duration;
+
+    public SnapshotExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${examensoap.export.directory:${java.io.tmpdir}/examensoap-export}") Path directory,
+                            @Value("${examensoap.export.fetch-size:1000}") int fetchSize,
+                            @Value("${examensoap.export.keep:7}") int keep) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.directory = directory;
+        this.fetchSize = fetchSize;
+        this.keep = keep;
+
+        this.sectorRows = Counter.builder("export.rows").tag("table", "sectors")
+                .description("Lignes écrites dans les exports").register(meterRegistry);
+        this.classRows = Counter.builder("export.rows").tag("table", "classes")
+                .description("Lignes écrites dans les exports").register(meterRegistry);
+        this.duration = Timer.builder("export.duration")
+                .description("Durée des exports complets").register(meterRegistry);
+        Gauge.builder("export.active", running, active -> active.get() ? 1 : 0)
+                .description("1 pendant un export").register(meterRegistry);
+    }
+
+    /**
+     * Écrit un instantané complet dans {@code examensoap.export.directory}.
+     *
+     * @return le fichier écrit et le rapport de débit
+     */
+    public SnapshotExport export() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ServiceException("Un export est déjà en cours");
+        }
+        long start = System.nanoTime();
+        Instant exportedAt = Instant.now();
+        Path partial = null;
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(exportedAt) + FILE_SUFFIX);
+            partial = file.resolveSibling(file.getFileName() + ".part");
+            Path output = partial;
+            Counts counts = snapshotTransaction.execute(status -> write(output, exportedAt));
+
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            removeOldExports();
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            duration.record(elapsed);
+            SnapshotExport export = new SnapshotExport(file, counts.changeSequence(), counts.sectors(),
+                    counts.classes(), Files.size(file), elapsed);
+            logger.info("Export {} : {} filières, {} classes, {} octets en {} ms ({} lignes/s)",
+                    file.getFileName(), export.sectors(), export.classes(), export.bytes(),
+                    elapsed.toMillis(), Math.round(export.rowsPerSecond()));
+            return export;
+        } catch (IOException | UncheckedIOException e) {
+            throw new ServiceException("Erreur lors de l'export: " + e.getMessage(), e);
+        } finally {
+            if (partial != null) {
+                deleteQuietly(partial);
+            }
+            running.set(false);
+        }
+    }
+
+    // Appelé dans la transaction de l'instantané
+    private Counts write(Path file, Instant exportedAt) {
+        int effectiveFetchSize = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"))
+                ? Integer.MIN_VALUE : fetchSize;
+
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+             JsonGenerator json = JSON.createGenerator(gzip)) {
+            json.setRootValueSeparator(new SerializedString("\n"));
+
+            // Lue dans le même instantané que les lignes : un client peut enchaîner sur get*ChangedSinceRequest
+            Long changeSequence = jdbcTemplate.queryForObject(
+                    "SELECT seq_value FROM change_sequence_entity WHERE name = 'catalogue'", Long.class);
+            json.writeStartObject();
+            json.writeStringField("type", "snapshot");
+            json.writeNumberField("changeSequence", changeSequence);
+            json.writeStringField("exportedAt", exportedAt.toString());
+            json.writeEndObject();
+
+            long sectors = stream("SELECT id, name FROM sectors_entity ORDER BY id", effectiveFetchSize,
+                    sectorRows, "filières", row -> {
+                        json.writeStartObject();
+                        json.writeStringField("type", "sector");
+                        json.writeNumberField("id", row.getLong(1));
+                        json.writeStringField("name", row.getString(2));
+                        json.writeEndObject();
+                    });
+            long classes = stream("SELECT id, class_name, description, sector_id FROM classes_entity ORDER BY id",
+                    effectiveFetchSize, classRows, "classes", row -> {
+                        json.writeStartObject();
+                        json.writeStringField("type", "class");
+                        json.writeNumberField("id", row.getLong(1));
+                        json.writeStringField("className", row.getString(2));
+                        json.writeStringField("description", row.getString(3));
+                        json.writeNumberField("sectorId", row.getLong(4));
+                        json.writeEndObject();
+                    });
+
+            json.writeStartObject();
+            json.writeStringField("type", "end");
+            json.writeNumberField("sectors", sectors);
+            json.writeNumberField("classes", classes);
+            json.writeEndObject();
+            json.writeRaw('\n');
+            return new Counts(changeSequence, sectors, classes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long stream(String sql, int streamFetchSize, Counter rowsCounter, String label, RowWriter writer) {
+        long[] rows = {0};
+        long start = System.nanoTime();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamFetchSize);
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (++rows[0] % METRICS_EVERY == 0) {
+                rowsCounter.increment(METRICS_EVERY);
+            }
+            if (rows[0] % LOG_EVERY == 0) {
+                logger.info("Export : {} {} écrites ({} lignes/s)", rows[0], label,
+                        Math.round(rows[0] / ((System.nanoTime() - start) / 1e9)));
+            }
+        });
+        rowsCounter.increment(rows[0] % METRICS_EVERY);
+        return rows[0];
+    }
+
+    private void removeOldExports() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // Les noms sont horodatés : l'ordre alphabétique est l'ordre chronologique
+            List<Path> exports = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+            exports.subList(0, Math.max(0, exports.size() - keep)).forEach(this::deleteQuietly);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer {} : {}", path, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+    }
+
+    private record Counts(long changeSequence, long sectors, long classes) {
+    }
+
+    /**
+     * Un export terminé.
+     *
+     * @param file           le fichier NDJSON compressé
+     * @param changeSequence la séquence des changements de l'instantané
+     * @param bytes          la taille du fichier
+     */
+    public record SnapshotExport(Path file, long changeSequence, long sectors, long classes, long bytes,
+                                 Duration duration) {
+
+        public double rowsPerSecond() {
+            double seconds = duration.toNanos() / 1e9;
+            return seconds > 0 ? (sectors + classes) / seconds : 0;
+        }
+    }
+}
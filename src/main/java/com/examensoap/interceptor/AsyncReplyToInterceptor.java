@@ -0,0 +1,256 @@
+package com.examensoap.interceptor;
+
+import com.examensoap.dispatch.LocalMessageDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.SoapHeader;
+import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.addressing.core.EndpointReference;
+import org.springframework.ws.soap.addressing.core.MessageAddressingProperties;
+import org.springframework.ws.soap.addressing.version.Addressing10;
+import org.springframework.ws.soap.addressing.version.Addressing200408;
+import org.springframework.ws.soap.addressing.version.AddressingVersion;
+import org.springframework.ws.soap.server.SoapEndpointInterceptor;
+import org.springframework.ws.transport.WebServiceConnection;
+import org.springframework.ws.transport.http.HttpUrlConnectionMessageSender;
+import org.springframework.xml.transform.TransformerHelper;
+import org.w3c.dom.Node;
+
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Traitement asynchrone des requêtes WS-Addressing qui portent un en-tête {@code ReplyTo}.
+ * <p>
+ * Quand le client indique une adresse de réponse (autre que {@code anonymous} ou {@code none})
+ * et un {@code MessageID}, la requête est acquittée immédiatement (HTTP 202, sans corps) et
+ * l'opération s'exécute sur un pool borné. La réponse, ou la faute, est ensuite envoyée en
+ * POST à l'adresse {@code ReplyTo} (ou {@code FaultTo} pour une faute) avec l'en-tête
+ * {@code RelatesTo} qui la relie à la requête d'origine.
+ * <p>
+ * Les longues opérations (suppressions en masse, imports) ne gardent donc plus de connexion
+ * HTTP ouverte. Les requêtes sans ReplyTo suivent le traitement synchrone habituel.
+ * <p>
+ * Le serveur n'envoie de POST qu'aux hôtes déclarés dans {@code examensoap.ws.async-reply.allowed-hosts},
+ * en http ou https : sinon, un client pourrait lui faire appeler n'importe quelle adresse du réseau
+ * interne. Une adresse {@code ReplyTo} ou {@code FaultTo} hors de cette liste reçoit une faute SOAP
+ * immédiate, avant tout acquittement. La liste est vide par défaut.
+ */
+@Component
+@Order(50)
+@ConditionalOnProperty(name = "examensoap.ws.async-reply.enabled", matchIfMissing = true)
+public class AsyncReplyToInterceptor implements SoapEndpointInterceptor, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncReplyToInterceptor.class);
+
+    private static final List<AddressingVersion> VERSIONS = List.of(new Addressing10(), new Addressing200408());
+    private static final String FAULT_ACTION = "http://www.w3.org/2005/08/addressing/soap/fault";
+    private static final String RESPONSE_ACTION_SUFFIX = "Response";
+    private static final Set<String> ALLOWED_SCHEMES = Set.of("http", "https");
+
+    private final LocalMessageDispatcher localMessageDispatcher;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final HttpUrlConnectionMessageSender messageSender = new HttpUrlConnectionMessageSender();
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+    private final Set<String> allowedHosts;
+
+    public AsyncReplyToInterceptor(LocalMessageDispatcher localMessageDispatcher,
+                                   @Value("${examensoap.ws.async-reply.pool-size:4}") int poolSize,
+                                   @Value("${examensoap.ws.async-reply.queue-capacity:100}") int queueCapacity,
+                                   @Value("${examensoap.ws.async-reply.timeout:30s}") Duration timeout,
+                                   @Value("${examensoap.ws.async-reply.allowed-hosts:}") List<String> allowedHosts) {
+        this.localMessageDispatcher = localMessageDispatcher;
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+
+        executor.setThreadNamePrefix("soap-reply-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // À l'arrêt, on laisse aux opérations acquittées le temps de se terminer
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(timeout.toMillis());
+        executor.initialize();
+
+        messageSender.setConnectionTimeout(timeout);
+        messageSender.setReadTimeout(timeout);
+    }
+
+    @Override
+    public boolean understands(SoapHeaderElement header) {
+        for (AddressingVersion version : VERSIONS) {
+            if (version.understands(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) throws Exception {
+        SoapMessage request = (SoapMessage) messageContext.getRequest();
+        AddressingVersion version = detectVersion(request);
+        if (version == null) {
+            return true;
+        }
+
+        MessageAddressingProperties properties = version.getMessageAddressingProperties(request);
+        EndpointReference replyTo = properties.getReplyTo();
+        if (replyTo == null || version.hasAnonymousAddress(replyTo) || version.hasNoneAddress(replyTo)) {
+            // Réponse attendue sur la même connexion : traitement synchrone
+            return true;
+        }
+        if (properties.getMessageId() == null) {
+            // Sans MessageID, le client ne pourrait pas relier la réponse à sa requête
+            version.addMessageAddressingHeaderRequiredFault((SoapMessage) messageContext.getResponse());
+            return false;
+        }
+        EndpointReference faultTo = properties.getFaultTo();
+        for (EndpointReference target : faultTo == null ? List.of(replyTo) : List.of(replyTo, faultTo)) {
+            if (!version.hasAnonymousAddress(target) && !version.hasNoneAddress(target)
+                    && !isAllowed(target.getAddress())) {
+                logger.warn("Requête {} rejetée : adresse de réponse non autorisée {}",
+                        properties.getMessageId(), target.getAddress());
+                SoapMessage response = (SoapMessage) messageContext.getResponse();
+                response.getSoapBody().addClientOrSenderFault(
+                        "Adresse de réponse non autorisée : " + target.getAddress(), Locale.FRENCH);
+                return false;
+            }
+        }
+
+        // Le message HTTP n'existe plus une fois l'acquittement envoyé : on copie le payload
+        DOMResult payload = new DOMResult();
+        transformerHelper.transform(request.getPayloadSource(), payload);
+
+        String operation = SoapOperations.operationName(endpoint);
+        try {
+            executor.execute(() -> processAndReply(operation, payload.getNode(), properties, version));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Requête {} ({}) rejetée : file de traitement asynchrone pleine",
+                    operation, properties.getMessageId());
+            SoapMessage response = (SoapMessage) messageContext.getResponse();
+            response.getSoapBody().addServerOrReceiverFault(
+                    "Service surchargé : trop de requêtes asynchrones en attente, réessayez plus tard", Locale.FRENCH);
+            return false;
+        }
+
+        logger.info("Requête {} ({}) acquittée, réponse envoyée plus tard à {}",
+                operation, properties.getMessageId(), replyTo.getAddress());
+        return false;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Exécute l'opération par le dispatcher interne puis envoie le résultat à l'adresse de réponse.
+     */
+    private void processAndReply(String operation, Node payload, MessageAddressingProperties properties,
+                                 AddressingVersion version) {
+        try {
+            MessageContext result = localMessageDispatcher.dispatch(new DOMSource(payload));
+            if (!result.hasResponse()) {
+                logger.warn("Requête {} ({}) traitée sans réponse à envoyer", operation, properties.getMessageId());
+                return;
+            }
+
+            SoapMessage response = (SoapMessage) result.getResponse();
+            boolean fault = response.hasFault();
+            EndpointReference faultTo = properties.getFaultTo();
+            EndpointReference target = fault && faultTo != null && !version.hasAnonymousAddress(faultTo)
+                    ? faultTo
+                    : properties.getReplyTo();
+            if (version.hasNoneAddress(target)) {
+                return;
+            }
+
+            URI action = fault ? URI.create(FAULT_ACTION) : responseAction(properties.getAction());
+            MessageAddressingProperties replyProperties =
+                    properties.getReplyProperties(target, action, URI.create("urn:uuid:" + UUID.randomUUID()));
+            version.addAddressingHeaders(response, replyProperties);
+
+            try (WebServiceConnection connection = messageSender.createConnection(target.getAddress())) {
+                connection.send(response);
+                if (connection.hasError()) {
+                    logger.error("Réponse de {} ({}) refusée par {} : {}", operation, properties.getMessageId(),
+                            target.getAddress(), connection.getErrorMessage());
+                    return;
+                }
+            }
+            logger.info("Réponse de {} ({}) envoyée à {}", operation, properties.getMessageId(), target.getAddress());
+        } catch (Exception e) {
+            logger.error("Échec du traitement asynchrone de {} ({}) : {}",
+                    operation, properties.getMessageId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return {@code true} si l'adresse est en http ou https vers un hôte de {@code allowed-hosts}
+     */
+    private boolean isAllowed(URI address) {
+        if (address == null || address.getScheme() == null || address.getHost() == null) {
+            return false;
+        }
+        return ALLOWED_SCHEMES.contains(address.getScheme().toLowerCase(Locale.ROOT))
+                && allowedHosts.contains(address.getHost().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Même convention que Spring-WS : l'action de la réponse est celle de la requête suffixée par "Response".
+     */
+    private static URI responseAction(URI requestAction) {
+        return requestAction == null ? null : URI.create(requestAction + RESPONSE_ACTION_SUFFIX);
+    }
+
+    private static AddressingVersion detectVersion(SoapMessage request) {
+        SoapHeader header = request.getSoapHeader();
+        if (header == null) {
+            return null;
+        }
+        Iterator<SoapHeaderElement> elements = header.examineAllHeaderElements();
+        while (elements.hasNext()) {
+            SoapHeaderElement element = elements.next();
+            for (AddressingVersion version : VERSIONS) {
+                if (version.understands(element)) {
+                    return version;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.examensoap.interceptor;
+
+import com.netflix.concurrency.limits.Limit;
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limit.VegasLimit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.soap.SoapMessage;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Limite de concurrence adaptative par opération SOAP.
+ * <p>
+ * Chaque opération {@code @PayloadRoot} a sa propre limite, ajustée en continu à partir des
+ * temps de réponse (algorithme Vegas ou Gradient2) : quand MySQL ralentit, la limite des
+ * opérations lentes baisse sans pénaliser les lectures rapides comme {@code getSectorsRequest}.
+ * Une requête au-delà de la limite reçoit immédiatement une faute SOAP au lieu d'attendre
+ * dans la file de Tomcat.
+ * <p>
+ * Métriques exposées (tag {@code operation}) : {@code soap.concurrency.limit},
+ * {@code soap.concurrency.inflight} et {@code soap.concurrency.rejected}.
+ */
+@Component
+@Order(100)
+@ConditionalOnProperty(name = "examensoap.ws.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitInterceptor implements EndpointInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+    private static final String LISTENER_PROPERTY = ConcurrencyLimitInterceptor.class.getName() + ".LISTENER";
+
+    private final ConcurrentMap<String, OperationLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final String algorithm;
+    private final int initialLimit;
+    private final int maxLimit;
+
+    public ConcurrencyLimitInterceptor(MeterRegistry meterRegistry,
+                                       @Value("${examensoap.ws.concurrency-limit.algorithm:vegas}") String algorithm,
+                                       @Value("${examensoap.ws.concurrency-limit.initial-limit:20}") int initialLimit,
+                                       @Value("${examensoap.ws.concurrency-limit.max-limit:200}") int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.algorithm = algorithm.trim().toLowerCase(Locale.ROOT);
+        if (!this.algorithm.equals("vegas") && !this.algorithm.equals("gradient2")) {
+            // Refusé au démarrage : une faute de frappe ne doit pas retomber silencieusement sur Vegas
+            throw new IllegalArgumentException(
+                    "Algorithme de limite de concurrence inconnu : " + algorithm + " (vegas ou gradient2)");
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) throws Exception {
+        String operation = SoapOperations.operationName(endpoint);
+        OperationLimiter limiter = limiters.computeIfAbsent(operation, this::createLimiter);
+
+        Optional<Limiter.Listener> listener = limiter.limiter.acquire(operation);
+        if (listener.isPresent()) {
+            messageContext.setProperty(LISTENER_PROPERTY, listener.get());
+            return true;
+        }
+
+        limiter.rejected.increment();
+        logger.warn("Requête {} rejetée : limite de concurrence atteinte ({})", operation, limiter.limiter.getLimit());
+        SoapMessage response = (SoapMessage) messageContext.getResponse();
+        response.getSoapBody().addServerOrReceiverFault(
+                "Service surchargé : trop de requêtes " + operation + " en cours, réessayez plus tard", Locale.FRENCH);
+        return false;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        Limiter.Listener listener = (Limiter.Listener) messageContext.getProperty(LISTENER_PROPERTY);
+        if (listener == null) {
+            return;
+        }
+        messageContext.removeProperty(LISTENER_PROPERTY);
+        if (ex == null) {
+            listener.onSuccess();
+        } else {
+            // Une erreur ne dit rien du temps de réponse de la base : on ne l'utilise pas pour ajuster la limite
+            listener.onIgnore();
+        }
+    }
+
+    private OperationLimiter createLimiter(String operation) {
+        SimpleLimiter<String> limiter = SimpleLimiter.newBuilder()
+                .named(operation)
+                .limit(createLimit())
+                .build();
+
+        Gauge.builder("soap.concurrency.limit", limiter, SimpleLimiter::getLimit)
+                .tag("operation", operation)
+                .description("Limite de concurrence courante de l'opération SOAP")
+                .register(meterRegistry);
+        Gauge.builder("soap.concurrency.inflight", limiter, SimpleLimiter::getInflight)
+                .tag("operation", operation)
+                .description("Requêtes de l'opération SOAP en cours de traitement")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("soap.concurrency.rejected")
+                .tag("operation", operation)
+                .description("Requêtes rejetées par la limite de concurrence")
+                .register(meterRegistry);
+
+        return new OperationLimiter(limiter, rejected);
+    }
+
+    private Limit createLimit() {
+        if (algorithm.equals("gradient2")) {
+            return Gradient2Limit.newBuilder()
+                    .initialLimit(initialLimit)
+                    .maxConcurrency(maxLimit)
+                    .build();
+        }
+        return VegasLimit.newBuilder()
+                .initialLimit(initialLimit)
+                .maxConcurrency(maxLimit)
+                .build();
+    }
+
+    private record OperationLimiter(SimpleLimiter<String> limiter, Counter rejected) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.examensoap.interceptor;
+
+import com.examensoap.transport.ClientNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.transport.HeadersAwareReceiverWebServiceConnection;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace complète des enveloppes SOAP (requête et réponse) pour une fraction des requêtes.
+ * <p>
+ * Au lieu de journaliser tous les messages en DEBUG, seule une requête sur
+ * {@code 1 / examensoap.ws.payload-tracing.sample-rate} est tracée, ainsi que toute requête HTTP
+ * qui porte l'en-tête {@code X-Soap-Trace: true} et vient d'une adresse de
+ * {@code examensoap.ws.payload-tracing.header-allowed-networks} (la machine locale par défaut ; une liste
+ * vide ignore l'en-tête). Sans cette restriction, n'importe quel client pourrait remplir les logs avec
+ * les données du catalogue. La requête et sa réponse partagent un identifiant de trace pour être
+ * retrouvées dans les logs.
+ * <p>
+ * Les enveloppes plus longues que {@code examensoap.ws.payload-tracing.max-length} caractères sont
+ * tronquées. Rien n'est sérialisé pour les requêtes non échantillonnées.
+ */
+@Component
+@Order(10)
+@ConditionalOnProperty(name = "examensoap.ws.payload-tracing.enabled", matchIfMissing = true)
+public class PayloadTracingInterceptor implements EndpointInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadTracingInterceptor.class);
+    private static final String TRACE_ID_PROPERTY = PayloadTracingInterceptor.class.getName() + ".TRACE_ID";
+    private static final String TRACE_HEADER = "X-Soap-Trace";
+
+    private final double sampleRate;
+    private final int maxLength;
+    private final List<ClientNetwork> headerAllowedNetworks;
+
+    public PayloadTracingInterceptor(@Value("${examensoap.ws.payload-tracing.sample-rate:0}") double sampleRate,
+                                     @Value("${examensoap.ws.payload-tracing.max-length:65536}") int maxLength,
+                                     @Value("${examensoap.ws.payload-tracing.header-allowed-networks:127.0.0.1/32,::1/128}")
+                                     List<String> headerAllowedNetworks) {
+        this.sampleRate = sampleRate;
+        this.maxLength = maxLength;
+        this.headerAllowedNetworks = ClientNetwork.parseAll(headerAllowedNetworks);
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) throws IOException {
+        if (!logger.isInfoEnabled() || !(isFlagged() || isSampled())) {
+            return true;
+        }
+        String traceId = UUID.randomUUID().toString();
+        messageContext.setProperty(TRACE_ID_PROPERTY, traceId);
+        logger.info("Trace {} - requête {} :\n{}", traceId, SoapOperations.operationName(endpoint),
+                serialize(messageContext.getRequest()));
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) throws IOException {
+        logResponse(messageContext, endpoint, "réponse");
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) throws IOException {
+        logResponse(messageContext, endpoint, "faute");
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        messageContext.removeProperty(TRACE_ID_PROPERTY);
+    }
+
+    private void logResponse(MessageContext messageContext, Object endpoint, String kind) throws IOException {
+        Object traceId = messageContext.getProperty(TRACE_ID_PROPERTY);
+        if (traceId == null || !messageContext.hasResponse()) {
+            return;
+        }
+        logger.info("Trace {} - {} {} :\n{}", traceId, kind, SoapOperations.operationName(endpoint),
+                serialize(messageContext.getResponse()));
+    }
+
+    private boolean isSampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean isFlagged() throws IOException {
+        if (headerAllowedNetworks.isEmpty()) {
+            return false;
+        }
+        TransportContext transportContext = TransportContextHolder.getTransportContext();
+        if (transportContext == null
+                || !(transportContext.getConnection() instanceof HeadersAwareReceiverWebServiceConnection connection)) {
+            return false;
+        }
+        Iterator<String> values = connection.getRequestHeaders(TRACE_HEADER);
+        while (values.hasNext()) {
+            if (Boolean.parseBoolean(values.next().trim())) {
+                // L'en-tête n'est honoré que pour les réseaux autorisés
+                return ClientNetwork.anyContains(headerAllowedNetworks, ClientNetwork.currentClientAddress());
+            }
+        }
+        return false;
+    }
+
+    private String serialize(WebServiceMessage message) throws IOException {
+        ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+        message.writeTo(envelope);
+        String xml = envelope.toString(StandardCharsets.UTF_8);
+        if (xml.length() <= maxLength) {
+            return xml;
+        }
+        return xml.substring(0, maxLength) + "... [" + (xml.length() - maxLength) + " caractères tronqués]";
+    }
+}
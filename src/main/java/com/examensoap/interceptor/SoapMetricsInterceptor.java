@@ -0,0 +1,119 @@
+package com.examensoap.interceptor;
+
+import com.examensoap.transport.SoapSizeMetricsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.soap.SoapBody;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+/**
+ * Métriques Micrometer par opération SOAP ({@code localPart} du {@code @PayloadRoot}).
+ * <p>
+ * Premier intercepteur de la chaîne, il mesure aussi les requêtes rejetées par les intercepteurs
+ * suivants (limite de concurrence, file asynchrone pleine) :
+ * <ul>
+ *     <li>{@code soap.server.requests} : durée et débit, tags {@code operation} et {@code outcome}
+ *     ({@code success}, {@code fault}, {@code accepted} pour une réponse WS-Addressing différée,
+ *     {@code error}) ; percentiles configurés dans application.properties ;</li>
+ *     <li>{@code soap.server.faults} : fautes SOAP renvoyées, tags {@code operation} et {@code code}.</li>
+ * </ul>
+ * Le nom de l'opération est aussi posé sur la requête HTTP pour que {@link SoapSizeMetricsFilter}
+ * puisse enregistrer la taille des messages.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SoapMetricsInterceptor implements EndpointInterceptor {
+
+    private static final String SAMPLE_PROPERTY = SoapMetricsInterceptor.class.getName() + ".SAMPLE";
+
+    private final MeterRegistry meterRegistry;
+
+    public SoapMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) {
+        messageContext.setProperty(SAMPLE_PROPERTY, Timer.start(meterRegistry));
+        exposeOperation(SoapOperations.operationName(endpoint));
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        Timer.Sample sample = (Timer.Sample) messageContext.getProperty(SAMPLE_PROPERTY);
+        if (sample == null) {
+            return;
+        }
+        messageContext.removeProperty(SAMPLE_PROPERTY);
+        String operation = SoapOperations.operationName(endpoint);
+
+        String outcome;
+        if (ex != null) {
+            outcome = "error";
+        } else if (!messageContext.hasResponse()) {
+            outcome = "accepted";
+        } else if (messageContext.getResponse() instanceof SoapMessage response && response.hasFault()) {
+            outcome = "fault";
+            countFault(operation, response.getSoapBody());
+        } else {
+            outcome = "success";
+        }
+
+        sample.stop(Timer.builder("soap.server.requests")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("Durée de traitement des opérations SOAP")
+                .register(meterRegistry));
+    }
+
+    private void countFault(String operation, SoapBody body) {
+        String code = body.getFault().getFaultCode() != null
+                ? body.getFault().getFaultCode().getLocalPart()
+                : "unknown";
+        Counter.builder("soap.server.faults")
+                .tag("operation", operation)
+                .tag("code", code)
+                .description("Fautes SOAP renvoyées par opération")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Pose le nom de l'opération sur la requête HTTP en cours. Les éléments d'un lot passent aussi par
+     * cet intercepteur, les écritures sur le thread de la requête et les lectures sur l'exécuteur, avec
+     * le contexte de transport du lot : le lot est passé avant eux, seule sa propre opération est donc
+     * gardée. Sans requête HTTP sur le thread, seule la taille n'est pas attribuée ; la durée est mesurée
+     * sur le {@link MessageContext}.
+     */
+    private static void exposeOperation(String operation) {
+        TransportContext transportContext = TransportContextHolder.getTransportContext();
+        if (transportContext == null || !(transportContext.getConnection() instanceof HttpServletConnection connection)) {
+            return;
+        }
+        HttpServletRequest request = connection.getHttpServletRequest();
+        if (request.getAttribute(SoapSizeMetricsFilter.OPERATION_ATTRIBUTE) == null) {
+            request.setAttribute(SoapSizeMetricsFilter.OPERATION_ATTRIBUTE, operation);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.examensoap.interceptor;
+
+import com.examensoap.tracing.SoapHeaderReceiverContext;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.server.SoapEndpointInterceptor;
+
+/**
+ * Observation {@code soap.dispatch} : toute la traversée d'une requête SOAP par les intercepteurs
+ * et l'endpoint, nommée d'après l'opération ({@code getSectorsRequest}, ...).
+ * <p>
+ * Sur HTTP, elle devient un span enfant de la requête HTTP, dont le contexte de trace a été extrait
+ * des en-têtes {@code traceparent} par Spring Boot. Si l'enveloppe porte elle-même un en-tête SOAP
+ * {@code traceparent}, c'est ce contexte qui sert de parent (voir {@link SoapHeaderReceiverContext}).
+ * Les phases de l'appel (unmarshal, invoke, marshal), les services et les requêtes JDBC en sont les enfants.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SoapObservationInterceptor implements SoapEndpointInterceptor {
+
+    private static final String OBSERVATION_PROPERTY = SoapObservationInterceptor.class.getName() + ".OBSERVATION";
+    private static final String SCOPE_PROPERTY = SoapObservationInterceptor.class.getName() + ".SCOPE";
+
+    private final ObservationRegistry observationRegistry;
+
+    public SoapObservationInterceptor(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public boolean understands(SoapHeaderElement header) {
+        return SoapHeaderReceiverContext.TRACEPARENT.equalsIgnoreCase(header.getName().getLocalPart());
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) {
+        String operation = SoapOperations.operationName(endpoint);
+        Observation observation;
+        if (messageContext.getRequest() instanceof SoapMessage request
+                && SoapHeaderReceiverContext.hasTraceContext(request)) {
+            observation = Observation.createNotStarted("soap.dispatch",
+                    () -> new SoapHeaderReceiverContext(request), observationRegistry);
+        } else {
+            observation = Observation.createNotStarted("soap.dispatch", observationRegistry);
+        }
+        observation.contextualName(operation)
+                .lowCardinalityKeyValue("soap.operation", operation)
+                .start();
+        messageContext.setProperty(OBSERVATION_PROPERTY, observation);
+        messageContext.setProperty(SCOPE_PROPERTY, observation.openScope());
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        Observation observation = (Observation) messageContext.getProperty(OBSERVATION_PROPERTY);
+        if (observation == null) {
+            return;
+        }
+        ((Observation.Scope) messageContext.getProperty(SCOPE_PROPERTY)).close();
+        messageContext.removeProperty(OBSERVATION_PROPERTY);
+        messageContext.removeProperty(SCOPE_PROPERTY);
+
+        boolean fault = messageContext.hasResponse()
+                && messageContext.getResponse() instanceof SoapMessage response && response.hasFault();
+        observation.lowCardinalityKeyValue("soap.outcome", ex != null ? "error" : fault ? "fault" : "success");
+        if (ex != null) {
+            observation.error(ex);
+        }
+        observation.stop();
+    }
+}
@@ -0,0 +1,27 @@
+package com.examensoap.interceptor;
+
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+
+/**
+ * Nom d'opération SOAP utilisé par les intercepteurs (métriques, limites, traces).
+ * <p>
+ * C'est le {@code localPart} du {@code @PayloadRoot} de la méthode appelée, par exemple
+ * {@code getSectorsRequest}, ce qui reste stable quel que soit le préfixe XML du client.
+ */
+public final class SoapOperations {
+
+    private SoapOperations() {
+    }
+
+    public static String operationName(Object endpoint) {
+        if (endpoint instanceof MethodEndpoint methodEndpoint) {
+            PayloadRoot payloadRoot = methodEndpoint.getMethod().getAnnotation(PayloadRoot.class);
+            if (payloadRoot != null) {
+                return payloadRoot.localPart();
+            }
+            return methodEndpoint.getMethod().getName();
+        }
+        return endpoint != null ? endpoint.getClass().getSimpleName() : "unknown";
+    }
+}
@@ -0,0 +1,189 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint actuator {@code /actuator/jfr} : enregistrements JDK Flight Recorder à la demande,
+ * sans redémarrer l'application.
+ * <ul>
+ *     <li>{@code GET} : enregistrements en cours ;</li>
+ *     <li>{@code POST /start} ({@code settings}, {@code duration} facultatifs) : démarre un
+ *     enregistrement, avec la configuration {@code profile} par défaut ;</li>
+ *     <li>{@code POST /dump} : écrit sur disque l'enregistrement à la demande, ou à défaut
+ *     l'enregistrement continu, sans les arrêter ;</li>
+ *     <li>{@code POST /stop} : arrête l'enregistrement à la demande et l'écrit sur disque.</li>
+ * </ul>
+ * Les fichiers sont écrits dans {@code examensoap.jfr.dump-directory} et s'ouvrent avec JDK Mission
+ * Control ou {@code jfr print --events 'com.examensoap.*'}.
+ * <p>
+ * Les opérations d'écriture agissent sur la JVM et le disque : l'endpoint n'est pas exposé par défaut
+ * et ne doit l'être que sur un port de management séparé ({@code management.server.port}).
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    static final String CONTINUOUS_RECORDING = "examensoap-continuous";
+    static final String ON_DEMAND_RECORDING = "examensoap-on-demand";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path dumpDirectory;
+    private Recording continuous;
+    private Recording onDemand;
+
+    public JfrEndpoint(Path dumpDirectory) {
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    /**
+     * Enregistrement permanent, borné en âge et en taille, pour pouvoir récupérer les dernières
+     * minutes d'activité après un incident.
+     */
+    public synchronized void startContinuous(String settings, Duration maxAge, long maxSize)
+            throws IOException, ParseException {
+        Recording recording = newRecording(CONTINUOUS_RECORDING, settings);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        recording.start();
+        continuous = recording;
+        logger.info("Enregistrement JFR continu démarré (configuration {}, {} max)", settings, maxAge);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> recordings() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dumpDirectory", dumpDirectory.toAbsolutePath().toString());
+        result.put("recordings", FlightRecorder.isInitialized()
+                ? FlightRecorder.getFlightRecorder().getRecordings().stream().map(RecordingInfo::of).toList()
+                : List.of());
+        return result;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action, @Nullable String settings,
+                                                    @Nullable Duration duration) throws Exception {
+        return switch (action) {
+            case "start" -> start(settings != null ? settings : "profile", duration);
+            case "dump" -> dump();
+            case "stop" -> stop();
+            default -> throw invalidRequest("Action JFR inconnue : " + action);
+        };
+    }
+
+    private Map<String, Object> start(String settings, @Nullable Duration duration) throws Exception {
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            throw invalidRequest("Un enregistrement JFR est déjà en cours (id " + onDemand.getId() + ")");
+        }
+        closeOnDemand();
+        Recording recording = newRecording(ON_DEMAND_RECORDING, settings);
+        if (duration != null) {
+            // Écrit automatiquement à la fin de la durée
+            recording.setDuration(duration);
+            recording.setDestination(dumpFile(recording));
+        }
+        recording.start();
+        onDemand = recording;
+        logger.info("Enregistrement JFR {} démarré (configuration {}, durée {})",
+                recording.getId(), settings, duration != null ? duration : "illimitée");
+        return Map.of("recording", RecordingInfo.of(recording));
+    }
+
+    private Map<String, Object> dump() throws IOException {
+        Recording recording = onDemand != null && onDemand.getState() == RecordingState.RUNNING ? onDemand : continuous;
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw invalidRequest("Aucun enregistrement JFR en cours");
+        }
+        Path file = dumpFile(recording);
+        recording.dump(file);
+        logger.info("Enregistrement JFR {} écrit dans {}", recording.getId(), file);
+        return Map.of("recording", RecordingInfo.of(recording), "file", file.toString());
+    }
+
+    private Map<String, Object> stop() throws IOException {
+        if (onDemand == null || onDemand.getState() != RecordingState.RUNNING) {
+            throw invalidRequest("Aucun enregistrement JFR à la demande en cours");
+        }
+        Path file = dumpFile(onDemand);
+        onDemand.stop();
+        onDemand.dump(file);
+        RecordingInfo info = RecordingInfo.of(onDemand);
+        closeOnDemand();
+        logger.info("Enregistrement JFR arrêté et écrit dans {}", file);
+        return Map.of("recording", info, "file", file.toString());
+    }
+
+    private static InvalidEndpointRequestException invalidRequest(String message) {
+        return new InvalidEndpointRequestException(message, message);
+    }
+
+    private static Recording newRecording(String name, String settings) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(name);
+        recording.enable(SoapReceiveEvent.class);
+        recording.enable(SoapUnmarshalEvent.class);
+        recording.enable(SoapInvokeEvent.class);
+        recording.enable(SoapServiceEvent.class);
+        recording.enable(SoapMarshalEvent.class);
+        return recording;
+    }
+
+    private Path dumpFile(Recording recording) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        return dumpDirectory.resolve(recording.getName() + "-" + FILE_TIMESTAMP.format(Instant.now())
+                + "-" + recording.getId() + ".jfr").toAbsolutePath();
+    }
+
+    private void closeOnDemand() {
+        if (onDemand != null) {
+            onDemand.close();
+            onDemand = null;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeOnDemand();
+        if (continuous != null) {
+            continuous.close();
+            continuous = null;
+        }
+    }
+
+    public record RecordingInfo(long id, String name, String state, Instant start,
+                                Duration duration, long size, String destination) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize(),
+                    recording.getDestination() != null ? recording.getDestination().toString() : null);
+        }
+    }
+}
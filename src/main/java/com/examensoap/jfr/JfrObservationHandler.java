@@ -0,0 +1,120 @@
+package com.examensoap.jfr;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.EventType;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.transport.WebServiceConnection;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Traduit les observations des phases SOAP ({@code soap.unmarshal}, {@code soap.invoke},
+ * {@code soap.service}, {@code soap.marshal}) en événements JDK Flight Recorder.
+ * <p>
+ * Les événements portent l'opération SOAP (lue sur l'observation {@code soap.dispatch} parente),
+ * le type JAXB lu ou écrit et la taille de la requête HTTP. Ils ne sont créés que lorsqu'un
+ * enregistrement JFR les a activés ({@link EventType#isEnabled()}, lu sur le type mis en cache) : sans
+ * enregistrement, une observation ne coûte qu'une recherche dans une table et un test de booléen, ce qui
+ * permet de laisser ce handler en place en production.
+ */
+@Component
+public class JfrObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String OPERATION_KEY = "soap.operation";
+    private static final String PAYLOAD_KEY = "soap.payload";
+
+    private static final Map<String, Phase> PHASES = Map.of(
+            "soap.unmarshal", new Phase(SoapUnmarshalEvent.class, SoapUnmarshalEvent::new),
+            "soap.invoke", new Phase(SoapInvokeEvent.class, SoapInvokeEvent::new),
+            "soap.service", new Phase(SoapServiceEvent.class, SoapServiceEvent::new),
+            "soap.marshal", new Phase(SoapMarshalEvent.class, SoapMarshalEvent::new));
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context.getName() != null && PHASES.containsKey(context.getName());
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        Phase phase = PHASES.get(context.getName());
+        if (!phase.type().isEnabled()) {
+            return;
+        }
+        SoapPhaseEvent event = phase.factory().get();
+        event.begin();
+        context.put(SoapPhaseEvent.class, event);
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        SoapPhaseEvent event = (SoapPhaseEvent) context.remove(SoapPhaseEvent.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.operation = operation(context);
+        event.payloadType = lowCardinalityValue(context, PAYLOAD_KEY);
+        event.requestSize = requestSize();
+        event.error = context.getError() != null ? context.getError().getClass().getName() : null;
+        if (event instanceof SoapServiceEvent serviceEvent) {
+            serviceEvent.service = lowCardinalityValue(context, "class");
+            serviceEvent.method = lowCardinalityValue(context, "method");
+        }
+        event.commit();
+    }
+
+    /**
+     * L'opération est posée par {@code SoapObservationInterceptor} sur l'observation {@code soap.dispatch},
+     * ancêtre de toutes les phases.
+     */
+    private static String operation(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        while (parent != null) {
+            KeyValue operation = parent.getContextView().getLowCardinalityKeyValue(OPERATION_KEY);
+            if (operation != null) {
+                return operation.getValue();
+            }
+            parent = parent.getContextView().getParentObservation();
+        }
+        return null;
+    }
+
+    private static String lowCardinalityValue(Observation.Context context, String key) {
+        KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+        return keyValue != null ? keyValue.getValue() : null;
+    }
+
+    /**
+     * Taille annoncée par la requête HTTP en cours ; 0 hors HTTP (réponses asynchrones) ou en chunked.
+     */
+    private static long requestSize() {
+        TransportContext transportContext = TransportContextHolder.getTransportContext();
+        if (transportContext == null) {
+            return 0;
+        }
+        WebServiceConnection connection = transportContext.getConnection();
+        if (connection instanceof HttpServletConnection servletConnection) {
+            HttpServletRequest request = servletConnection.getHttpServletRequest();
+            return Math.max(request.getContentLengthLong(), 0);
+        }
+        return 0;
+    }
+
+    private record Phase(EventType type, Supplier<SoapPhaseEvent> factory) {
+
+        Phase(Class<? extends SoapPhaseEvent> eventClass, Supplier<SoapPhaseEvent> factory) {
+            this(EventType.getEventType(eventClass), factory);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Appel complet de la méthode d'endpoint.
+ */
+@Name("com.examensoap.SoapInvoke")
+@Label("SOAP Endpoint Invoke")
+public class SoapInvokeEvent extends SoapPhaseEvent {
+}
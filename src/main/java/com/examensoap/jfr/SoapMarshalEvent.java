@@ -0,0 +1,12 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Écriture JAXB de la réponse dans le message SOAP.
+ */
+@Name("com.examensoap.SoapMarshal")
+@Label("SOAP Marshal")
+public class SoapMarshalEvent extends SoapPhaseEvent {
+}
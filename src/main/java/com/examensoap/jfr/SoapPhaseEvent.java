@@ -0,0 +1,31 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base des événements JFR d'une phase du traitement SOAP, émis par {@link JfrObservationHandler}.
+ * <p>
+ * Un événement n'est construit et horodaté que si un enregistrement JFR l'a activé ; sinon son coût
+ * se limite à un test de booléen.
+ */
+@Category({"ExamenSOAP", "SOAP"})
+@StackTrace(false)
+public abstract class SoapPhaseEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Payload Type")
+    String payloadType;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestSize;
+
+    @Label("Error")
+    String error;
+}
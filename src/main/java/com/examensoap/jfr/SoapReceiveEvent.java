@@ -0,0 +1,33 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Réception d'un message SOAP sur HTTP, de la lecture de la requête à l'écriture de la réponse,
+ * avec les tailles réelles sur le réseau (après encodage Fast Infoset éventuel).
+ */
+@Name("com.examensoap.SoapReceive")
+@Label("SOAP Receive")
+@Category({"ExamenSOAP", "SOAP"})
+@StackTrace(false)
+public class SoapReceiveEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestSize;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseSize;
+
+    @Label("HTTP Status")
+    public int status;
+}
@@ -0,0 +1,18 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Appel d'une méthode de service ({@code @Observed}), par exemple {@code getAllSectors}.
+ */
+@Name("com.examensoap.SoapService")
+@Label("SOAP Service Call")
+public class SoapServiceEvent extends SoapPhaseEvent {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+}
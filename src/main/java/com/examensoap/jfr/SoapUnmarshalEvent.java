@@ -0,0 +1,12 @@
+package com.examensoap.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lecture JAXB du paramètre @RequestPayload.
+ */
+@Name("com.examensoap.SoapUnmarshal")
+@Label("SOAP Unmarshal")
+public class SoapUnmarshalEvent extends SoapPhaseEvent {
+}
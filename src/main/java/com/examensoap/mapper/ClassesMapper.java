@@ -3,12 +3,18 @@ package com.examensoap.mapper;
 import com.examensoap.dto.ClassesDto;
 import com.examensoap.entity.ClassesEntity;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 
 public interface ClassesMapper {
 
+     @Mapping(target = "sectorId", source = "sectors.id")
      ClassesDto toClassesDto(ClassesEntity classesEntity);
 
+     // Le secteur est chargé et rattaché par le service
+     @Mapping(target = "sectors", ignore = true)
+     // Attribuée par le service (voir ChangeSequence)
+     @Mapping(target = "updatedSeq", ignore = true)
      ClassesEntity toClassesEntity(ClassesDto classesDto);
 }
@@ -0,0 +1,21 @@
+package com.examensoap.mapper;
+
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.model.Classes;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Conversion directe entité → type SOAP pour les lectures, sans passer par {@code ClassesDto}.
+ * L'ID du secteur est lu sur le proxy Hibernate sans charger le secteur.
+ */
+@Mapper(componentModel = "spring")
+public interface ClassesSoapMapper {
+
+    @Mapping(target = "sectors", source = "sectors.id")
+    Classes toSoapClasses(ClassesEntity classesEntity);
+
+    List<Classes> toSoapClasses(List<ClassesEntity> classesEntities);
+}
@@ -3,10 +3,13 @@ package com.examensoap.mapper;
 import com.examensoap.dto.SectorsDto;
 import com.examensoap.entity.SectorsEntity;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface SectorsMapper {
     public SectorsDto toSectorsDto(SectorsEntity sectorsEntity);
 
+    // Attribuée par le service (voir ChangeSequence)
+    @Mapping(target = "updatedSeq", ignore = true)
     public SectorsEntity toSectorsEntity(SectorsDto sectorsDto);
 }
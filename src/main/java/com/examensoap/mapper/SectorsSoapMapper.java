@@ -0,0 +1,18 @@
+package com.examensoap.mapper;
+
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.model.Sectors;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * Conversion directe entité → type SOAP pour les lectures, sans passer par {@code SectorsDto}.
+ */
+@Mapper(componentModel = "spring")
+public interface SectorsSoapMapper {
+
+    Sectors toSoapSectors(SectorsEntity sectorsEntity);
+
+    List<Sectors> toSoapSectors(Iterable<SectorsEntity> sectorsEntities);
+}
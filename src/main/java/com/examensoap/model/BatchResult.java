@@ -0,0 +1,117 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.18 à 10:48:05 PM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlType;
+import org.w3c.dom.Element;
+
+
+/**
+ * <p>Classe Java pour BatchResult complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType name="BatchResult"&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;any processContents='skip' namespace='##other' minOccurs="0"/&gt;
+ *         &lt;element name="fault" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/&gt;
+ *       &lt;/sequence&gt;
+ *       &lt;attribute name="index" use="required" type="{http://www.w3.org/2001/XMLSchema}int" /&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "BatchResult", namespace = "http://examensoap.com/Batch", propOrder = {
+    "any",
+    "fault"
+})
+public class BatchResult {
+
+    @XmlAnyElement
+    protected Element any;
+    protected String fault;
+    @XmlAttribute(name = "index", required = true)
+    protected int index;
+
+    /**
+     * Obtient la valeur de la propriété any.
+     * 
+     * @return
+     *     possible object is
+     *     {@link Element }
+     *     
+     */
+    public Element getAny() {
+        return any;
+    }
+
+    /**
+     * Définit la valeur de la propriété any.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link Element }
+     *     
+     */
+    public void setAny(Element value) {
+        this.any = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété fault.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getFault() {
+        return fault;
+    }
+
+    /**
+     * Définit la valeur de la propriété fault.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setFault(String value) {
+        this.fault = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété index.
+     * 
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Définit la valeur de la propriété index.
+     * 
+     */
+    public void setIndex(int value) {
+        this.index = value;
+    }
+
+}
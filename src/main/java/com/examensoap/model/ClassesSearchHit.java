@@ -0,0 +1,88 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:27:48 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour ClassesSearchHit complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType name="ClassesSearchHit"&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="classes" type="{http://examensoap.com/Classes}Classes"/&gt;
+ *         &lt;element name="score" type="{http://www.w3.org/2001/XMLSchema}double"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "ClassesSearchHit", namespace = "http://examensoap.com/Classes", propOrder = {
+    "classes",
+    "score"
+})
+public class ClassesSearchHit {
+
+    @XmlElement(required = true)
+    protected Classes classes;
+    protected double score;
+
+    /**
+     * Obtient la valeur de la propriété classes.
+     * 
+     * @return
+     *     possible object is
+     *     {@link Classes }
+     *     
+     */
+    public Classes getClasses() {
+        return classes;
+    }
+
+    /**
+     * Définit la valeur de la propriété classes.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link Classes }
+     *     
+     */
+    public void setClasses(Classes value) {
+        this.classes = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété score.
+     * 
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Définit la valeur de la propriété score.
+     * 
+     */
+    public void setScore(double value) {
+        this.score = value;
+    }
+
+}
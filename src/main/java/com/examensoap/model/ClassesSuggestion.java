@@ -0,0 +1,107 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:27:48 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour ClassesSuggestion complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType name="ClassesSuggestion"&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="id" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="className" type="{http://www.w3.org/2001/XMLSchema}string"/&gt;
+ *         &lt;element name="sectors" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "ClassesSuggestion", namespace = "http://examensoap.com/Classes", propOrder = {
+    "id",
+    "className",
+    "sectors"
+})
+public class ClassesSuggestion {
+
+    protected long id;
+    @XmlElement(required = true)
+    protected String className;
+    protected long sectors;
+
+    /**
+     * Obtient la valeur de la propriété id.
+     * 
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Définit la valeur de la propriété id.
+     * 
+     */
+    public void setId(long value) {
+        this.id = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété className.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Définit la valeur de la propriété className.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setClassName(String value) {
+        this.className = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété sectors.
+     * 
+     */
+    public long getSectors() {
+        return sectors;
+    }
+
+    /**
+     * Définit la valeur de la propriété sectors.
+     * 
+     */
+    public void setSectors(long value) {
+        this.sectors = value;
+    }
+
+}
@@ -0,0 +1,44 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:53:13 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlEnum;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour ExportDelivery.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * <pre>
+ * &lt;simpleType name="ExportDelivery"&gt;
+ *   &lt;restriction base="{http://www.w3.org/2001/XMLSchema}string"&gt;
+ *     &lt;enumeration value="FILE"/&gt;
+ *     &lt;enumeration value="MTOM"/&gt;
+ *   &lt;/restriction&gt;
+ * &lt;/simpleType&gt;
+ * </pre>
+ * 
+ */
+@XmlType(name = "ExportDelivery", namespace = "http://examensoap.com/Export")
+@XmlEnum
+public enum ExportDelivery {
+
+    FILE,
+    MTOM;
+
+    public String value() {
+        return name();
+    }
+
+    public static ExportDelivery fromValue(String v) {
+        return valueOf(v);
+    }
+
+}
@@ -0,0 +1,73 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:53:13 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="delivery" type="{http://examensoap.com/Export}ExportDelivery" minOccurs="0"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "delivery"
+})
+@XmlRootElement(name = "exportSnapshotRequest", namespace = "http://examensoap.com/Export")
+public class ExportSnapshotRequest {
+
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    @XmlSchemaType(name = "string")
+    protected ExportDelivery delivery;
+
+    /**
+     * Obtient la valeur de la propriété delivery.
+     * 
+     * @return
+     *     possible object is
+     *     {@link ExportDelivery }
+     *     
+     */
+    public ExportDelivery getDelivery() {
+        return delivery;
+    }
+
+    /**
+     * Définit la valeur de la propriété delivery.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link ExportDelivery }
+     *     
+     */
+    public void setDelivery(ExportDelivery value) {
+        this.delivery = value;
+    }
+
+}
@@ -0,0 +1,250 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:53:13 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.activation.DataHandler;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlMimeType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="fileName" type="{http://www.w3.org/2001/XMLSchema}string"/&gt;
+ *         &lt;element name="path" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/&gt;
+ *         &lt;element name="file" type="{http://www.w3.org/2001/XMLSchema}base64Binary" minOccurs="0"/&gt;
+ *         &lt;element name="changeSequence" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="sectors" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="classes" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="bytes" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="durationMs" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="rowsPerSecond" type="{http://www.w3.org/2001/XMLSchema}double"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "fileName",
+    "path",
+    "file",
+    "changeSequence",
+    "sectors",
+    "classes",
+    "bytes",
+    "durationMs",
+    "rowsPerSecond"
+})
+@XmlRootElement(name = "exportSnapshotResponse", namespace = "http://examensoap.com/Export")
+public class ExportSnapshotResponse {
+
+    @XmlElement(namespace = "http://examensoap.com/Export", required = true)
+    protected String fileName;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected String path;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    @XmlMimeType("application/gzip")
+    protected DataHandler file;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected long changeSequence;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected long sectors;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected long classes;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected long bytes;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected long durationMs;
+    @XmlElement(namespace = "http://examensoap.com/Export")
+    protected double rowsPerSecond;
+
+    /**
+     * Obtient la valeur de la propriété fileName.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Définit la valeur de la propriété fileName.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setFileName(String value) {
+        this.fileName = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété path.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Définit la valeur de la propriété path.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setPath(String value) {
+        this.path = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété file.
+     * 
+     * @return
+     *     possible object is
+     *     {@link DataHandler }
+     *     
+     */
+    public DataHandler getFile() {
+        return file;
+    }
+
+    /**
+     * Définit la valeur de la propriété file.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link DataHandler }
+     *     
+     */
+    public void setFile(DataHandler value) {
+        this.file = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété changeSequence.
+     * 
+     */
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    /**
+     * Définit la valeur de la propriété changeSequence.
+     * 
+     */
+    public void setChangeSequence(long value) {
+        this.changeSequence = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété sectors.
+     * 
+     */
+    public long getSectors() {
+        return sectors;
+    }
+
+    /**
+     * Définit la valeur de la propriété sectors.
+     * 
+     */
+    public void setSectors(long value) {
+        this.sectors = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété classes.
+     * 
+     */
+    public long getClasses() {
+        return classes;
+    }
+
+    /**
+     * Définit la valeur de la propriété classes.
+     * 
+     */
+    public void setClasses(long value) {
+        this.classes = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété bytes.
+     * 
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Définit la valeur de la propriété bytes.
+     * 
+     */
+    public void setBytes(long value) {
+        this.bytes = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété durationMs.
+     * 
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Définit la valeur de la propriété durationMs.
+     * 
+     */
+    public void setDurationMs(long value) {
+        this.durationMs = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété rowsPerSecond.
+     * 
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * Définit la valeur de la propriété rowsPerSecond.
+     * 
+     */
+    public void setRowsPerSecond(double value) {
+        this.rowsPerSecond = value;
+    }
+
+}
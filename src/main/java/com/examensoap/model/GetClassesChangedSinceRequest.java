@@ -0,0 +1,91 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:34:32 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="since" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="limit" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "since",
+    "limit"
+})
+@XmlRootElement(name = "getClassesChangedSinceRequest", namespace = "http://examensoap.com/Classes")
+public class GetClassesChangedSinceRequest {
+
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected long since;
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected Integer limit;
+
+    /**
+     * Obtient la valeur de la propriété since.
+     * 
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Définit la valeur de la propriété since.
+     * 
+     */
+    public void setSince(long value) {
+        this.since = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété limit.
+     * 
+     * @return
+     *     possible object is
+     *     {@link Integer }
+     *     
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Définit la valeur de la propriété limit.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link Integer }
+     *     
+     */
+    public void setLimit(Integer value) {
+        this.limit = value;
+    }
+
+}
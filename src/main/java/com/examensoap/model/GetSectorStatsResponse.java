@@ -0,0 +1,95 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:27:48 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="sectorStats" type="{http://examensoap.com/Sectors}SectorStats" maxOccurs="unbounded" minOccurs="0"/&gt;
+ *         &lt;element name="totalClasses" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "sectorStats",
+    "totalClasses"
+})
+@XmlRootElement(name = "getSectorStatsResponse")
+public class GetSectorStatsResponse {
+
+    protected List<SectorStats> sectorStats;
+    protected long totalClasses;
+
+    /**
+     * Gets the value of the sectorStats property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the Jakarta XML Binding object.
+     * This is why there is not a <CODE>set</CODE> method for the sectorStats property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getSectorStats().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link SectorStats }
+     * 
+     * 
+     */
+    public List<SectorStats> getSectorStats() {
+        if (sectorStats == null) {
+            sectorStats = new ArrayList<SectorStats>();
+        }
+        return this.sectorStats;
+    }
+
+    /**
+     * Obtient la valeur de la propriété totalClasses.
+     * 
+     */
+    public long getTotalClasses() {
+        return totalClasses;
+    }
+
+    /**
+     * Définit la valeur de la propriété totalClasses.
+     * 
+     */
+    public void setTotalClasses(long value) {
+        this.totalClasses = value;
+    }
+
+}
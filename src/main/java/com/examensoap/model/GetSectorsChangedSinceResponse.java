@@ -0,0 +1,148 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:34:32 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="changed" type="{http://examensoap.com/Sectors}Sectors" maxOccurs="unbounded" minOccurs="0"/&gt;
+ *         &lt;element name="deletedId" type="{http://www.w3.org/2001/XMLSchema}long" maxOccurs="unbounded" minOccurs="0"/&gt;
+ *         &lt;element name="highWaterMark" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="hasMore" type="{http://www.w3.org/2001/XMLSchema}boolean"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "changed",
+    "deletedId",
+    "highWaterMark",
+    "hasMore"
+})
+@XmlRootElement(name = "getSectorsChangedSinceResponse")
+public class GetSectorsChangedSinceResponse {
+
+    protected List<Sectors> changed;
+    @XmlElement(type = Long.class)
+    protected List<Long> deletedId;
+    protected long highWaterMark;
+    protected boolean hasMore;
+
+    /**
+     * Gets the value of the changed property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the Jakarta XML Binding object.
+     * This is why there is not a <CODE>set</CODE> method for the changed property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getChanged().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link Sectors }
+     * 
+     * 
+     */
+    public List<Sectors> getChanged() {
+        if (changed == null) {
+            changed = new ArrayList<Sectors>();
+        }
+        return this.changed;
+    }
+
+    /**
+     * Gets the value of the deletedId property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the Jakarta XML Binding object.
+     * This is why there is not a <CODE>set</CODE> method for the deletedId property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getDeletedId().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link Long }
+     * 
+     * 
+     */
+    public List<Long> getDeletedId() {
+        if (deletedId == null) {
+            deletedId = new ArrayList<Long>();
+        }
+        return this.deletedId;
+    }
+
+    /**
+     * Obtient la valeur de la propriété highWaterMark.
+     * 
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Définit la valeur de la propriété highWaterMark.
+     * 
+     */
+    public void setHighWaterMark(long value) {
+        this.highWaterMark = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété hasMore.
+     * 
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Définit la valeur de la propriété hasMore.
+     * 
+     */
+    public void setHasMore(boolean value) {
+        this.hasMore = value;
+    }
+
+}
@@ -2,7 +2,7 @@
 // Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
 // Voir https://eclipse-ee4j.github.io/jaxb-ri 
 // Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
-// Généré le : 2025.08.03 à 03:54:49 PM GMT 
+// Généré le : 2026.10.19 à 01:53:13 AM GMT 
 //
 
 
@@ -36,6 +36,30 @@ public class ObjectFactory {
     public ObjectFactory() {
     }
 
+    /**
+     * Create an instance of {@link BatchRequest }
+     * 
+     */
+    public BatchRequest createBatchRequest() {
+        return new BatchRequest();
+    }
+
+    /**
+     * Create an instance of {@link BatchResponse }
+     * 
+     */
+    public BatchResponse createBatchResponse() {
+        return new BatchResponse();
+    }
+
+    /**
+     * Create an instance of {@link BatchResult }
+     * 
+     */
+    public BatchResult createBatchResult() {
+        return new BatchResult();
+    }
+
     /**
      * Create an instance of {@link GetClassesRequest }
      * 
@@ -76,6 +100,86 @@ public class ObjectFactory {
         return new GetAllClassesResponse();
     }
 
+    /**
+     * Create an instance of {@link GetClassesByIdsRequest }
+     * 
+     */
+    public GetClassesByIdsRequest createGetClassesByIdsRequest() {
+        return new GetClassesByIdsRequest();
+    }
+
+    /**
+     * Create an instance of {@link GetClassesByIdsResponse }
+     * 
+     */
+    public GetClassesByIdsResponse createGetClassesByIdsResponse() {
+        return new GetClassesByIdsResponse();
+    }
+
+    /**
+     * Create an instance of {@link SearchClassesRequest }
+     * 
+     */
+    public SearchClassesRequest createSearchClassesRequest() {
+        return new SearchClassesRequest();
+    }
+
+    /**
+     * Create an instance of {@link SearchClassesResponse }
+     * 
+     */
+    public SearchClassesResponse createSearchClassesResponse() {
+        return new SearchClassesResponse();
+    }
+
+    /**
+     * Create an instance of {@link ClassesSearchHit }
+     * 
+     */
+    public ClassesSearchHit createClassesSearchHit() {
+        return new ClassesSearchHit();
+    }
+
+    /**
+     * Create an instance of {@link SuggestClassesRequest }
+     * 
+     */
+    public SuggestClassesRequest createSuggestClassesRequest() {
+        return new SuggestClassesRequest();
+    }
+
+    /**
+     * Create an instance of {@link SuggestClassesResponse }
+     * 
+     */
+    public SuggestClassesResponse createSuggestClassesResponse() {
+        return new SuggestClassesResponse();
+    }
+
+    /**
+     * Create an instance of {@link ClassesSuggestion }
+     * 
+     */
+    public ClassesSuggestion createClassesSuggestion() {
+        return new ClassesSuggestion();
+    }
+
+    /**
+     * Create an instance of {@link GetClassesChangedSinceRequest }
+     * 
+     */
+    public GetClassesChangedSinceRequest createGetClassesChangedSinceRequest() {
+        return new GetClassesChangedSinceRequest();
+    }
+
+    /**
+     * Create an instance of {@link GetClassesChangedSinceResponse }
+     * 
+     */
+    public GetClassesChangedSinceResponse createGetClassesChangedSinceResponse() {
+        return new GetClassesChangedSinceResponse();
+    }
+
     /**
      * Create an instance of {@link CreateClassesRequest }
      * 
@@ -108,6 +212,22 @@ public class ObjectFactory {
         return new DeleteClassesResponse();
     }
 
+    /**
+     * Create an instance of {@link ExportSnapshotRequest }
+     * 
+     */
+    public ExportSnapshotRequest createExportSnapshotRequest() {
+        return new ExportSnapshotRequest();
+    }
+
+    /**
+     * Create an instance of {@link ExportSnapshotResponse }
+     * 
+     */
+    public ExportSnapshotResponse createExportSnapshotResponse() {
+        return new ExportSnapshotResponse();
+    }
+
     /**
      * Create an instance of {@link GetSectorsRequest }
      * 
@@ -148,6 +268,78 @@ public class ObjectFactory {
         return new GetAllSectorsResponse();
     }
 
+    /**
+     * Create an instance of {@link GetSectorsByIdsRequest }
+     * 
+     */
+    public GetSectorsByIdsRequest createGetSectorsByIdsRequest() {
+        return new GetSectorsByIdsRequest();
+    }
+
+    /**
+     * Create an instance of {@link GetSectorsByIdsResponse }
+     * 
+     */
+    public GetSectorsByIdsResponse createGetSectorsByIdsResponse() {
+        return new GetSectorsByIdsResponse();
+    }
+
+    /**
+     * Create an instance of {@link SuggestSectorsRequest }
+     * 
+     */
+    public SuggestSectorsRequest createSuggestSectorsRequest() {
+        return new SuggestSectorsRequest();
+    }
+
+    /**
+     * Create an instance of {@link SuggestSectorsResponse }
+     * 
+     */
+    public SuggestSectorsResponse createSuggestSectorsResponse() {
+        return new SuggestSectorsResponse();
+    }
+
+    /**
+     * Create an instance of {@link GetSectorStatsRequest }
+     * 
+     */
+    public GetSectorStatsRequest createGetSectorStatsRequest() {
+        return new GetSectorStatsRequest();
+    }
+
+    /**
+     * Create an instance of {@link GetSectorStatsResponse }
+     * 
+     */
+    public GetSectorStatsResponse createGetSectorStatsResponse() {
+        return new GetSectorStatsResponse();
+    }
+
+    /**
+     * Create an instance of {@link SectorStats }
+     * 
+     */
+    public SectorStats createSectorStats() {
+        return new SectorStats();
+    }
+
+    /**
+     * Create an instance of {@link GetSectorsChangedSinceRequest }
+     * 
+     */
+    public GetSectorsChangedSinceRequest createGetSectorsChangedSinceRequest() {
+        return new GetSectorsChangedSinceRequest();
+    }
+
+    /**
+     * Create an instance of {@link GetSectorsChangedSinceResponse }
+     * 
+     */
+    public GetSectorsChangedSinceResponse createGetSectorsChangedSinceResponse() {
+        return new GetSectorsChangedSinceResponse();
+    }
+
     /**
      * Create an instance of {@link AddSectorsRequest }
      * 
@@ -0,0 +1,138 @@
+//
+// Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
+// Voir https://eclipse-ee4j.github.io/jaxb-ri 
+// Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
+// Généré le : 2026.10.19 à 01:27:48 AM GMT 
+//
+
+
+package com.examensoap.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Classe Java pour anonymous complex type.
+ * 
+ * <p>Le fragment de schéma suivant indique le contenu attendu figurant dans cette classe.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType"&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name="total" type="{http://www.w3.org/2001/XMLSchema}long"/&gt;
+ *         &lt;element name="page" type="{http://www.w3.org/2001/XMLSchema}int"/&gt;
+ *         &lt;element name="size" type="{http://www.w3.org/2001/XMLSchema}int"/&gt;
+ *         &lt;element name="hit" type="{http://examensoap.com/Classes}ClassesSearchHit" maxOccurs="unbounded" minOccurs="0"/&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "total",
+    "page",
+    "size",
+    "hit"
+})
+@XmlRootElement(name = "searchClassesResponse", namespace = "http://examensoap.com/Classes")
+public class SearchClassesResponse {
+
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected long total;
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected int page;
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected int size;
+    @XmlElement(namespace = "http://examensoap.com/Classes")
+    protected List<ClassesSearchHit> hit;
+
+    /**
+     * Obtient la valeur de la propriété total.
+     * 
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Définit la valeur de la propriété total.
+     * 
+     */
+    public void setTotal(long value) {
+        this.total = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété page.
+     * 
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Définit la valeur de la propriété page.
+     * 
+     */
+    public void setPage(int value) {
+        this.page = value;
+    }
+
+    /**
+     * Obtient la valeur de la propriété size.
+     * 
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Définit la valeur de la propriété size.
+     * 
+     */
+    public void setSize(int value) {
+        this.size = value;
+    }
+
+    /**
+     * Gets the value of the hit property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the Jakarta XML Binding object.
+     * This is why there is not a <CODE>set</CODE> method for the hit property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getHit().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link ClassesSearchHit }
+     * 
+     * 
+     */
+    public List<ClassesSearchHit> getHit() {
+        if (hit == null) {
+            hit = new ArrayList<ClassesSearchHit>();
+        }
+        return this.hit;
+    }
+
+}
@@ -2,7 +2,7 @@
 // Ce fichier a été généré par Eclipse Implementation of JAXB, v3.0.0 
 // Voir https://eclipse-ee4j.github.io/jaxb-ri 
 // Toute modification apportée à ce fichier sera perdue lors de la recompilation du schéma source. 
-// Généré le : 2025.08.03 à 03:54:49 PM GMT 
+// Généré le : 2026.10.19 à 01:27:48 AM GMT 
 //
 
 @jakarta.xml.bind.annotation.XmlSchema(namespace = "http://examensoap.com/Sectors", elementFormDefault = jakarta.xml.bind.annotation.XmlNsForm.QUALIFIED)
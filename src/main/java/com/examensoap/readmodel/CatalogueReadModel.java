@@ -0,0 +1,224 @@
+package com.examensoap.readmodel;
+
+import com.examensoap.service.event.ChangeOrder;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Modèle de lecture en mémoire du catalogue, activé par {@code examensoap.read-model.enabled}.
+ * <p>
+ * Toutes les filières et classes sont chargées au démarrage dans un {@link CatalogueSnapshot} immuable ;
+ * {@code ClassesService} et {@code SectorsService} y lisent les lectures par ID, les listes et les classes
+ * d'une filière, sans verrou ni requête SQL. Chaque écriture, reçue par les {@link ClassesChangedEvent} et
+ * {@link SectorsChangedEvent} après validation, produit une nouvelle version qui remplace la précédente
+ * d'un seul coup : une lecture voit l'ancienne ou la nouvelle, jamais un état intermédiaire. Les
+ * événements reçus dans le désordre sont remis dans l'ordre de leur séquence par {@link ChangeOrder}.
+ * <p>
+ * Une tâche périodique ({@code examensoap.read-model.reload-interval}) recharge tout depuis le primaire,
+ * ce qui corrige les écritures faites hors de l'application et regroupe à nouveau les chaînes identiques.
+ * La séquence des changements est lue dans la même transaction : les événements reçus pendant le
+ * chargement sont rejoués sur la nouvelle version, sauf ceux qu'elle contient déjà. Tant que rien n'est
+ * chargé, et dans une transaction déjà ouverte (qui doit voir ses propres écritures), {@link #current()}
+ * renvoie {@code null} et les services lisent la base.
+ * <p>
+ * Métriques exposées : {@code readmodel.rows} (tag {@code type} : {@code classes} ou {@code sectors}) et
+ * {@code readmodel.update}, le temps de construction d'une nouvelle version après une écriture.
+ */
+@Component
+public class CatalogueReadModel implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueReadModel.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequence changeSequence;
+    /**
+     * Transaction en lecture-écriture : elle va au primaire, les réplicas pouvant être en retard.
+     * {@code REPEATABLE_READ} : les filières et les classes sont lues dans le même état.
+     */
+    private final TransactionTemplate primaryTransaction;
+    private final boolean enabled;
+    private final Timer updates;
+
+    private volatile CatalogueSnapshot snapshot;
+    // Protégés par le moniteur de l'instance ; replay n'est non nul que pendant un chargement
+    private ChangeOrder order;
+    private List<Object> replay;
+
+    public CatalogueReadModel(DataSource dataSource, ChangeSequence changeSequence,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${examensoap.read-model.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.changeSequence = changeSequence;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+
+        this.updates = Timer.builder("readmodel.update")
+                .description("Construction d'une nouvelle version du modèle de lecture après une écriture")
+                .register(meterRegistry);
+        Gauge.builder("readmodel.rows", this, readModel -> readModel.size(CatalogueSnapshot::classCount))
+                .tag("type", "classes")
+                .description("Lignes présentes dans le modèle de lecture")
+                .register(meterRegistry);
+        Gauge.builder("readmodel.rows", this, readModel -> readModel.size(CatalogueSnapshot::sectorCount))
+                .tag("type", "sectors")
+                .description("Lignes présentes dans le modèle de lecture")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charge le catalogue une fois les beans créés, avant le démarrage du serveur web.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Recharge tout le catalogue depuis la base.
+     */
+    @Scheduled(initialDelayString = "${examensoap.read-model.reload-interval:10m}",
+            fixedDelayString = "${examensoap.read-model.reload-interval:10m}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Loaded loaded;
+        try {
+            loaded = primaryTransaction.execute(status -> load());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            logger.warn("Chargement du modèle de lecture impossible : {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            ChangeOrder loadedOrder = new ChangeOrder(loaded.seq());
+            CatalogueSnapshot result = loaded.snapshot();
+            for (Object event : replay) {
+                result = event instanceof ClassesChangedEvent classes
+                        ? apply(result, loadedOrder, classes)
+                        : apply(result, loadedOrder, (SectorsChangedEvent) event);
+            }
+            if (!replay.isEmpty()) {
+                logger.debug("Modèle de lecture rechargé : {} écriture(s) concurrente(s) rejouée(s)", replay.size());
+            }
+            replay = null;
+            boolean first = snapshot == null;
+            snapshot = result;
+            order = loadedOrder;
+            if (first) {
+                logger.info("Modèle de lecture chargé : {} filières, {} classes en {} ms",
+                        result.sectorCount(), result.classCount(), (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * @return la version courante du catalogue, ou {@code null} si la lecture doit aller à la base :
+     * modèle désactivé ou pas encore chargé, ou transaction déjà ouverte
+     */
+    public CatalogueSnapshot current() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onClassesChanged(ClassesChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        CatalogueSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        snapshot = apply(current, order, event);
+        updates.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSectorsChanged(SectorsChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        CatalogueSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        snapshot = apply(current, order, event);
+        updates.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static CatalogueSnapshot apply(CatalogueSnapshot current, ChangeOrder order, ClassesChangedEvent event) {
+        if (!order.accept(event)) {
+            return current;
+        }
+        return event.deleted()
+                ? current.withoutClass(event.classId())
+                : current.withClass(event.classId(), event.className(), event.description(), event.sectorId());
+    }
+
+    private static CatalogueSnapshot apply(CatalogueSnapshot current, ChangeOrder order, SectorsChangedEvent event) {
+        if (!order.accept(event)) {
+            return current;
+        }
+        return event.deleted()
+                ? current.withoutSector(event.sectorId())
+                : current.withSector(event.sectorId(), event.name());
+    }
+
+    // Appelé dans la transaction de chargement ; les lignes arrivent par ID croissant
+    private Loaded load() {
+        // Lue en premier : les lignes lues ensuite contiennent toutes les écritures jusqu'à elle
+        long seq = changeSequence.current();
+        CatalogueSnapshot.Builder builder = new CatalogueSnapshot.Builder();
+        jdbcTemplate.query("SELECT id, name FROM sectors_entity ORDER BY id",
+                (RowCallbackHandler) row -> builder.addSector(row.getLong(1), row.getString(2)));
+        jdbcTemplate.query("SELECT id, class_name, description, sector_id FROM classes_entity ORDER BY id",
+                (RowCallbackHandler) row -> builder.addClass(row.getLong(1), row.getString(2), row.getString(3),
+                        row.getLong(4)));
+        return new Loaded(builder.build(), seq);
+    }
+
+    private int size(ToIntFunction<CatalogueSnapshot> count) {
+        CatalogueSnapshot current = snapshot;
+        return current == null ? 0 : count.applyAsInt(current);
+    }
+
+    private record Loaded(CatalogueSnapshot snapshot, long seq) {
+    }
+}
@@ -0,0 +1,372 @@
+package com.examensoap.readmodel;
+
+import com.examensoap.model.Classes;
+import com.examensoap.model.Sectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Une version immuable du catalogue, servie par {@link CatalogueReadModel}.
+ * <p>
+ * Les lignes sont rangées en colonnes (tableaux parallèles triés par ID) plutôt qu'en objets :
+ * une {@link LongIntMap} donne la position d'un ID, et chaque filière garde le tableau trié des IDs
+ * de ses classes. Une lecture construit les objets SOAP à la demande, sans verrou.
+ * <p>
+ * Une écriture ne modifie rien : {@code with*}/{@code without*} renvoient une nouvelle version qui
+ * partage avec celle-ci les tableaux qu'elle ne change pas. Une modification copie les colonnes des
+ * classes, une création en fin de table les recopie avec une case de plus ; une suppression ou une
+ * insertion au milieu reconstruit aussi la table des positions.
+ */
+public final class CatalogueSnapshot {
+
+    // Filières, triées par ID ; classIdsBySector[i] : IDs triés des classes de la filière sectorIds[i]
+    private final long[] sectorIds;
+    private final String[] sectorNames;
+    private final long[][] classIdsBySector;
+    private final LongIntMap sectorPositions;
+    // Classes, triées par ID
+    private final long[] classIds;
+    private final String[] classNames;
+    private final String[] descriptions;
+    private final long[] classSectorIds;
+    private final LongIntMap classPositions;
+
+    private CatalogueSnapshot(long[] sectorIds, String[] sectorNames, long[][] classIdsBySector,
+                              LongIntMap sectorPositions, long[] classIds, String[] classNames,
+                              String[] descriptions, long[] classSectorIds, LongIntMap classPositions) {
+        this.sectorIds = sectorIds;
+        this.sectorNames = sectorNames;
+        this.classIdsBySector = classIdsBySector;
+        this.sectorPositions = sectorPositions;
+        this.classIds = classIds;
+        this.classNames = classNames;
+        this.descriptions = descriptions;
+        this.classSectorIds = classSectorIds;
+        this.classPositions = classPositions;
+    }
+
+    public Optional<Classes> classById(long id) {
+        int position = classPositions.get(id);
+        return position < 0 ? Optional.empty() : Optional.of(toClasses(position));
+    }
+
+    /**
+     * @return toutes les classes, par ID croissant
+     */
+    public List<Classes> allClasses() {
+        List<Classes> classes = new ArrayList<>(classIds.length);
+        for (int position = 0; position < classIds.length; position++) {
+            classes.add(toClasses(position));
+        }
+        return classes;
+    }
+
+    /**
+     * @return les classes de la filière, par ID croissant ; aucune si elle n'existe pas
+     */
+    public List<Classes> classesBySector(long sectorId) {
+        int sectorPosition = sectorPositions.get(sectorId);
+        if (sectorPosition < 0) {
+            return List.of();
+        }
+        long[] ids = classIdsBySector[sectorPosition];
+        List<Classes> classes = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            classes.add(toClasses(classPositions.get(id)));
+        }
+        return classes;
+    }
+
+    public Optional<Sectors> sectorById(long id) {
+        int position = sectorPositions.get(id);
+        return position < 0 ? Optional.empty() : Optional.of(toSectors(position));
+    }
+
+    /**
+     * @return toutes les filières, par ID croissant
+     */
+    public List<Sectors> allSectors() {
+        List<Sectors> sectors = new ArrayList<>(sectorIds.length);
+        for (int position = 0; position < sectorIds.length; position++) {
+            sectors.add(toSectors(position));
+        }
+        return sectors;
+    }
+
+    public int classCount() {
+        return classIds.length;
+    }
+
+    public int sectorCount() {
+        return sectorIds.length;
+    }
+
+    /**
+     * @return une version où la classe est créée ou remplacée
+     */
+    CatalogueSnapshot withClass(long id, String className, String description, long sectorId) {
+        int position = classPositions.get(id);
+        boolean created = position < 0;
+        long[] ids = classIds;
+        LongIntMap positions = classPositions;
+        String[] names;
+        String[] descs;
+        long[] sectors;
+        if (created) {
+            position = -(Arrays.binarySearch(classIds, id) + 1);
+            ids = insert(classIds, position, id);
+            names = insert(classNames, position, className);
+            descs = insert(descriptions, position, description);
+            sectors = insert(classSectorIds, position, sectorId);
+            // Les IDs étant croissants, une création arrive en fin de table : aucune position ne change
+            positions = position == classIds.length
+                    ? classPositions.with(id, position) : LongIntMap.indexOf(ids, ids.length);
+        } else {
+            names = classNames.clone();
+            descs = descriptions.clone();
+            sectors = classSectorIds.clone();
+        }
+        long previousSectorId = created ? 0 : classSectorIds[position];
+        names[position] = className;
+        descs[position] = description;
+        sectors[position] = sectorId;
+
+        long[][] bySector = classIdsBySector;
+        if (created || previousSectorId != sectorId) {
+            bySector = classIdsBySector.clone();
+            if (!created) {
+                removeFromSector(bySector, previousSectorId, id);
+            }
+            addToSector(bySector, sectorId, id);
+        }
+        return new CatalogueSnapshot(sectorIds, sectorNames, bySector, sectorPositions,
+                ids, names, descs, sectors, positions);
+    }
+
+    /**
+     * @return une version sans la classe
+     */
+    CatalogueSnapshot withoutClass(long id) {
+        int position = classPositions.get(id);
+        if (position < 0) {
+            return this;
+        }
+        long[] ids = remove(classIds, position);
+        long[][] bySector = classIdsBySector.clone();
+        removeFromSector(bySector, classSectorIds[position], id);
+        return new CatalogueSnapshot(sectorIds, sectorNames, bySector, sectorPositions,
+                ids, remove(classNames, position), remove(descriptions, position),
+                remove(classSectorIds, position), LongIntMap.indexOf(ids, ids.length));
+    }
+
+    /**
+     * @return une version où la filière est créée ou renommée
+     */
+    CatalogueSnapshot withSector(long id, String name) {
+        int position = sectorPositions.get(id);
+        if (position >= 0) {
+            String[] names = sectorNames.clone();
+            names[position] = name;
+            return new CatalogueSnapshot(sectorIds, names, classIdsBySector, sectorPositions,
+                    classIds, classNames, descriptions, classSectorIds, classPositions);
+        }
+        position = -(Arrays.binarySearch(sectorIds, id) + 1);
+        long[] ids = insert(sectorIds, position, id);
+        // Normalement vide : une classe ne peut référencer la filière qu'après sa création
+        long[] sectorClassIds = IntStream.range(0, classIds.length)
+                .filter(i -> classSectorIds[i] == id)
+                .mapToLong(i -> classIds[i])
+                .toArray();
+        long[][] bySector = new long[classIdsBySector.length + 1][];
+        System.arraycopy(classIdsBySector, 0, bySector, 0, position);
+        bySector[position] = sectorClassIds;
+        System.arraycopy(classIdsBySector, position, bySector, position + 1, classIdsBySector.length - position);
+        return new CatalogueSnapshot(ids, insert(sectorNames, position, name), bySector,
+                LongIntMap.indexOf(ids, ids.length),
+                classIds, classNames, descriptions, classSectorIds, classPositions);
+    }
+
+    /**
+     * @return une version sans la filière ni ses classes (supprimées en cascade)
+     */
+    CatalogueSnapshot withoutSector(long id) {
+        int position = sectorPositions.get(id);
+        if (position < 0) {
+            return this;
+        }
+        long[] ids = remove(sectorIds, position);
+        long[][] bySector = new long[classIdsBySector.length - 1][];
+        System.arraycopy(classIdsBySector, 0, bySector, 0, position);
+        System.arraycopy(classIdsBySector, position + 1, bySector, position, bySector.length - position);
+
+        int kept = (int) Arrays.stream(classSectorIds).filter(sectorId -> sectorId != id).count();
+        long[] keptIds = new long[kept];
+        String[] keptNames = new String[kept];
+        String[] keptDescriptions = new String[kept];
+        long[] keptSectorIds = new long[kept];
+        int next = 0;
+        for (int i = 0; i < classIds.length; i++) {
+            if (classSectorIds[i] != id) {
+                keptIds[next] = classIds[i];
+                keptNames[next] = classNames[i];
+                keptDescriptions[next] = descriptions[i];
+                keptSectorIds[next] = classSectorIds[i];
+                next++;
+            }
+        }
+        return new CatalogueSnapshot(ids, remove(sectorNames, position), bySector, LongIntMap.indexOf(ids, ids.length),
+                keptIds, keptNames, keptDescriptions, keptSectorIds, LongIntMap.indexOf(keptIds, kept));
+    }
+
+    private Classes toClasses(int position) {
+        Classes classe = new Classes();
+        classe.setId(classIds[position]);
+        classe.setClassName(classNames[position]);
+        classe.setDescription(descriptions[position]);
+        classe.setSectors(classSectorIds[position]);
+        return classe;
+    }
+
+    private Sectors toSectors(int position) {
+        Sectors sector = new Sectors();
+        sector.setId(sectorIds[position]);
+        sector.setName(sectorNames[position]);
+        return sector;
+    }
+
+    // bySector est une copie propre à la nouvelle version ; seul le tableau de la filière est remplacé
+    private void addToSector(long[][] bySector, long sectorId, long classId) {
+        int sectorPosition = sectorPositions.get(sectorId);
+        if (sectorPosition < 0) {
+            return;
+        }
+        int index = Arrays.binarySearch(bySector[sectorPosition], classId);
+        if (index < 0) {
+            bySector[sectorPosition] = insert(bySector[sectorPosition], -(index + 1), classId);
+        }
+    }
+
+    private void removeFromSector(long[][] bySector, long sectorId, long classId) {
+        int sectorPosition = sectorPositions.get(sectorId);
+        if (sectorPosition < 0) {
+            return;
+        }
+        int index = Arrays.binarySearch(bySector[sectorPosition], classId);
+        if (index >= 0) {
+            bySector[sectorPosition] = remove(bySector[sectorPosition], index);
+        }
+    }
+
+    private static long[] insert(long[] array, int index, long value) {
+        long[] copy = new long[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static String[] insert(String[] array, int index, String value) {
+        String[] copy = new String[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static long[] remove(long[] array, int index) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    private static String[] remove(String[] array, int index) {
+        String[] copy = new String[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    /**
+     * Construit une version complète à partir des lignes lues en base, dans l'ordre croissant des ID.
+     * Les chaînes identiques (noms, descriptions répétées) ne sont gardées qu'une fois.
+     */
+    static final class Builder {
+
+        private final Map<String, String> strings = new HashMap<>();
+        private long[] sectorIds = new long[16];
+        private String[] sectorNames = new String[16];
+        private int sectorCount;
+        private long[] classIds = new long[1024];
+        private String[] classNames = new String[1024];
+        private String[] descriptions = new String[1024];
+        private long[] classSectorIds = new long[1024];
+        private int classCount;
+
+        void addSector(long id, String name) {
+            if (sectorCount == sectorIds.length) {
+                sectorIds = Arrays.copyOf(sectorIds, sectorCount * 2);
+                sectorNames = Arrays.copyOf(sectorNames, sectorCount * 2);
+            }
+            sectorIds[sectorCount] = id;
+            sectorNames[sectorCount] = deduplicate(name);
+            sectorCount++;
+        }
+
+        void addClass(long id, String className, String description, long sectorId) {
+            if (classCount == classIds.length) {
+                int capacity = classCount + (classCount >> 1);
+                classIds = Arrays.copyOf(classIds, capacity);
+                classNames = Arrays.copyOf(classNames, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                classSectorIds = Arrays.copyOf(classSectorIds, capacity);
+            }
+            classIds[classCount] = id;
+            classNames[classCount] = deduplicate(className);
+            descriptions[classCount] = deduplicate(description);
+            classSectorIds[classCount] = sectorId;
+            classCount++;
+        }
+
+        CatalogueSnapshot build() {
+            long[] ids = Arrays.copyOf(sectorIds, sectorCount);
+            LongIntMap sectorPositions = LongIntMap.indexOf(ids, sectorCount);
+
+            // Deux passes : taille du tableau de chaque filière, puis remplissage dans l'ordre des classes
+            int[] sizes = new int[sectorCount];
+            for (int i = 0; i < classCount; i++) {
+                int sectorPosition = sectorPositions.get(classSectorIds[i]);
+                if (sectorPosition >= 0) {
+                    sizes[sectorPosition]++;
+                }
+            }
+            long[][] bySector = new long[sectorCount][];
+            for (int s = 0; s < sectorCount; s++) {
+                bySector[s] = new long[sizes[s]];
+                sizes[s] = 0;
+            }
+            for (int i = 0; i < classCount; i++) {
+                int sectorPosition = sectorPositions.get(classSectorIds[i]);
+                if (sectorPosition >= 0) {
+                    bySector[sectorPosition][sizes[sectorPosition]++] = classIds[i];
+                }
+            }
+
+            return new CatalogueSnapshot(ids, Arrays.copyOf(sectorNames, sectorCount), bySector, sectorPositions,
+                    Arrays.copyOf(classIds, classCount), Arrays.copyOf(classNames, classCount),
+                    Arrays.copyOf(descriptions, classCount), Arrays.copyOf(classSectorIds, classCount),
+                    LongIntMap.indexOf(classIds, classCount));
+        }
+
+        private String deduplicate(String value) {
+            return value == null ? null : strings.computeIfAbsent(value, Function.identity());
+        }
+    }
+}
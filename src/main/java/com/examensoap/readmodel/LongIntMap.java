@@ -0,0 +1,95 @@
+package com.examensoap.readmodel;
+
+/**
+ * Table de hachage immuable {@code long → int} à adressage ouvert (sondage linéaire), sans objets
+ * {@link Long} ni entrées : deux tableaux primitifs de capacité au moins double du nombre de clés.
+ * <p>
+ * Les valeurs sont stockées décalées de un : un {@code 0} dans {@code values} marque une case vide,
+ * ce qui laisse toutes les clés utilisables. Les valeurs doivent être positives ou nulles.
+ */
+final class LongIntMap {
+
+    private final long[] keys;
+    private final int[] values;
+    private final int size;
+
+    private LongIntMap(long[] keys, int[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @param keys  des clés distinctes
+     * @param count le nombre de clés à prendre au début de {@code keys}
+     * @return la table qui associe {@code keys[i]} à {@code i}
+     */
+    static LongIntMap indexOf(long[] keys, int count) {
+        int capacity = capacityFor(count);
+        LongIntMap map = new LongIntMap(new long[capacity], new int[capacity], count);
+        for (int i = 0; i < count; i++) {
+            map.store(keys[i], i);
+        }
+        return map;
+    }
+
+    /**
+     * @return la position associée à {@code key}, ou {@code -1}
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return une copie de la table où {@code key} est associée à {@code value}
+     */
+    LongIntMap with(long key, int value) {
+        boolean added = get(key) < 0;
+        int newSize = added ? size + 1 : size;
+        LongIntMap copy;
+        if (capacityFor(newSize) > keys.length) {
+            copy = new LongIntMap(new long[capacityFor(newSize)], new int[capacityFor(newSize)], newSize);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (values[slot] != 0) {
+                    copy.store(keys[slot], values[slot] - 1);
+                }
+            }
+        } else {
+            copy = new LongIntMap(keys.clone(), values.clone(), newSize);
+        }
+        copy.store(key, value);
+        return copy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Uniquement pendant la construction d'une nouvelle table
+    private void store(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+    }
+
+    private static int slot(long key, int mask) {
+        // Mélange des bits : des clés espacées d'un multiple de la capacité ne tombent pas dans la même case
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Puissance de deux, taux de remplissage au plus 1/2
+    private static int capacityFor(int count) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+}
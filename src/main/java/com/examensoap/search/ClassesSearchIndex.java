@@ -0,0 +1,389 @@
+package com.examensoap.search;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.mapper.ClassesSoapMapper;
+import com.examensoap.model.Classes;
+import com.examensoap.model.ClassesSearchHit;
+import com.examensoap.service.event.ChangeOrder;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Index inversé en mémoire sur le nom et la description des classes, pour {@code searchClassesRequest}.
+ * <p>
+ * Chaque terme ({@link SearchTokenizer}) pointe vers les classes qui le contiennent et son nombre
+ * d'occurrences dans chacune ; un terme du nom compte {@value #CLASS_NAME_WEIGHT} fois. Une recherche
+ * ne garde que les classes qui contiennent tous les termes demandés : elle parcourt la liste du terme
+ * le plus rare et vérifie les autres termes par accès direct. Son coût dépend donc du nombre de classes
+ * qui contiennent ce terme, pas du nombre de lignes de la table, et elle ne fait aucune requête SQL.
+ * <p>
+ * Les classes trouvées sont classées par BM25 ; à score égal, par ID croissant, pour que les pages
+ * restent stables d'un appel à l'autre.
+ * <p>
+ * L'index est construit au démarrage, avant l'ouverture du port HTTP, puis tenu à jour par les
+ * {@link ClassesChangedEvent} et {@link SectorsChangedEvent} publiés par les services, après validation
+ * de leur transaction. Les écouteurs s'exécutent dans n'importe quel ordre : {@link ChangeOrder} écarte
+ * les événements déjà contenus dans la table lue et ceux qu'un plus récent a dépassés.
+ * <p>
+ * Ces événements ne viennent que de cette instance : toutes les
+ * {@code examensoap.search.rebuild-interval}, l'index est reconstruit depuis la table, hors verrou, pour
+ * prendre les écritures des autres instances ou faites hors de l'application. Les événements reçus
+ * pendant la lecture sont rejoués sur le nouvel index, qui remplace l'ancien avec un nouveau
+ * {@link ChangeOrder} : celui-ci ne retient que les lignes écrites depuis la dernière reconstruction.
+ * <p>
+ * Métriques exposées : {@code search.classes.documents} et {@code search.classes.terms}.
+ */
+@Component
+public class ClassesSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassesSearchIndex.class);
+
+    static final int CLASS_NAME_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ClassesRepository classesRepository;
+    private final ClassesSoapMapper classesSoapMapper;
+    private final ChangeSequence changeSequence;
+    /**
+     * {@code REPEATABLE_READ} : la séquence et les classes sont lues dans le même état.
+     */
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Protégés par lock ; order est null tant que l'index n'est pas construit, replay n'est non nul que
+    // pendant une reconstruction
+    private Index index = new Index();
+    private ChangeOrder order;
+    private List<Object> replay;
+
+    public ClassesSearchIndex(ClassesRepository classesRepository, ClassesSoapMapper classesSoapMapper,
+                              ChangeSequence changeSequence, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.classesRepository = classesRepository;
+        this.classesSoapMapper = classesSoapMapper;
+        this.changeSequence = changeSequence;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        Gauge.builder("search.classes.documents", this, search -> search.read(() -> search.index.documents.size()))
+                .description("Classes présentes dans l'index de recherche")
+                .register(meterRegistry);
+        Gauge.builder("search.classes.terms", this, search -> search.read(() -> search.index.postings.size()))
+                .description("Termes distincts de l'index de recherche")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construit l'index à partir de la table, une fois les beans créés et avant le démarrage du serveur web.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruit tout l'index depuis la table et remplace l'index courant.
+     */
+    @Scheduled(initialDelayString = "${examensoap.search.rebuild-interval:10m}",
+            fixedDelayString = "${examensoap.search.rebuild-interval:10m}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        writeLocked(() -> replay = new ArrayList<>());
+        Index fresh = new Index();
+        long seq;
+        try {
+            seq = readOnlyTransaction.execute(status -> {
+                // Lue en premier : les classes lues ensuite contiennent toutes les écritures jusqu'à elle
+                long loadedSeq = changeSequence.current();
+                for (Classes classe : classesSoapMapper.toSoapClasses(classesRepository.findAll())) {
+                    fresh.add(classe.getId(), classe.getClassName(), classe.getDescription(), classe.getSectors());
+                }
+                return loadedSeq;
+            });
+        } catch (RuntimeException e) {
+            writeLocked(() -> replay = null);
+            logger.warn("Reconstruction de l'index de recherche des classes impossible : {}", e.getMessage());
+            return;
+        }
+
+        boolean first;
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            ChangeOrder freshOrder = new ChangeOrder(seq);
+            for (Object event : replay) {
+                if (event instanceof ClassesChangedEvent classes) {
+                    apply(fresh, freshOrder, classes);
+                } else {
+                    apply(fresh, freshOrder, (SectorsChangedEvent) event);
+                }
+            }
+            replayed = replay.size();
+            replay = null;
+            first = order == null;
+            index = fresh;
+            order = freshOrder;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (first) {
+            logger.info("Index de recherche des classes construit : {} classes, {} termes en {} ms",
+                    fresh.documents.size(), fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            logger.debug("Index de recherche des classes reconstruit : {} classes, {} écriture(s) concurrente(s) rejouée(s)",
+                    fresh.documents.size(), replayed);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassesChanged(ClassesChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(event);
+            }
+            if (order != null) {
+                apply(index, order, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectorsChanged(SectorsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(event);
+            }
+            if (order != null) {
+                apply(index, order, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Index index, ChangeOrder order, ClassesChangedEvent event) {
+        if (!order.accept(event)) {
+            return;
+        }
+        index.remove(event.classId());
+        if (!event.deleted()) {
+            index.add(event.classId(), event.className(), event.description(), event.sectorId());
+        }
+    }
+
+    private static void apply(Index index, ChangeOrder order, SectorsChangedEvent event) {
+        // Tous les événements sont enregistrés, mais seule la suppression d'une filière (et de ses classes)
+        // modifie l'index
+        if (order.accept(event) && event.deleted()) {
+            index.removeSector(event.sectorId());
+        }
+    }
+
+    /**
+     * Recherche les classes qui contiennent tous les termes de la requête.
+     *
+     * @param query les mots recherchés
+     * @param page  le numéro de page, à partir de 0
+     * @param size  le nombre de classes par page
+     * @return le nombre total de classes trouvées et celles de la page demandée, les plus pertinentes d'abord
+     */
+    public Page search(String query, int page, int size) {
+        List<String> terms = SearchTokenizer.tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return new Page(0, List.of());
+        }
+        // Assez de résultats pour remplir la page demandée ; le plafond évite un débordement sur les pages lointaines
+        int wanted = (int) Math.min((long) page * size + size, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> list = index.postings.get(term);
+                if (list == null) {
+                    return new Page(0, List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            int count = index.documents.size();
+            double averageLength = (double) index.totalLength / count;
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < idf.length; i++) {
+                int frequency = lists.get(i).size();
+                idf[i] = Math.log(1 + (count - frequency + 0.5) / (frequency + 0.5));
+            }
+
+            // Tas des meilleurs résultats, le moins bon en tête
+            PriorityQueue<Scored> best = new PriorityQueue<>(Math.min(wanted, lists.get(0).size()), Scored.RANKING.reversed());
+            long total = 0;
+            candidates:
+            for (Map.Entry<Long, Integer> candidate : lists.get(0).entrySet()) {
+                Long classId = candidate.getKey();
+                double lengthNorm = K1 * (1 - B + B * index.documents.get(classId).length() / averageLength);
+                double score = idf[0] * bm25(candidate.getValue(), lengthNorm);
+                for (int i = 1; i < lists.size(); i++) {
+                    Integer frequency = lists.get(i).get(classId);
+                    if (frequency == null) {
+                        continue candidates;
+                    }
+                    score += idf[i] * bm25(frequency, lengthNorm);
+                }
+                total++;
+                Scored scored = new Scored(classId, score);
+                if (best.size() < wanted) {
+                    best.add(scored);
+                } else if (Scored.RANKING.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(best);
+            ranked.sort(Scored.RANKING);
+            List<ClassesSearchHit> hits = new ArrayList<>();
+            for (int i = (int) Math.min((long) page * size, ranked.size()); i < ranked.size(); i++) {
+                hits.add(index.documents.get(ranked.get(i).classId()).toHit(ranked.get(i).score()));
+            }
+            return new Page(total, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double bm25(int frequency, double lengthNorm) {
+        return frequency * (K1 + 1) / (frequency + lengthNorm);
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void writeLocked(Runnable writer) {
+        lock.writeLock().lock();
+        try {
+            writer.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Une page de résultats.
+     *
+     * @param total le nombre de classes trouvées, toutes pages confondues
+     * @param hits  les classes de la page, les plus pertinentes d'abord
+     */
+    public record Page(long total, List<ClassesSearchHit> hits) {
+    }
+
+    /**
+     * Les listes de l'index. Celui en service est modifié sous le verrou en écriture ; une reconstruction
+     * remplit le sien sans verrou, tant qu'il n'est pas publié.
+     */
+    private static final class Index {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Set<Long>> classesBySector = new HashMap<>();
+        private long totalLength;
+
+        void add(Long classId, String className, String description, Long sectorId) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            SearchTokenizer.tokenize(className).forEach(term -> frequencies.merge(term, CLASS_NAME_WEIGHT, Integer::sum));
+            SearchTokenizer.tokenize(description).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            documents.put(classId, new Document(classId, className, description, sectorId, frequencies.keySet(), length));
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(classId, frequency));
+            classesBySector.computeIfAbsent(sectorId, s -> new HashSet<>()).add(classId);
+            totalLength += length;
+        }
+
+        void remove(Long classId) {
+            Document document = documents.remove(classId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Map<Long, Integer> list = postings.get(term);
+                list.remove(classId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            Set<Long> sectorClasses = classesBySector.get(document.sectorId());
+            sectorClasses.remove(classId);
+            if (sectorClasses.isEmpty()) {
+                classesBySector.remove(document.sectorId());
+            }
+            totalLength -= document.length();
+        }
+
+        void removeSector(Long sectorId) {
+            Set<Long> classIds = classesBySector.get(sectorId);
+            if (classIds != null) {
+                new ArrayList<>(classIds).forEach(this::remove);
+            }
+        }
+    }
+
+    private record Document(Long classId, String className, String description, Long sectorId,
+                            Set<String> terms, int length) {
+
+        // Les objets JAXB sont modifiables : chaque réponse reçoit les siens
+        ClassesSearchHit toHit(double score) {
+            Classes classes = new Classes();
+            classes.setId(classId);
+            classes.setClassName(className);
+            classes.setDescription(description);
+            classes.setSectors(sectorId);
+            ClassesSearchHit hit = new ClassesSearchHit();
+            hit.setClasses(classes);
+            hit.setScore(Math.round(score * 10_000) / 10_000.0);
+            return hit;
+        }
+    }
+
+    private record Scored(Long classId, double score) {
+
+        static final Comparator<Scored> RANKING = Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(Scored::classId);
+    }
+}
@@ -0,0 +1,171 @@
+package com.examensoap.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Noms triés pour les suggestions par préfixe, dans deux tableaux immuables.
+ * <ul>
+ *     <li>{@code starts} : le nom entier normalisé ({@code "Génie Logiciel"} → {@code "genie logiciel"}) ;</li>
+ *     <li>{@code words} : le nom à partir de chacun des mots suivants ({@code "logiciel"}).</li>
+ * </ul>
+ * Un préfixe est cherché par dichotomie puis les noms sont lus dans l'ordre jusqu'à la limite : le coût
+ * est logarithmique en nombre de noms et linéaire en nombre de suggestions. Une écriture renvoie une
+ * nouvelle instance (copie des tableaux) ; les lectures n'ont donc besoin d'aucun verrou.
+ */
+final class NamePrefixIndex {
+
+    static final NamePrefixIndex EMPTY = new NamePrefixIndex(new Key[0], new Key[0]);
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::key)
+            .thenComparing(key -> key.name().id());
+
+    private final Key[] starts;
+    private final Key[] words;
+
+    private NamePrefixIndex(Key[] starts, Key[] words) {
+        this.starts = starts;
+        this.words = words;
+    }
+
+    static NamePrefixIndex of(Collection<Name> names) {
+        List<Key> starts = new ArrayList<>(names.size());
+        List<Key> words = new ArrayList<>();
+        names.forEach(name -> keys(name, starts, words));
+        Key[] sortedStarts = starts.toArray(Key[]::new);
+        Key[] sortedWords = words.toArray(Key[]::new);
+        Arrays.sort(sortedStarts, ORDER);
+        Arrays.sort(sortedWords, ORDER);
+        return new NamePrefixIndex(sortedStarts, sortedWords);
+    }
+
+    NamePrefixIndex plus(Name name) {
+        List<Key> addedStarts = new ArrayList<>(1);
+        List<Key> addedWords = new ArrayList<>();
+        keys(name, addedStarts, addedWords);
+        return new NamePrefixIndex(insert(starts, addedStarts), insert(words, addedWords));
+    }
+
+    /**
+     * @param name le nom tel qu'il a été ajouté (mêmes ID, nom et filière)
+     */
+    NamePrefixIndex minus(Name name) {
+        List<Key> removedStarts = new ArrayList<>(1);
+        List<Key> removedWords = new ArrayList<>();
+        keys(name, removedStarts, removedWords);
+        return new NamePrefixIndex(remove(starts, removedStarts), remove(words, removedWords));
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * @return les noms qui commencent par le préfixe, puis ceux dont un mot commence par lui, sans doublon
+     */
+    List<Name> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Map<Long, Name> found = new LinkedHashMap<>();
+        collect(starts, key, limit, found);
+        collect(words, key, limit, found);
+        return List.copyOf(found.values());
+    }
+
+    private static void collect(Key[] keys, String prefix, int limit, Map<Long, Name> found) {
+        for (int i = lowerBound(keys, prefix); i < keys.length && found.size() < limit; i++) {
+            if (!keys[i].key().startsWith(prefix)) {
+                return;
+            }
+            found.putIfAbsent(keys[i].name().id(), keys[i].name());
+        }
+    }
+
+    private static int lowerBound(Key[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].key().compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Key[] insert(Key[] keys, List<Key> added) {
+        Key[] result = keys;
+        for (Key key : added) {
+            int position = Arrays.binarySearch(result, key, ORDER);
+            if (position >= 0) {
+                continue;
+            }
+            position = -position - 1;
+            Key[] copy = new Key[result.length + 1];
+            System.arraycopy(result, 0, copy, 0, position);
+            copy[position] = key;
+            System.arraycopy(result, position, copy, position + 1, result.length - position);
+            result = copy;
+        }
+        return result;
+    }
+
+    private static Key[] remove(Key[] keys, List<Key> removed) {
+        Key[] result = keys;
+        for (Key key : removed) {
+            int position = Arrays.binarySearch(result, key, ORDER);
+            if (position < 0) {
+                continue;
+            }
+            Key[] copy = new Key[result.length - 1];
+            System.arraycopy(result, 0, copy, 0, position);
+            System.arraycopy(result, position + 1, copy, position, result.length - position - 1);
+            result = copy;
+        }
+        return result;
+    }
+
+    private static void keys(Name name, List<Key> starts, List<Key> words) {
+        String normalized = normalize(name.name());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        starts.add(new Key(normalized, name));
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            words.add(new Key(normalized.substring(i + 1), name));
+        }
+    }
+
+    // Minuscules, sans accents, mots séparés par un seul espace
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return String.join(" ", SEPARATORS.split(SearchTokenizer.fold(text).strip())).strip();
+    }
+
+    /**
+     * Un nom suggéré.
+     *
+     * @param id       l'ID de la classe ou de la filière
+     * @param name     son nom
+     * @param sectorId la filière de la classe ({@code null} pour une filière)
+     */
+    record Name(Long id, String name, Long sectorId) {
+    }
+
+    private record Key(String key, Name name) {
+    }
+}
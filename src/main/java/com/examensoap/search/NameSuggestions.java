@@ -0,0 +1,270 @@
+package com.examensoap.search;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.model.ClassesSuggestion;
+import com.examensoap.model.Sectors;
+import com.examensoap.service.event.ChangeOrder;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Suggestions de noms de classes et de filières pendant la saisie ({@code suggestClassesRequest},
+ * {@code suggestSectorsRequest}).
+ * <p>
+ * Les noms sont gardés dans des {@link NamePrefixIndex} : un pour les filières, un pour toutes les classes
+ * et un par filière pour les suggestions limitées à une filière. Une suggestion lit l'index courant
+ * sans verrou ni requête SQL ; une écriture le remplace par une copie modifiée.
+ * <p>
+ * Comme {@link ClassesSearchIndex}, les noms sont chargés au démarrage puis tenus à jour par les
+ * {@link ClassesChangedEvent} et {@link SectorsChangedEvent}, appliqués dans l'ordre de leur séquence
+ * par {@link ChangeOrder}, et rechargés toutes les {@code examensoap.suggest.reload-interval} pour prendre
+ * les écritures des autres instances ou faites hors de l'application. Le rechargement lit les tables
+ * hors du moniteur ; les événements reçus pendant la lecture sont rejoués sur les noms lus, installés
+ * avec un nouveau {@link ChangeOrder}.
+ * <p>
+ * Métrique exposée (tag {@code type} : {@code classes} ou {@code sectors}) : {@code suggest.names}.
+ */
+@Component
+public class NameSuggestions implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameSuggestions.class);
+
+    private final ClassesRepository classesRepository;
+    private final SectorsRepository sectorsRepository;
+    private final ChangeSequence changeSequence;
+    /**
+     * {@code REPEATABLE_READ} : la séquence, les filières et les classes sont lues dans le même état.
+     */
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile NamePrefixIndex sectors = NamePrefixIndex.EMPTY;
+    private volatile NamePrefixIndex classes = NamePrefixIndex.EMPTY;
+    private final ConcurrentMap<Long, NamePrefixIndex> classesBySector = new ConcurrentHashMap<>();
+    // Noms indexés, pour retrouver les clés à retirer ; modifiés uniquement sous le moniteur de l'instance
+    private final Map<Long, NamePrefixIndex.Name> classNames = new HashMap<>();
+    private final Map<Long, NamePrefixIndex.Name> sectorNames = new HashMap<>();
+    // Protégés par le moniteur de l'instance ; order est null tant que les noms ne sont pas chargés, replay
+    // n'est non nul que pendant un rechargement
+    private ChangeOrder order;
+    private List<Object> replay;
+
+    public NameSuggestions(ClassesRepository classesRepository, SectorsRepository sectorsRepository,
+                           ChangeSequence changeSequence, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.classesRepository = classesRepository;
+        this.sectorsRepository = sectorsRepository;
+        this.changeSequence = changeSequence;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        Gauge.builder("suggest.names", this, suggestions -> suggestions.classes.size())
+                .tag("type", "classes")
+                .description("Noms présents dans l'index des suggestions")
+                .register(meterRegistry);
+        Gauge.builder("suggest.names", this, suggestions -> suggestions.sectors.size())
+                .tag("type", "sectors")
+                .description("Noms présents dans l'index des suggestions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charge les noms, une fois les beans créés et avant le démarrage du serveur web.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Recharge tous les noms depuis les tables et remplace les index courants.
+     */
+    @Scheduled(initialDelayString = "${examensoap.suggest.reload-interval:10m}",
+            fixedDelayString = "${examensoap.suggest.reload-interval:10m}")
+    public void reload() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Map<Long, NamePrefixIndex.Name> loadedSectors = new HashMap<>();
+        Map<Long, NamePrefixIndex.Name> loadedClasses = new HashMap<>();
+        long seq;
+        try {
+            seq = readOnlyTransaction.execute(status -> {
+                // Lue en premier : les noms lus ensuite contiennent toutes les écritures jusqu'à elle
+                long loadedSeq = changeSequence.current();
+                sectorsRepository.findAll().forEach(sector -> loadedSectors.put(sector.getId(),
+                        new NamePrefixIndex.Name(sector.getId(), sector.getName(), null)));
+                // L'ID de la filière est lu sur le proxy Hibernate sans la charger
+                classesRepository.findAll().forEach(classe -> loadedClasses.put(classe.getId(),
+                        new NamePrefixIndex.Name(classe.getId(), classe.getClassName(), classe.getSectors().getId())));
+                return loadedSeq;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            logger.warn("Rechargement de l'index des suggestions impossible : {}", e.getMessage());
+            return;
+        }
+
+        boolean first;
+        synchronized (this) {
+            ChangeOrder freshOrder = new ChangeOrder(seq);
+            for (Object event : replay) {
+                if (event instanceof ClassesChangedEvent classe) {
+                    if (freshOrder.accept(classe)) {
+                        loadedClasses.remove(classe.classId());
+                        if (!classe.deleted()) {
+                            loadedClasses.put(classe.classId(),
+                                    new NamePrefixIndex.Name(classe.classId(), classe.className(), classe.sectorId()));
+                        }
+                    }
+                } else if (freshOrder.accept((SectorsChangedEvent) event)) {
+                    SectorsChangedEvent sector = (SectorsChangedEvent) event;
+                    loadedSectors.remove(sector.sectorId());
+                    if (sector.deleted()) {
+                        loadedClasses.values().removeIf(name -> name.sectorId().equals(sector.sectorId()));
+                    } else {
+                        loadedSectors.put(sector.sectorId(), new NamePrefixIndex.Name(sector.sectorId(), sector.name(), null));
+                    }
+                }
+            }
+            replay = null;
+            first = order == null;
+
+            sectorNames.clear();
+            sectorNames.putAll(loadedSectors);
+            classNames.clear();
+            classNames.putAll(loadedClasses);
+            sectors = NamePrefixIndex.of(sectorNames.values());
+            classes = NamePrefixIndex.of(classNames.values());
+            Map<Long, NamePrefixIndex> bySector = new HashMap<>();
+            classNames.values().stream()
+                    .collect(Collectors.groupingBy(NamePrefixIndex.Name::sectorId))
+                    .forEach((sectorId, names) -> bySector.put(sectorId, NamePrefixIndex.of(names)));
+            // Remplacées une à une : une suggestion ne voit jamais une filière vide le temps du rechargement
+            classesBySector.keySet().retainAll(bySector.keySet());
+            classesBySector.putAll(bySector);
+            order = freshOrder;
+        }
+        if (first) {
+            logger.info("Index des suggestions construit : {} filières, {} classes en {} ms",
+                    loadedSectors.size(), loadedClasses.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            logger.debug("Index des suggestions rechargé : {} filières, {} classes",
+                    loadedSectors.size(), loadedClasses.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onClassesChanged(ClassesChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        if (order == null || !order.accept(event)) {
+            return;
+        }
+        removeClass(event.classId());
+        if (!event.deleted()) {
+            NamePrefixIndex.Name name = new NamePrefixIndex.Name(event.classId(), event.className(), event.sectorId());
+            classNames.put(name.id(), name);
+            classes = classes.plus(name);
+            classesBySector.compute(name.sectorId(), (sectorId, current) ->
+                    (current != null ? current : NamePrefixIndex.EMPTY).plus(name));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSectorsChanged(SectorsChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        if (order == null || !order.accept(event)) {
+            return;
+        }
+        NamePrefixIndex.Name previous = sectorNames.remove(event.sectorId());
+        if (previous != null) {
+            sectors = sectors.minus(previous);
+        }
+        if (!event.deleted()) {
+            NamePrefixIndex.Name name = new NamePrefixIndex.Name(event.sectorId(), event.name(), null);
+            sectorNames.put(name.id(), name);
+            sectors = sectors.plus(name);
+            return;
+        }
+        // Les classes de la filière ont été supprimées avec elle : un seul index reconstruit, au lieu d'une
+        // copie de tout le tableau par classe retirée
+        if (classNames.values().removeIf(name -> name.sectorId().equals(event.sectorId()))) {
+            classes = NamePrefixIndex.of(classNames.values());
+        }
+        classesBySector.remove(event.sectorId());
+    }
+
+    /**
+     * @param prefix   le début du nom de la classe ou d'un de ses mots
+     * @param sectorId la filière des classes suggérées ; {@code null} pour toutes les filières
+     * @param limit    le nombre maximal de suggestions
+     */
+    public List<ClassesSuggestion> suggestClasses(String prefix, Long sectorId, int limit) {
+        NamePrefixIndex index = sectorId == null ? classes : classesBySector.getOrDefault(sectorId, NamePrefixIndex.EMPTY);
+        return index.suggest(prefix, limit).stream()
+                .map(name -> {
+                    ClassesSuggestion suggestion = new ClassesSuggestion();
+                    suggestion.setId(name.id());
+                    suggestion.setClassName(name.name());
+                    suggestion.setSectors(name.sectorId());
+                    return suggestion;
+                })
+                .toList();
+    }
+
+    /**
+     * @param prefix le début du nom de la filière ou d'un de ses mots
+     * @param limit  le nombre maximal de suggestions
+     */
+    public List<Sectors> suggestSectors(String prefix, int limit) {
+        return sectors.suggest(prefix, limit).stream()
+                .map(name -> {
+                    Sectors sector = new Sectors();
+                    sector.setId(name.id());
+                    sector.setName(name.name());
+                    return sector;
+                })
+                .toList();
+    }
+
+    // Appelé sous le moniteur de l'instance
+    private void removeClass(Long classId) {
+        NamePrefixIndex.Name previous = classNames.remove(classId);
+        if (previous == null) {
+            return;
+        }
+        classes = classes.minus(previous);
+        classesBySector.computeIfPresent(previous.sectorId(), (sectorId, current) -> {
+            NamePrefixIndex remaining = current.minus(previous);
+            return remaining.isEmpty() ? null : remaining;
+        });
+    }
+}
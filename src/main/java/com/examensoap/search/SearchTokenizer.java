@@ -0,0 +1,55 @@
+package com.examensoap.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage d'un texte en termes d'index : minuscules, accents retirés ({@code "Génie"} → {@code "genie"}),
+ * coupure sur tout ce qui n'est ni une lettre ni un chiffre.
+ * <p>
+ * Les mots outils français les plus courants et les lettres isolées ({@code l'}, {@code d'}) sont
+ * ignorés : présents dans presque toutes les descriptions, ils ne départagent rien.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "en", "et", "la", "le", "les",
+            "ou", "par", "pour", "sur", "un", "une");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * @param text le texte à découper (peut être {@code null})
+     * @return les termes, dans l'ordre du texte et avec leurs répétitions
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(fold(text))) {
+            if (term.isEmpty() || STOP_WORDS.contains(term)
+                    || (term.length() == 1 && !Character.isDigit(term.charAt(0)))) {
+                continue;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * @param text le texte à normaliser
+     * @return le texte en minuscules et sans accents, ponctuation comprise
+     */
+    public static String fold(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+}
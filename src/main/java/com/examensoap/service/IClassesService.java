@@ -2,17 +2,30 @@ package com.examensoap.service;
 
 
 import com.examensoap.dto.ClassesDto;
+import com.examensoap.model.Classes;
+import com.examensoap.model.ClassesSuggestion;
+import com.examensoap.search.ClassesSearchIndex;
+import com.examensoap.service.support.ChangeSet;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 public interface IClassesService {
-    List<ClassesDto> getAllClasses();
+    // Les lectures renvoient directement les types SOAP ; les écritures passent par les DTO
+    List<Classes> getAllClasses();
 
-    ClassesDto getClasseById(Long id);
+    Classes getClasseById(Long id);
 
-    List<ClassesDto> getClassesBySector(Long sectorId);
+    List<Classes> getClassesByIds(List<Long> ids);
+
+    List<Classes> getClassesBySector(Long sectorId);
+
+    ClassesSearchIndex.Page searchClasses(String query, int page, int size);
+
+    List<ClassesSuggestion> suggestClasses(String prefix, Long sectorId, int limit);
+
+    ChangeSet<Classes> getClassesChangedSince(long since, int limit);
 
     ClassesDto createClasse(ClassesDto classesDto);
 
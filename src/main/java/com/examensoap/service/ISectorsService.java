@@ -2,17 +2,29 @@ package com.examensoap.service;
 
 
 import com.examensoap.dto.SectorsDto;
+import com.examensoap.model.SectorStats;
+import com.examensoap.model.Sectors;
+import com.examensoap.service.support.ChangeSet;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 public interface ISectorsService {
-    SectorsDto getSectorById(Long id);
+    // Les lectures renvoient directement les types SOAP ; les écritures passent par les DTO
+    Sectors getSectorById(Long id);
+
+    List<Sectors> getSectorsByIds(List<Long> ids);
+
+    List<Sectors> suggestSectors(String prefix, int limit);
+
+    List<SectorStats> getSectorStats();
+
+    ChangeSet<Sectors> getSectorsChangedSince(long since, int limit);
 
     SectorsDto createSectors(SectorsDto sector);
 
-    List<SectorsDto> getAllSectors();
+    List<Sectors> getAllSectors();
 
     void deleteSectors(Long id);
 
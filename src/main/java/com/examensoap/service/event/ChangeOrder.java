@@ -0,0 +1,78 @@
+package com.examensoap.service.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ordre d'application des {@link ClassesChangedEvent} et {@link SectorsChangedEvent} à un état en mémoire
+ * chargé depuis la base.
+ * <p>
+ * Les écritures du catalogue sont validées dans l'ordre de leur séquence ({@code ChangeSequence}), mais
+ * leurs écouteurs s'exécutent ensuite sur les threads des requêtes, dans n'importe quel ordre. Un événement
+ * est donc ignoré :
+ * <ul>
+ *     <li>si sa séquence ne dépasse pas celle lue avec l'état chargé, qui contient déjà l'écriture ;</li>
+ *     <li>si la même ligne a déjà reçu un événement plus récent ;</li>
+ *     <li>pour une classe, si sa filière a été supprimée par une écriture plus récente : la classe a été
+ *     supprimée avec elle.</li>
+ * </ul>
+ * Seules les lignes écrites depuis le chargement sont retenues, une entrée par ligne. Cette classe n'est pas
+ * thread-safe : elle est utilisée sous le verrou de l'état qu'elle protège.
+ */
+public final class ChangeOrder {
+
+    private final long loadedSeq;
+    private final Map<Long, Long> classSeqs = new HashMap<>();
+    private final Map<Long, Long> sectorSeqs = new HashMap<>();
+    private final Map<Long, Long> deletedSectors = new HashMap<>();
+
+    /**
+     * @param loadedSeq la séquence lue dans la même transaction que l'état chargé
+     */
+    public ChangeOrder(long loadedSeq) {
+        this.loadedSeq = loadedSeq;
+    }
+
+    /**
+     * @return {@code true} si l'événement doit être appliqué ; il devient alors le dernier de sa classe
+     */
+    public boolean accept(ClassesChangedEvent event) {
+        long seq = event.updatedSeq();
+        if (!isNew(seq) || seq <= classSeqs.getOrDefault(event.classId(), 0L)
+                || !event.deleted() && sectorDeletedAfter(event.sectorId(), seq)) {
+            return false;
+        }
+        classSeqs.put(event.classId(), seq);
+        return true;
+    }
+
+    /**
+     * @return {@code true} si l'événement doit être appliqué ; il devient alors le dernier de sa filière
+     */
+    public boolean accept(SectorsChangedEvent event) {
+        long seq = event.updatedSeq();
+        if (!isNew(seq) || seq <= sectorSeqs.getOrDefault(event.sectorId(), 0L)) {
+            return false;
+        }
+        sectorSeqs.put(event.sectorId(), seq);
+        if (event.deleted()) {
+            deletedSectors.put(event.sectorId(), seq);
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} si l'écriture de séquence {@code seq} n'est pas dans l'état chargé
+     */
+    public boolean isNew(long seq) {
+        return seq > loadedSeq;
+    }
+
+    /**
+     * @return {@code true} si la filière a été supprimée par une écriture postérieure à {@code seq}
+     */
+    public boolean sectorDeletedAfter(Long sectorId, long seq) {
+        Long deletedSeq = deletedSectors.get(sectorId);
+        return deletedSeq != null && deletedSeq > seq;
+    }
+}
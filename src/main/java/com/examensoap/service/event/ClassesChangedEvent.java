@@ -0,0 +1,31 @@
+package com.examensoap.service.event;
+
+import com.examensoap.dto.ClassesDto;
+
+/**
+ * Publié par {@code ClassesService} quand une classe est créée, modifiée ou supprimée.
+ * <p>
+ * Les écouteurs le reçoivent après la validation de la transaction (ou immédiatement s'il n'y en
+ * a pas) : ils ne voient jamais une écriture annulée. Deux écritures validées l'une après l'autre
+ * peuvent être reçues dans l'ordre inverse : {@link ChangeOrder} les remet dans l'ordre de leur séquence.
+ *
+ * @param classId          l'ID de la classe
+ * @param className        le nom de la classe ({@code null} si elle est supprimée)
+ * @param description      la description de la classe ({@code null} si elle est supprimée)
+ * @param sectorId         la filière de la classe ({@code null} si elle est supprimée)
+ * @param previousSectorId la filière de la classe avant l'écriture ({@code null} pour une création)
+ * @param deleted          {@code true} si la classe a été supprimée
+ * @param updatedSeq       la séquence de l'écriture ({@code updated_seq}, ou celle de la pierre tombale)
+ */
+public record ClassesChangedEvent(Long classId, String className, String description, Long sectorId,
+                                  Long previousSectorId, boolean deleted, long updatedSeq) {
+
+    public static ClassesChangedEvent saved(ClassesDto classe, Long previousSectorId, long updatedSeq) {
+        return new ClassesChangedEvent(classe.getId(), classe.getClassName(), classe.getDescription(),
+                classe.getSectorId(), previousSectorId, false, updatedSeq);
+    }
+
+    public static ClassesChangedEvent deleted(Long classId, Long previousSectorId, long updatedSeq) {
+        return new ClassesChangedEvent(classId, null, null, null, previousSectorId, true, updatedSeq);
+    }
+}
@@ -0,0 +1,27 @@
+package com.examensoap.service.event;
+
+import com.examensoap.dto.SectorsDto;
+
+/**
+ * Publié par {@code SectorsService} quand une filière est créée, renommée ou supprimée.
+ * <p>
+ * Une filière est supprimée avec ses classes (suppression en cascade) : aucun {@link ClassesChangedEvent}
+ * n'est publié pour ces classes. Comme {@link ClassesChangedEvent}, il est reçu après la validation
+ * de la transaction.
+ *
+ * @param sectorId   l'ID de la filière
+ * @param name       le nom de la filière ({@code null} si elle est supprimée)
+ * @param deleted    {@code true} si la filière a été supprimée
+ * @param updatedSeq la séquence de l'écriture ({@code updated_seq}, ou celle de la pierre tombale de la
+ *                   filière, postérieure à celles de ses classes)
+ */
+public record SectorsChangedEvent(Long sectorId, String name, boolean deleted, long updatedSeq) {
+
+    public static SectorsChangedEvent saved(SectorsDto sector, long updatedSeq) {
+        return new SectorsChangedEvent(sector.getId(), sector.getName(), false, updatedSeq);
+    }
+
+    public static SectorsChangedEvent deleted(Long sectorId, long updatedSeq) {
+        return new SectorsChangedEvent(sectorId, null, true, updatedSeq);
+    }
+}
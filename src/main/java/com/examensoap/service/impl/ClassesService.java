@@ -1,57 +1,170 @@
 package com.examensoap.service.impl;
 
+import com.examensoap.dao.ChangeTombstoneRepository;
 import com.examensoap.dao.ClassesRepository;
 import com.examensoap.dao.SectorsRepository;
 import com.examensoap.dto.ClassesDto;
+import com.examensoap.entity.ChangeTombstoneEntity;
 import com.examensoap.entity.ClassesEntity;
 import com.examensoap.entity.SectorsEntity;
 import com.examensoap.exception.ServiceException;
 import com.examensoap.mapper.ClassesMapper;
+import com.examensoap.mapper.ClassesSoapMapper;
+import com.examensoap.model.Classes;
+import com.examensoap.model.ClassesSuggestion;
+import com.examensoap.readmodel.CatalogueReadModel;
+import com.examensoap.readmodel.CatalogueSnapshot;
+import com.examensoap.search.ClassesSearchIndex;
+import com.examensoap.search.NameSuggestions;
 import com.examensoap.service.IClassesService;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import com.examensoap.service.support.ChangeSet;
+import com.examensoap.service.support.SingleFlight;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
+@Observed(name = "soap.service")
 public class ClassesService implements IClassesService {
 
+    /**
+     * Nombre maximal d'IDs par requête {@code IN}, pour rester loin des limites du driver
+     * et garder des plans d'exécution stables sur les très grandes listes.
+     */
+    private static final int ID_CHUNK_SIZE = 500;
+
     private final ClassesRepository classesRepository;
     private final ClassesMapper classesMapper;
+    private final ClassesSoapMapper classesSoapMapper;
+    private final SingleFlight singleFlight;
+    /**
+     * Transaction en lecture seule ouverte par l'appel qui exécute réellement la lecture :
+     * les appels regroupés par {@link SingleFlight} n'occupent pas de connexion pendant leur attente.
+     */
+    private final TransactionTemplate readOnlyTransaction;
+    private final ClassesSearchIndex searchIndex;
+    private final NameSuggestions nameSuggestions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeSequence changeSequence;
+    private final ChangeTombstoneRepository tombstoneRepository;
+    private final CatalogueReadModel readModel;
     SectorsRepository sectorsRepository;
 
     public ClassesService(ClassesRepository classesRepository, ClassesMapper classesMapper,
-                          SectorsRepository sectorsRepository) {
+                          ClassesSoapMapper classesSoapMapper, SectorsRepository sectorsRepository,
+                          SingleFlight singleFlight, PlatformTransactionManager transactionManager,
+                          ClassesSearchIndex searchIndex, NameSuggestions nameSuggestions,
+                          ApplicationEventPublisher eventPublisher, ChangeSequence changeSequence,
+                          ChangeTombstoneRepository tombstoneRepository, CatalogueReadModel readModel) {
         this.sectorsRepository = sectorsRepository;
         this.classesRepository = classesRepository;
         this.classesMapper = classesMapper;
+        this.classesSoapMapper = classesSoapMapper;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.searchIndex = searchIndex;
+        this.nameSuggestions = nameSuggestions;
+        this.eventPublisher = eventPublisher;
+        this.changeSequence = changeSequence;
+        this.tombstoneRepository = tombstoneRepository;
+        this.readModel = readModel;
     }
 
-    @Transactional(readOnly = true)
     @Override
-    public List<ClassesDto> getAllClasses() {
-        return classesRepository.findAll().stream()
-                .map(classesMapper::toClassesDto)
-                .toList();
+    public List<Classes> getAllClasses() {
+        // Modèle de lecture en mémoire s'il est activé (voir CatalogueReadModel), sinon la base
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return catalogue.allClasses();
+        }
+        return singleFlight.execute("classes.all", null, () -> readOnlyTransaction.execute(status ->
+                classesSoapMapper.toSoapClasses(classesRepository.findAll())));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public ClassesDto getClasseById(Long id) {
-        return classesMapper.toClassesDto(classesRepository.findById(id).orElseThrow(
-                () -> new ServiceException("Classe avec l'ID " + id + " n'existe pas")
-        ));
+    public Classes getClasseById(Long id) {
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return catalogue.classById(id).orElseThrow(() -> classNotFound(id));
+        }
+        return singleFlight.execute("classes.byId", id, () -> readOnlyTransaction.execute(status ->
+                classesSoapMapper.toSoapClasses(classesRepository.findById(id).orElseThrow(
+                        () -> classNotFound(id)
+                ))));
+    }
+
+    @Override
+    public List<Classes> getClassesByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return distinctIds.stream()
+                    .map(catalogue::classById)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, Classes> found = new HashMap<>();
+            for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size()));
+                classesRepository.findAllById(chunk)
+                        .forEach(classe -> found.put(classe.getId(), classesSoapMapper.toSoapClasses(classe)));
+            }
+            // Les classes sont renvoyées dans l'ordre des IDs demandés
+            return distinctIds.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        });
+    }
+
+    @Override
+    public List<Classes> getClassesBySector(Long sectorId) {
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return catalogue.classesBySector(sectorId);
+        }
+        return singleFlight.execute("classes.bySector", sectorId, () -> readOnlyTransaction.execute(status ->
+                classesSoapMapper.toSoapClasses(classesRepository.findBySectorsId(sectorId))));
+    }
+
+    @Override
+    public ClassesSearchIndex.Page searchClasses(String query, int page, int size) {
+        // Lecture de l'index en mémoire : ni transaction ni requête SQL
+        return searchIndex.search(query, page, size);
+    }
+
+    @Override
+    public List<ClassesSuggestion> suggestClasses(String prefix, Long sectorId, int limit) {
+        return nameSuggestions.suggestClasses(prefix, sectorId, limit);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ClassesDto> getClassesBySector(Long sectorId) {
-        return classesRepository.findBySectorsId(sectorId).stream()
-                .map(classesMapper::toClassesDto)
-                .toList();
+    public ChangeSet<Classes> getClassesChangedSince(long since, int limit) {
+        // Lue en premier : tous les changements jusqu'à elle sont visibles par les deux requêtes suivantes
+        long upTo = changeSequence.current();
+        return ChangeSet.merge(
+                classesRepository.findChangedSince(since, upTo, Limit.of(limit + 1)), ClassesEntity::getUpdatedSeq,
+                tombstoneRepository.findChangedSince(ChangeTombstoneEntity.EntityType.CLASSES, since, upTo, Limit.of(limit + 1)),
+                limit, upTo, classesSoapMapper::toSoapClasses);
     }
 
     @Override
+    @Transactional
     public ClassesDto createClasse(ClassesDto classesDto) {
         try {
             SectorsEntity sector = sectorsRepository.findById(classesDto.getSectorId())
@@ -60,7 +173,10 @@ public class ClassesService implements IClassesService {
             // Création et sauvegarde
             ClassesEntity classe = classesMapper.toClassesEntity(classesDto);
             classe.setSectors(sector);
-            return classesMapper.toClassesDto(classesRepository.save(classe));
+            classe.setUpdatedSeq(changeSequence.next());
+            ClassesDto created = classesMapper.toClassesDto(classesRepository.save(classe));
+            eventPublisher.publishEvent(ClassesChangedEvent.saved(created, null, classe.getUpdatedSeq()));
+            return created;
         } catch (Exception e) {
             throw new ServiceException("Erreur lors de la création de la classe: " + e.getMessage());
         }
@@ -72,10 +188,10 @@ public class ClassesService implements IClassesService {
         // Validation existence
         ClassesEntity existingClasse = classesRepository.findById(id)
                 .orElseThrow(() -> new ServiceException("Classe non trouvée avec l'ID: " + id));
-
+        Long previousSectorId = existingClasse.getSectors().getId();
 
         // Récupération du secteur si changé
-        if (!existingClasse.getSectors().getId().equals(classesDto.getSectorId())) {
+        if (!previousSectorId.equals(classesDto.getSectorId())) {
             SectorsEntity sector = sectorsRepository.findById(classesDto.getSectorId())
                     .orElseThrow(() -> new ServiceException("Secteur non trouvé avec l'ID: " + classesDto.getSectorId()));
             existingClasse.setSectors(sector);
@@ -84,17 +200,28 @@ public class ClassesService implements IClassesService {
         // Mise à jour
         existingClasse.setClassName(classesDto.getClassName());
         existingClasse.setDescription(classesDto.getDescription());
+        existingClasse.setUpdatedSeq(changeSequence.next());
 
         ClassesEntity updatedClasse = classesRepository.save(existingClasse);
-        return classesMapper.toClassesDto(updatedClasse);
+        ClassesDto updated = classesMapper.toClassesDto(updatedClasse);
+        // Pris en compte par les index en mémoire et les compteurs par filière après la validation de la transaction
+        eventPublisher.publishEvent(ClassesChangedEvent.saved(updated, previousSectorId, updatedClasse.getUpdatedSeq()));
+        return updated;
     }
 
     @Override
     @Transactional
     public void deleteClasse(Long id) {
-        if (!classesRepository.existsById(id)) {
-            throw new ServiceException("Classe non trouvée avec l'ID: " + id);
-        }
-        classesRepository.deleteById(id);
+        ClassesEntity classe = classesRepository.findById(id)
+                .orElseThrow(() -> new ServiceException("Classe non trouvée avec l'ID: " + id));
+        // L'ID de la filière est lu sur le proxy Hibernate, sans la charger
+        Long sectorId = classe.getSectors().getId();
+        classesRepository.delete(classe);
+        long seq = changeSequence.recordDeletions(ChangeTombstoneEntity.EntityType.CLASSES, List.of(id));
+        eventPublisher.publishEvent(ClassesChangedEvent.deleted(id, sectorId, seq));
+    }
+
+    private static ServiceException classNotFound(Long id) {
+        return new ServiceException("Classe avec l'ID " + id + " n'existe pas");
     }
 }
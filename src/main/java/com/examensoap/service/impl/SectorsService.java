@@ -1,76 +1,208 @@
 package com.examensoap.service.impl;
 
+import com.examensoap.dao.ChangeTombstoneRepository;
 import com.examensoap.dao.SectorsRepository;
 import com.examensoap.dto.SectorsDto;
+import com.examensoap.entity.ChangeTombstoneEntity;
+import com.examensoap.entity.ClassesEntity;
 import com.examensoap.entity.SectorsEntity;
 import com.examensoap.exception.ServiceException;
 import com.examensoap.mapper.SectorsMapper;
+import com.examensoap.mapper.SectorsSoapMapper;
+import com.examensoap.model.SectorStats;
+import com.examensoap.model.Sectors;
+import com.examensoap.readmodel.CatalogueReadModel;
+import com.examensoap.readmodel.CatalogueSnapshot;
+import com.examensoap.search.NameSuggestions;
 import com.examensoap.service.ISectorsService;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import com.examensoap.service.support.ChangeSet;
+import com.examensoap.service.support.SingleFlight;
+import com.examensoap.statistics.SectorClassCounts;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.StreamSupport;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
+@Observed(name = "soap.service")
 public class SectorsService implements ISectorsService {
+
+    /**
+     * Nombre maximal d'IDs par requête {@code IN} (voir ClassesService).
+     */
+    private static final int ID_CHUNK_SIZE = 500;
+
     private final SectorsRepository sectorsRepository;
     private final SectorsMapper sectorsMapper;
+    private final SectorsSoapMapper sectorsSoapMapper;
+    private final SingleFlight singleFlight;
+    /**
+     * Transaction en lecture seule des lectures regroupées (voir ClassesService).
+     */
+    private final TransactionTemplate readOnlyTransaction;
+    private final NameSuggestions nameSuggestions;
+    private final SectorClassCounts sectorClassCounts;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeSequence changeSequence;
+    private final ChangeTombstoneRepository tombstoneRepository;
+    private final CatalogueReadModel readModel;
 
-    public SectorsService(SectorsRepository sectorsRepository, SectorsMapper sectorsMapper) {
+    public SectorsService(SectorsRepository sectorsRepository, SectorsMapper sectorsMapper,
+                          SectorsSoapMapper sectorsSoapMapper, SingleFlight singleFlight,
+                          PlatformTransactionManager transactionManager, NameSuggestions nameSuggestions,
+                          SectorClassCounts sectorClassCounts, ApplicationEventPublisher eventPublisher,
+                          ChangeSequence changeSequence, ChangeTombstoneRepository tombstoneRepository,
+                          CatalogueReadModel readModel) {
         this.sectorsRepository = sectorsRepository;
         this.sectorsMapper = sectorsMapper;
+        this.sectorsSoapMapper = sectorsSoapMapper;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.nameSuggestions = nameSuggestions;
+        this.sectorClassCounts = sectorClassCounts;
+        this.eventPublisher = eventPublisher;
+        this.changeSequence = changeSequence;
+        this.tombstoneRepository = tombstoneRepository;
+        this.readModel = readModel;
     }
 
     @Override
-    public SectorsDto getSectorById(Long id) {
-        return sectorsMapper.toSectorsDto(sectorsRepository
-                .findById(id).orElseThrow(
-                        () -> new ServiceException("Sector not found with id: " + id)
-                ));
+    public Sectors getSectorById(Long id) {
+        // Modèle de lecture en mémoire s'il est activé (voir CatalogueReadModel), sinon la base
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return catalogue.sectorById(id).orElseThrow(() -> sectorNotFound(id));
+        }
+        return singleFlight.execute("sectors.byId", id, () -> readOnlyTransaction.execute(status ->
+                sectorsSoapMapper.toSoapSectors(sectorsRepository
+                        .findById(id).orElseThrow(
+                                () -> sectorNotFound(id)
+                        ))));
     }
 
     @Override
+    public List<Sectors> getSectorsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return distinctIds.stream()
+                    .map(catalogue::sectorById)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, Sectors> found = new HashMap<>();
+            for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size()));
+                sectorsRepository.findAllById(chunk)
+                        .forEach(sector -> found.put(sector.getId(), sectorsSoapMapper.toSoapSectors(sector)));
+            }
+            // Les filieres sont renvoyées dans l'ordre des IDs demandés
+            return distinctIds.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        });
+    }
+
+    @Override
+    public List<Sectors> suggestSectors(String prefix, int limit) {
+        // Index en mémoire (voir NameSuggestions) : ni transaction ni requête SQL
+        return nameSuggestions.suggestSectors(prefix, limit);
+    }
+
+    @Override
+    public List<SectorStats> getSectorStats() {
+        // Compteurs tenus à jour en mémoire (voir SectorClassCounts) : aucun parcours de classes_entity
+        return sectorClassCounts.snapshot();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeSet<Sectors> getSectorsChangedSince(long since, int limit) {
+        // Lue en premier (voir ClassesService.getClassesChangedSince)
+        long upTo = changeSequence.current();
+        return ChangeSet.merge(
+                sectorsRepository.findChangedSince(since, upTo, Limit.of(limit + 1)), SectorsEntity::getUpdatedSeq,
+                tombstoneRepository.findChangedSince(ChangeTombstoneEntity.EntityType.SECTORS, since, upTo, Limit.of(limit + 1)),
+                limit, upTo, sectorsSoapMapper::toSoapSectors);
+    }
+
+    @Override
+    @Transactional
     public SectorsDto createSectors(SectorsDto sector) {
         try {
-            SectorsEntity savedSector = sectorsRepository.save(sectorsMapper.toSectorsEntity(sector));
-            return sectorsMapper.toSectorsDto(savedSector);
+            SectorsEntity newSector = sectorsMapper.toSectorsEntity(sector);
+            newSector.setUpdatedSeq(changeSequence.next());
+            SectorsEntity savedSector = sectorsRepository.save(newSector);
+            SectorsDto created = sectorsMapper.toSectorsDto(savedSector);
+            eventPublisher.publishEvent(SectorsChangedEvent.saved(created, savedSector.getUpdatedSeq()));
+            return created;
         } catch (Exception e) {
             throw new ServiceException("Error creating sector: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public List<SectorsDto> getAllSectors() {
-        return StreamSupport.stream(sectorsRepository.findAll().spliterator(), false)
-                .map(sectorsMapper::toSectorsDto)
-                .toList();
+    public List<Sectors> getAllSectors() {
+        CatalogueSnapshot catalogue = readModel.current();
+        if (catalogue != null) {
+            return catalogue.allSectors();
+        }
+        return singleFlight.execute("sectors.all", null, () -> readOnlyTransaction.execute(status ->
+                sectorsSoapMapper.toSoapSectors(sectorsRepository.findAll())));
     }
 
     @Override
     @Transactional
     public void deleteSectors(Long id) {
-        sectorsRepository.findById(id).orElseThrow(
+        SectorsEntity existingSector = sectorsRepository.findById(id).orElseThrow(
                 () -> new ServiceException("Secteur introuvable avec ID: " + id)
         );
         try {
+            // Les classes de la filière sont supprimées en cascade : elles ont aussi leur pierre tombale
+            List<Long> classIds = existingSector.getClasses().stream().map(ClassesEntity::getId).toList();
             sectorsRepository.deleteById(id);
+            changeSequence.recordDeletions(ChangeTombstoneEntity.EntityType.CLASSES, classIds);
+            long seq = changeSequence.recordDeletions(ChangeTombstoneEntity.EntityType.SECTORS, List.of(id));
+            eventPublisher.publishEvent(SectorsChangedEvent.deleted(id, seq));
         } catch (Exception e) {
             throw new ServiceException("Erreur de suppression du secteur: " + e.getMessage(), e);
         }
     }
 
     @Override
+    @Transactional
     public SectorsDto updateSectors(Long id, SectorsDto sector) {
         try {
             sectorsRepository.findById(id).orElseThrow(
                     () -> new ServiceException("Secteur introuvable avec ID: " + id)
             );
             sector.setId(id);
-            SectorsEntity updatedSector = sectorsRepository.save(sectorsMapper.toSectorsEntity(sector));
-            return sectorsMapper.toSectorsDto(updatedSector);
+            SectorsEntity changedSector = sectorsMapper.toSectorsEntity(sector);
+            changedSector.setUpdatedSeq(changeSequence.next());
+            SectorsEntity updatedSector = sectorsRepository.save(changedSector);
+            SectorsDto updated = sectorsMapper.toSectorsDto(updatedSector);
+            eventPublisher.publishEvent(SectorsChangedEvent.saved(updated, updatedSector.getUpdatedSeq()));
+            return updated;
         } catch (Exception e) {
             throw new ServiceException("SECTEUR DE MISE À JOUR ERREUR:" + e.getMessage(), e);
         }
     }
+
+    private static ServiceException sectorNotFound(Long id) {
+        return new ServiceException("Sector not found with id: " + id);
+    }
 }
@@ -0,0 +1,82 @@
+package com.examensoap.service.support;
+
+import com.examensoap.dao.ChangeSequenceRepository;
+import com.examensoap.dao.ChangeTombstoneRepository;
+import com.examensoap.entity.ChangeSequenceEntity;
+import com.examensoap.entity.ChangeTombstoneEntity;
+import com.examensoap.exception.ServiceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Séquence des changements du catalogue, pour la synchronisation incrémentale
+ * ({@code getClassesChangedSinceRequest}, {@code getSectorsChangedSinceRequest}).
+ * <p>
+ * Chaque classe ou filière écrite reçoit la valeur suivante dans {@code updated_seq} ; chaque suppression
+ * laisse une ligne dans {@code change_tombstone_entity}. La ligne de {@code change_sequence_entity} est lue avec
+ * {@code SELECT ... FOR UPDATE} et reste verrouillée jusqu'à la validation : les écritures du catalogue
+ * sont sérialisées, et une séquence visible garantit que toutes les précédentes le sont aussi. Un client
+ * qui repart du {@code highWaterMark} reçu ne peut donc pas manquer un changement validé en retard.
+ * <p>
+ * Le verrou n'est pris qu'à la première écriture de la transaction, après les vérifications.
+ */
+@Component
+public class ChangeSequence {
+
+    private static final String NAME = "catalogue";
+
+    private final ChangeSequenceRepository sequenceRepository;
+    private final ChangeTombstoneRepository tombstoneRepository;
+
+    public ChangeSequence(ChangeSequenceRepository sequenceRepository, ChangeTombstoneRepository tombstoneRepository) {
+        this.sequenceRepository = sequenceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * @return la séquence à donner à la ligne écrite
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        return allocate(1);
+    }
+
+    /**
+     * Enregistre la suppression de lignes, chacune à sa propre séquence.
+     *
+     * @return la séquence de la dernière suppression, ou {@code 0} si {@code ids} est vide
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long recordDeletions(ChangeTombstoneEntity.EntityType entityType, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long seq = allocate(ids.size());
+        for (Long id : ids) {
+            tombstoneRepository.save(new ChangeTombstoneEntity(seq++, entityType, id));
+        }
+        return seq - 1;
+    }
+
+    /**
+     * @return la dernière séquence validée ; tous les changements jusqu'à elle sont visibles
+     */
+    @Transactional(readOnly = true)
+    public long current() {
+        return sequenceRepository.findById(NAME)
+                .map(ChangeSequenceEntity::getSeqValue)
+                .orElseThrow(() -> new ServiceException("Séquence des changements absente (migration V3)"));
+    }
+
+    // Réserve count valeurs consécutives et renvoie la première
+    private long allocate(int count) {
+        ChangeSequenceEntity sequence = sequenceRepository.findForUpdate(NAME)
+                .orElseThrow(() -> new ServiceException("Séquence des changements absente (migration V3)"));
+        long first = sequence.getSeqValue() + 1;
+        sequence.setSeqValue(sequence.getSeqValue() + count);
+        return first;
+    }
+}
@@ -0,0 +1,50 @@
+package com.examensoap.service.support;
+
+import com.examensoap.entity.ChangeTombstoneEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Changements renvoyés par une synchronisation incrémentale.
+ *
+ * @param changed       les lignes créées ou modifiées, dans leur état actuel
+ * @param deletedIds    les IDs supprimés
+ * @param highWaterMark la séquence à renvoyer comme {@code since} à l'appel suivant
+ * @param hasMore       {@code true} si la limite a coupé la réponse
+ */
+public record ChangeSet<T>(List<T> changed, List<Long> deletedIds, long highWaterMark, boolean hasMore) {
+
+    /**
+     * Fusionne par séquence les lignes modifiées et les suppressions, lues chacune avec une limite de
+     * {@code limit + 1}, et garde les {@code limit} premiers changements.
+     *
+     * @param upTo la séquence validée lue avant les deux requêtes, renvoyée si tout a été lu
+     */
+    public static <E, T> ChangeSet<T> merge(List<E> rows, ToLongFunction<E> seqOf,
+                                            List<ChangeTombstoneEntity> tombstones,
+                                            int limit, long upTo, Function<E, T> toSoap) {
+        List<T> changed = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        int row = 0;
+        int tombstone = 0;
+        long lastSeq = 0;
+        while (changed.size() + deletedIds.size() < limit && (row < rows.size() || tombstone < tombstones.size())) {
+            boolean takeRow = tombstone == tombstones.size()
+                    || (row < rows.size() && seqOf.applyAsLong(rows.get(row)) < tombstones.get(tombstone).getSeq());
+            if (takeRow) {
+                E taken = rows.get(row++);
+                lastSeq = seqOf.applyAsLong(taken);
+                changed.add(toSoap.apply(taken));
+            } else {
+                ChangeTombstoneEntity taken = tombstones.get(tombstone++);
+                lastSeq = taken.getSeq();
+                deletedIds.add(taken.getEntityId());
+            }
+        }
+        boolean hasMore = row < rows.size() || tombstone < tombstones.size();
+        return new ChangeSet<>(changed, deletedIds, hasMore ? lastSeq : upTo, hasMore);
+    }
+}
@@ -0,0 +1,120 @@
+package com.examensoap.service.support;
+
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des lectures identiques concurrentes ("single flight").
+ * <p>
+ * Le premier appel pour une clé exécute la lecture ; les appels identiques qui arrivent
+ * pendant qu'elle est en cours attendent et reçoivent le même résultat (ou la même exception)
+ * au lieu de relancer chacun leur requête SQL. Lors d'un pic, une seule requête par clé atteint
+ * donc la base, et rien n'est gardé une fois la lecture terminée : il n'y a pas de cache à invalider.
+ * <p>
+ * Les résultats étant partagés entre appelants, ils ne doivent pas être modifiés.
+ * Les appels faits depuis une transaction déjà ouverte ne sont pas regroupés, pour qu'ils voient
+ * leurs propres écritures.
+ * <p>
+ * Une lecture en cours a pu commencer avant une écriture validée depuis : la rejoindre renverrait l'état
+ * d'avant l'écriture à un client qui vient de la faire. Chaque écriture validée ({@link ClassesChangedEvent},
+ * {@link SectorsChangedEvent}) incrémente donc un numéro d'époque qui fait partie de la clé : un appel ne
+ * rejoint que les lectures lancées depuis la dernière écriture validée.
+ * <p>
+ * Métrique exposée (tag {@code operation}) : {@code service.singleflight.coalesced}, le nombre
+ * de lectures économisées.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final AtomicLong writeEpoch = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${examensoap.service.single-flight.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Exécute la lecture, ou rejoint celle qui est déjà en cours pour la même clé.
+     *
+     * @param operation nom de la lecture (sert de tag à la métrique), par exemple {@code sectors.byId}
+     * @param key       paramètres de la lecture ; {@code null} si elle n'en a pas
+     * @param loader    la lecture à exécuter
+     * @return le résultat de la lecture, partagé entre les appelants concurrents
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+
+        long epoch = writeEpoch.get();
+        String flightKey = (key == null ? operation : operation + ':' + key) + '@' + epoch;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            coalesced.computeIfAbsent(operation, this::createCounter).increment();
+            return (T) join(existing);
+        }
+
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClassesChanged(ClassesChangedEvent event) {
+        writeEpoch.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectorsChanged(SectorsChangedEvent event) {
+        writeEpoch.incrementAndGet();
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // On relance l'exception d'origine (ServiceException, ...) et non son enveloppe
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter createCounter(String operation) {
+        return Counter.builder("service.singleflight.coalesced")
+                .tag("operation", operation)
+                .description("Lectures évitées en rejoignant une lecture identique en cours")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.examensoap.statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint actuator {@code /actuator/hibernatequeries} : agrégats par requête HQL/JPQL
+ * (exécutions, lignes, temps moyen / max / total), triés par temps total décroissant.
+ * <p>
+ * Un {@code DELETE} remet les compteurs à zéro, par exemple avant un test de charge. L'endpoint n'est
+ * pas exposé par défaut et ne doit l'être que sur un port de management séparé.
+ */
+@Endpoint(id = "hibernatequeries")
+public class HibernateQueriesEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateQueriesEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        List<QueryAggregate> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> QueryAggregate.of(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryAggregate::totalTimeMs).reversed())
+                .toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", statistics.getStart());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        result.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("preparedStatementCount", statistics.getPrepareStatementCount());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("queries", queries);
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        statistics.clear();
+    }
+
+    public record QueryAggregate(String query, long executionCount, long rowCount,
+                                 double avgTimeMs, long maxTimeMs, long totalTimeMs) {
+
+        static QueryAggregate of(String query, QueryStatistics statistics) {
+            return new QueryAggregate(query, statistics.getExecutionCount(), statistics.getExecutionRowCount(),
+                    statistics.getExecutionAvgTimeAsDouble(), statistics.getExecutionMaxTime(),
+                    statistics.getExecutionTotalTime());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.examensoap.statistics;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.model.SectorStats;
+import com.examensoap.service.event.ChangeOrder;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Nombre de classes par filière, pour {@code getSectorStatsRequest}.
+ * <p>
+ * Les compteurs sont tenus à jour par les {@link ClassesChangedEvent} et {@link SectorsChangedEvent}
+ * (après validation de la transaction) : une lecture ne touche jamais {@code classes_entity}.
+ * Une tâche périodique ({@code examensoap.stats.reconcile-interval}) les recalcule par un
+ * {@code GROUP BY} sur le primaire et corrige les écarts, par exemple après une écriture faite
+ * hors de l'application. La séquence des changements est lue dans la même transaction : les événements
+ * reçus pendant le calcul sont rejoués sur son résultat, sauf ceux que le {@code GROUP BY} a déjà vus.
+ * <p>
+ * Les déplacements de classes s'additionnent dans n'importe quel ordre ; {@link ChangeOrder} écarte
+ * seulement les événements déjà comptés, ceux qui visent une filière supprimée depuis et, pour les
+ * filières, un renommage dépassé par un plus récent.
+ * <p>
+ * Métrique exposée : {@code stats.sectors.reconcile.corrections}, le nombre de filières dont le compteur
+ * a été corrigé.
+ */
+@Component
+public class SectorClassCounts implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectorClassCounts.class);
+
+    private final ClassesRepository classesRepository;
+    private final SectorsRepository sectorsRepository;
+    private final ChangeSequence changeSequence;
+    /**
+     * Transaction en lecture-écriture : elle va au primaire, les réplicas pouvant être en retard.
+     * {@code REPEATABLE_READ} : la séquence, les filières et les compteurs sont lus dans le même état.
+     */
+    private final TransactionTemplate primaryTransaction;
+    private final Counter corrections;
+
+    // Protégés par le moniteur de l'instance ; counts est trié par ID de filière, replay n'est non nul
+    // que pendant une réconciliation
+    private Map<Long, Entry> counts = new TreeMap<>();
+    private ChangeOrder order;
+    private List<Object> replay;
+
+    public SectorClassCounts(ClassesRepository classesRepository, SectorsRepository sectorsRepository,
+                             ChangeSequence changeSequence, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.classesRepository = classesRepository;
+        this.sectorsRepository = sectorsRepository;
+        this.changeSequence = changeSequence;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.corrections = Counter.builder("stats.sectors.reconcile.corrections")
+                .description("Compteurs de classes par filière corrigés par la réconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calcule les compteurs une fois les beans créés, avant le démarrage du serveur web.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+    }
+
+    /**
+     * Recalcule les compteurs à partir de la base et remplace ceux qui ont dérivé.
+     */
+    @Scheduled(initialDelayString = "${examensoap.stats.reconcile-interval:5m}",
+            fixedDelayString = "${examensoap.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Map<Long, Entry> fresh = new TreeMap<>();
+        long seq;
+        try {
+            seq = primaryTransaction.execute(status -> {
+                // Lue en premier : le calcul qui suit contient toutes les écritures jusqu'à elle
+                long loadedSeq = changeSequence.current();
+                sectorsRepository.findAll().forEach(sector -> fresh.put(sector.getId(), new Entry(sector.getName())));
+                for (ClassesRepository.SectorClassCount count : classesRepository.countBySector()) {
+                    fresh.computeIfAbsent(count.getSectorId(), id -> new Entry(null)).classCount = count.getClassCount();
+                }
+                return loadedSeq;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            logger.warn("Réconciliation des compteurs de classes par filière impossible : {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            ChangeOrder freshOrder = new ChangeOrder(seq);
+            for (Object event : replay) {
+                if (event instanceof ClassesChangedEvent classes) {
+                    apply(fresh, freshOrder, classes);
+                } else {
+                    apply(fresh, freshOrder, (SectorsChangedEvent) event);
+                }
+            }
+            replay = null;
+            long corrected = fresh.entrySet().stream()
+                    .filter(entry -> {
+                        Entry current = counts.get(entry.getKey());
+                        return current == null || current.classCount != entry.getValue().classCount;
+                    })
+                    .count()
+                    + counts.keySet().stream().filter(id -> !fresh.containsKey(id)).count();
+            if (corrected > 0 && !counts.isEmpty()) {
+                corrections.increment(corrected);
+                logger.info("Réconciliation : {} compteur(s) de classes par filière corrigé(s)", corrected);
+            }
+            counts = fresh;
+            order = freshOrder;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onClassesChanged(ClassesChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        if (order != null) {
+            apply(counts, order, event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSectorsChanged(SectorsChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        if (order != null) {
+            apply(counts, order, event);
+        }
+    }
+
+    /**
+     * @return le nombre de classes de chaque filière, par ID de filière croissant
+     */
+    public synchronized List<SectorStats> snapshot() {
+        List<SectorStats> stats = new ArrayList<>(counts.size());
+        counts.forEach((sectorId, entry) -> {
+            SectorStats sectorStats = new SectorStats();
+            sectorStats.setId(sectorId);
+            sectorStats.setName(entry.name);
+            sectorStats.setClassCount(entry.classCount);
+            stats.add(sectorStats);
+        });
+        return stats;
+    }
+
+    // Appelé sous le moniteur de l'instance
+    private static void apply(Map<Long, Entry> counts, ChangeOrder order, ClassesChangedEvent event) {
+        long seq = event.updatedSeq();
+        if (!order.isNew(seq) || Objects.equals(event.previousSectorId(), event.sectorId())) {
+            return;
+        }
+        // Une filière supprimée depuis a emporté ses classes : son compteur a déjà disparu
+        if (event.previousSectorId() != null && !order.sectorDeletedAfter(event.previousSectorId(), seq)) {
+            entry(counts, event.previousSectorId()).classCount--;
+        }
+        if (!event.deleted() && !order.sectorDeletedAfter(event.sectorId(), seq)) {
+            entry(counts, event.sectorId()).classCount++;
+        }
+    }
+
+    // Appelé sous le moniteur de l'instance
+    private static void apply(Map<Long, Entry> counts, ChangeOrder order, SectorsChangedEvent event) {
+        if (!order.accept(event)) {
+            return;
+        }
+        if (event.deleted()) {
+            // Les classes de la filière ont été supprimées avec elle
+            counts.remove(event.sectorId());
+        } else {
+            entry(counts, event.sectorId()).name = event.name();
+        }
+    }
+
+    private static Entry entry(Map<Long, Entry> counts, Long sectorId) {
+        return counts.computeIfAbsent(sectorId, id -> new Entry(null));
+    }
+
+    private static final class Entry {
+        private String name;
+        private long classCount;
+
+        private Entry(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.examensoap.statistics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statistiques Hibernate qui journalisent les requêtes lentes, une ligne par requête avec l'ordre SQL,
+ * son temps d'exécution et le nombre de lignes lues.
+ * <p>
+ * Hibernate donne ces informations en deux temps, sur le thread de la session :
+ * <ul>
+ *     <li>{@link #slowQuery(String, long)} : l'ordre SQL réel, appelé pour chaque exécution au-delà de
+ *     {@code hibernate.log_slow_query} (y compris les chargements par ID) ; il est mis en attente ;</li>
+ *     <li>{@link #queryExecuted(String, int, long)} : la requête HQL/JPQL et son nombre de lignes, une fois
+ *     toutes les lignes lues ; la ligne de journal est alors écrite.</li>
+ * </ul>
+ * Un ordre SQL qui n'est pas suivi d'une requête HQL (chargement par ID, collection) est journalisé à
+ * l'ordre SQL suivant ou à la fermeture de la session, avec le nombre d'entités chargées entre-temps.
+ * Une requête HQL lente alors que son exécution SQL ne l'était pas (lecture des lignes) est journalisée
+ * avec le texte HQL. Les agrégats par requête restent ceux de {@link StatisticsImpl}
+ * (voir {@code HibernateQueriesEndpoint}).
+ */
+public class SlowQueryStatistics extends StatisticsImpl {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryStatistics.class);
+
+    private final long thresholdMillis;
+    private final ThreadLocal<PendingSlowQuery> pending = new ThreadLocal<>();
+
+    public SlowQueryStatistics(SessionFactoryImplementor sessionFactory, long thresholdMillis) {
+        super(sessionFactory);
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void slowQuery(String sql, long executionTime) {
+        super.slowQuery(sql, executionTime);
+        logPending();
+        pending.set(new PendingSlowQuery(sql, executionTime));
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        PendingSlowQuery slow = pending.get();
+        if (slow != null) {
+            slow.loadedEntities++;
+        }
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        PendingSlowQuery slow = pending.get();
+        if (slow != null) {
+            pending.remove();
+            log(slow.sql, slow.executionTime, rows);
+        } else if (time >= thresholdMillis) {
+            logger.warn("Requête lente : {} ms, {} ligne(s) : {}", time, rows, hql);
+        }
+    }
+
+    @Override
+    public void closeSession() {
+        super.closeSession();
+        logPending();
+    }
+
+    private void logPending() {
+        PendingSlowQuery slow = pending.get();
+        if (slow != null) {
+            pending.remove();
+            log(slow.sql, slow.executionTime, slow.loadedEntities);
+        }
+    }
+
+    private static void log(String sql, long executionTime, int rows) {
+        logger.warn("Requête SQL lente : {} ms, {} ligne(s), {} paramètre(s) : {}",
+                executionTime, rows, countBindParameters(sql), sql);
+    }
+
+    /**
+     * Nombre de paramètres JDBC ({@code ?}) de l'ordre SQL, hors littéraux entre apostrophes.
+     */
+    static int countBindParameters(String sql) {
+        int count = 0;
+        boolean inLiteral = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (c == '?' && !inLiteral) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Ordre SQL lent dont le nombre de lignes n'est pas encore connu
+    private static final class PendingSlowQuery {
+
+        private final String sql;
+        private final long executionTime;
+        private int loadedEntities;
+
+        private PendingSlowQuery(String sql, long executionTime) {
+            this.sql = sql;
+            this.executionTime = executionTime;
+        }
+    }
+}
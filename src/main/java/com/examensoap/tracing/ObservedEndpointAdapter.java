@@ -0,0 +1,103 @@
+package com.examensoap.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointAdapter;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+import org.springframework.ws.server.endpoint.adapter.method.MethodArgumentResolver;
+import org.springframework.ws.server.endpoint.adapter.method.MethodReturnValueHandler;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+
+import java.util.function.Supplier;
+
+/**
+ * Adaptateur d'endpoints observé : découpe l'appel d'une méthode {@code @PayloadRoot} en phases.
+ * <ul>
+ *     <li>{@code soap.invoke} : tout l'appel de la méthode d'endpoint ;</li>
+ *     <li>{@code soap.unmarshal} : lecture du paramètre {@code @RequestPayload} (JAXB) ;</li>
+ *     <li>{@code soap.marshal} : écriture de la réponse dans le message SOAP (JAXB).</li>
+ * </ul>
+ * Le temps de {@code soap.invoke} qui n'est couvert ni par ces phases ni par les services
+ * ({@code soap.service}) est celui du code de l'endpoint lui-même.
+ */
+public class ObservedEndpointAdapter implements EndpointAdapter {
+
+    private final DefaultMethodEndpointAdapter delegate;
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    public ObservedEndpointAdapter(DefaultMethodEndpointAdapter delegate,
+                                   Supplier<ObservationRegistry> observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+        delegate.setMethodArgumentResolvers(delegate.getMethodArgumentResolvers().stream()
+                .map(resolver -> (MethodArgumentResolver) new ObservedArgumentResolver(resolver))
+                .toList());
+        delegate.setMethodReturnValueHandlers(delegate.getMethodReturnValueHandlers().stream()
+                .map(handler -> (MethodReturnValueHandler) new ObservedReturnValueHandler(handler))
+                .toList());
+    }
+
+    @Override
+    public boolean supports(Object endpoint) {
+        return delegate.supports(endpoint);
+    }
+
+    @Override
+    public void invoke(MessageContext messageContext, Object endpoint) throws Exception {
+        Observation.createNotStarted("soap.invoke", observationRegistry.get())
+                .observeChecked(() -> delegate.invoke(messageContext, endpoint));
+    }
+
+    private final class ObservedArgumentResolver implements MethodArgumentResolver {
+
+        private final MethodArgumentResolver resolver;
+
+        ObservedArgumentResolver(MethodArgumentResolver resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public boolean supportsParameter(MethodParameter parameter) {
+            return resolver.supportsParameter(parameter);
+        }
+
+        @Override
+        public Object resolveArgument(MessageContext messageContext, MethodParameter parameter) throws Exception {
+            // Les autres paramètres (MessageContext, SoapHeader, ...) ne coûtent rien à résoudre
+            if (!parameter.hasParameterAnnotation(RequestPayload.class)) {
+                return resolver.resolveArgument(messageContext, parameter);
+            }
+            return Observation.createNotStarted("soap.unmarshal", observationRegistry.get())
+                    .lowCardinalityKeyValue("soap.payload", parameter.getParameterType().getSimpleName())
+                    .observeChecked(() -> resolver.resolveArgument(messageContext, parameter));
+        }
+    }
+
+    private final class ObservedReturnValueHandler implements MethodReturnValueHandler {
+
+        private final MethodReturnValueHandler handler;
+
+        ObservedReturnValueHandler(MethodReturnValueHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return handler.supportsReturnType(returnType);
+        }
+
+        @Override
+        public void handleReturnValue(MessageContext messageContext, MethodParameter returnType,
+                                      Object returnValue) throws Exception {
+            if (returnValue == null) {
+                handler.handleReturnValue(messageContext, returnType, null);
+                return;
+            }
+            Observation.createNotStarted("soap.marshal", observationRegistry.get())
+                    .lowCardinalityKeyValue("soap.payload", returnValue.getClass().getSimpleName())
+                    .observeChecked(() -> handler.handleReturnValue(messageContext, returnType, returnValue));
+        }
+    }
+}
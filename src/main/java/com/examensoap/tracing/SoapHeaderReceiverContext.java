@@ -0,0 +1,47 @@
+package com.examensoap.tracing;
+
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.ReceiverContext;
+import org.springframework.ws.soap.SoapHeader;
+import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.SoapMessage;
+
+import java.util.Iterator;
+
+/**
+ * Contexte de réception qui lit le contexte de trace W3C ({@code traceparent}, {@code tracestate})
+ * dans les en-têtes SOAP, quel que soit leur namespace.
+ * <p>
+ * Il sert aux clients qui ne peuvent pas poser d'en-tête HTTP, ou dont les messages traversent
+ * un intermédiaire qui ne les conserve pas. Sans ces en-têtes SOAP, la trace est celle de la
+ * requête HTTP, déjà extraite par Spring Boot.
+ */
+public class SoapHeaderReceiverContext extends ReceiverContext<SoapMessage> {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    public SoapHeaderReceiverContext(SoapMessage request) {
+        super(SoapHeaderReceiverContext::headerValue, Kind.SERVER);
+        setCarrier(request);
+    }
+
+    public static boolean hasTraceContext(SoapMessage request) {
+        return headerValue(request, TRACEPARENT) != null;
+    }
+
+    private static String headerValue(SoapMessage message, String name) {
+        SoapHeader header = message.getSoapHeader();
+        if (header == null) {
+            return null;
+        }
+        Iterator<SoapHeaderElement> elements = header.examineAllHeaderElements();
+        while (elements.hasNext()) {
+            SoapHeaderElement element = elements.next();
+            if (name.equalsIgnoreCase(element.getName().getLocalPart())) {
+                String text = element.getText();
+                return text != null ? text.trim() : null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.examensoap.transport;
+
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Un réseau client autorisé, en notation CIDR ({@code 10.0.0.0/8}) ou une seule adresse ({@code 127.0.0.1}).
+ * <p>
+ * Utilisé par les fonctions réservées à certains clients (export du catalogue, trace à la demande).
+ * Seules les adresses IP littérales sont acceptées : aucune résolution DNS, ni à la configuration ni
+ * pendant une requête.
+ */
+public record ClientNetwork(byte[] prefix, int bits) {
+
+    public static ClientNetwork parse(String cidr) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr : cidr.substring(0, slash);
+        if (!address.matches("[0-9a-fA-F:.]+")) {
+            throw new IllegalArgumentException("Réseau invalide (adresse IP attendue) : " + cidr);
+        }
+        try {
+            byte[] prefix = InetAddress.getByName(address).getAddress();
+            int bits = slash < 0 ? prefix.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (bits < 0 || bits > prefix.length * 8) {
+                throw new IllegalArgumentException("Longueur de préfixe invalide : " + cidr);
+            }
+            return new ClientNetwork(prefix, bits);
+        } catch (UnknownHostException | NumberFormatException e) {
+            throw new IllegalArgumentException("Réseau invalide : " + cidr, e);
+        }
+    }
+
+    /**
+     * Lit une liste de réseaux de la configuration ; les valeurs vides sont ignorées.
+     */
+    public static List<ClientNetwork> parseAll(Collection<String> cidrs) {
+        return cidrs.stream()
+                .map(String::trim)
+                .filter(network -> !network.isEmpty())
+                .map(ClientNetwork::parse)
+                .toList();
+    }
+
+    /**
+     * Vrai si l'adresse est dans l'un des réseaux ; faux pour une adresse nulle.
+     */
+    public static boolean anyContains(List<ClientNetwork> networks, InetAddress address) {
+        return address != null && networks.stream().anyMatch(network -> network.contains(address));
+    }
+
+    /**
+     * Adresse du client HTTP de la requête SOAP en cours, ou null hors d'une requête HTTP (requête
+     * asynchrone, élément d'un lot traité sur un autre thread).
+     */
+    public static InetAddress currentClientAddress() {
+        TransportContext transportContext = TransportContextHolder.getTransportContext();
+        if (transportContext == null || !(transportContext.getConnection() instanceof HttpServletConnection connection)) {
+            return null;
+        }
+        try {
+            // Adresse littérale : aucune résolution DNS
+            return InetAddress.getByName(connection.getHttpServletRequest().getRemoteAddr());
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    public boolean contains(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        if (bytes.length != prefix.length) {
+            return false;
+        }
+        int fullBytes = bits / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        int remaining = bits % 8;
+        if (remaining == 0) {
+            return true;
+        }
+        int mask = 0xFF << (8 - remaining);
+        return (bytes[fullBytes] & mask) == (prefix[fullBytes] & mask);
+    }
+}
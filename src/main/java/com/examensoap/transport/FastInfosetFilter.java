@@ -0,0 +1,330 @@
+package com.examensoap.transport;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPConstants;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+import org.jvnet.fastinfoset.FastInfosetResult;
+import org.jvnet.fastinfoset.FastInfosetSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Négociation de contenu Fast Infoset sur le dispatcher SOAP (/ws/*).
+ * <p>
+ * Un client qui envoie une requête en {@code application/fastinfoset} (SOAP 1.1) ou
+ * {@code application/soap+fastinfoset} (SOAP 1.2), ou qui annonce l'un de ces types dans
+ * son en-tête {@code Accept} avec une qualité non nulle, reçoit une enveloppe encodée en Fast Infoset.
+ * Dans tous les autres cas la requête traverse le filtre sans aucune copie : le XML texte
+ * reste le format par défaut et le contrat WSDL n'est pas modifié.
+ * <p>
+ * Le décodage et l'encodage se font ici, au niveau HTTP, pour que les endpoints, les
+ * intercepteurs et la validation continuent de travailler sur un message SOAP classique.
+ * Un corps Fast Infoset illisible reçoit une faute SOAP {@code Client} (SOAP 1.1, HTTP 500) ou
+ * {@code Sender} (SOAP 1.2, HTTP 400), elle-même encodée en Fast Infoset.
+ */
+public class FastInfosetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastInfosetFilter.class);
+
+    private static final String SOAP11_FAST_INFOSET = "application/fastinfoset";
+    private static final String SOAP12_FAST_INFOSET = "application/soap+fastinfoset";
+    private static final MediaType SOAP11_FAST_INFOSET_TYPE = MediaType.parseMediaType(SOAP11_FAST_INFOSET);
+    private static final MediaType SOAP12_FAST_INFOSET_TYPE = MediaType.parseMediaType(SOAP12_FAST_INFOSET);
+
+    private static final String SOAP11_XML = "text/xml";
+    private static final String SOAP12_XML = "application/soap+xml";
+
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Les GET servent le WSDL et les XSD : ils restent toujours en XML texte
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean fastInfosetRequest = isFastInfoset(request.getContentType());
+        boolean fastInfosetResponse = fastInfosetRequest || acceptsFastInfoset(request);
+
+        if (!fastInfosetRequest && !fastInfosetResponse) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        HttpServletRequest soapRequest = request;
+        if (fastInfosetRequest) {
+            soapRequest = decodeRequest(request);
+            if (soapRequest == null) {
+                writeClientFault(request, response);
+                return;
+            }
+        }
+        ContentCachingResponseWrapper soapResponse = new ContentCachingResponseWrapper(response);
+
+        filterChain.doFilter(soapRequest, soapResponse);
+
+        byte[] xml = soapResponse.getContentAsByteArray();
+        String contentType = soapResponse.getContentType();
+        if (xml.length == 0 || !isXml(contentType)) {
+            soapResponse.copyBodyToResponse();
+            return;
+        }
+        writeFastInfoset(response, xml, toFastInfosetContentType(contentType));
+    }
+
+    /**
+     * Décode le corps Fast Infoset de la requête en XML texte et expose le type de
+     * contenu SOAP équivalent au MessageDispatcherServlet.
+     *
+     * @return la requête décodée, ou {@code null} si le corps n'est pas un document Fast Infoset valide
+     */
+    private HttpServletRequest decodeRequest(HttpServletRequest request) throws IOException {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream(Math.max(request.getContentLength(), 0) * 2);
+        try {
+            transformerHelper.transform(new FastInfosetSource(request.getInputStream()), new StreamResult(xml));
+        } catch (TransformerException | RuntimeException e) {
+            logger.warn("Requête Fast Infoset illisible : {}", e.getMessage());
+            return null;
+        }
+        return new DecodedRequest(request, toXmlContentType(request.getContentType()), xml.toByteArray());
+    }
+
+    /**
+     * Répond par une faute SOAP de la même version que la requête : le corps reçu n'a pas pu être décodé,
+     * il n'atteint donc jamais le dispatcher qui la produirait d'habitude.
+     */
+    private void writeClientFault(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        boolean soap12 = isSoap12FastInfoset(request.getContentType());
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        try {
+            SOAPMessage fault = MessageFactory.newInstance(
+                    soap12 ? SOAPConstants.SOAP_1_2_PROTOCOL : SOAPConstants.SOAP_1_1_PROTOCOL).createMessage();
+            QName code = soap12
+                    ? SOAPConstants.SOAP_SENDER_FAULT
+                    : new QName(SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, "Client");
+            fault.getSOAPBody().addFault(code, "Corps Fast Infoset illisible", Locale.FRENCH);
+            fault.writeTo(xml);
+        } catch (SOAPException e) {
+            throw new ServletException("Faute SOAP impossible à construire: " + e.getMessage(), e);
+        }
+        // SOAP 1.1 renvoie toutes les fautes en 500 ; SOAP 1.2 renvoie une faute Sender en 400
+        response.setStatus(soap12 ? HttpServletResponse.SC_BAD_REQUEST : HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        writeFastInfoset(response, xml.toByteArray(), soap12 ? SOAP12_FAST_INFOSET : SOAP11_FAST_INFOSET);
+    }
+
+    private void writeFastInfoset(HttpServletResponse response, byte[] xml, String contentType)
+            throws IOException, ServletException {
+        ByteArrayOutputStream fastInfoset = new ByteArrayOutputStream(xml.length / 2);
+        transform(new StreamSource(new ByteArrayInputStream(xml)), new FastInfosetResult(fastInfoset));
+        // Un encodage binaire n'a pas de charset : on retire celui posé par le dispatcher
+        response.setCharacterEncoding(null);
+        response.setContentType(contentType);
+        response.setContentLength(fastInfoset.size());
+        fastInfoset.writeTo(response.getOutputStream());
+    }
+
+    private void transform(Source source, Result result) throws ServletException {
+        try {
+            transformerHelper.transform(source, result);
+        } catch (TransformerException e) {
+            throw new ServletException("Conversion Fast Infoset impossible: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Un type Fast Infoset de qualité nulle ({@code q=0}) est explicitement refusé par le client.
+     * Un en-tête Accept mal formé est ignoré : la réponse reste en XML texte.
+     */
+    private static boolean acceptsFastInfoset(HttpServletRequest request) {
+        Enumeration<String> accept = request.getHeaders(HttpHeaders.ACCEPT);
+        while (accept.hasMoreElements()) {
+            List<MediaType> mediaTypes;
+            try {
+                mediaTypes = MediaType.parseMediaTypes(accept.nextElement());
+            } catch (InvalidMediaTypeException e) {
+                continue;
+            }
+            for (MediaType mediaType : mediaTypes) {
+                if (isFastInfoset(mediaType) && mediaType.getQualityValue() > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFastInfoset(String contentType) {
+        MediaType mediaType = parse(contentType);
+        return mediaType != null && isFastInfoset(mediaType);
+    }
+
+    private static boolean isFastInfoset(MediaType mediaType) {
+        return SOAP11_FAST_INFOSET_TYPE.equalsTypeAndSubtype(mediaType)
+                || SOAP12_FAST_INFOSET_TYPE.equalsTypeAndSubtype(mediaType);
+    }
+
+    private static boolean isSoap12FastInfoset(String contentType) {
+        MediaType mediaType = parse(contentType);
+        return mediaType != null && SOAP12_FAST_INFOSET_TYPE.equalsTypeAndSubtype(mediaType);
+    }
+
+    private static MediaType parse(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isXml(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String value = contentType.toLowerCase(Locale.ROOT);
+        return value.startsWith(SOAP11_XML) || value.startsWith(SOAP12_XML);
+    }
+
+    /**
+     * SOAP 1.2 transporte l'action dans les paramètres du type de contenu : on les conserve
+     * et on remplace seulement le type MIME.
+     */
+    private static String toXmlContentType(String contentType) {
+        String lower = contentType.toLowerCase(Locale.ROOT);
+        if (lower.startsWith(SOAP12_FAST_INFOSET)) {
+            return SOAP12_XML + "; charset=UTF-8" + contentType.substring(SOAP12_FAST_INFOSET.length());
+        }
+        return SOAP11_XML + "; charset=UTF-8";
+    }
+
+    private static String toFastInfosetContentType(String contentType) {
+        String lower = contentType.toLowerCase(Locale.ROOT);
+        return lower.startsWith(SOAP12_XML) ? SOAP12_FAST_INFOSET : SOAP11_FAST_INFOSET;
+    }
+
+    /**
+     * Requête dont le corps a été décodé de Fast Infoset vers XML texte.
+     */
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+
+        private final String contentType;
+        private final byte[] body;
+
+        DecodedRequest(HttpServletRequest request, String contentType, byte[] body) {
+            super(request);
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                return contentType;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(body.length);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(Collections.singletonList(getHeader(name)));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Le corps est déjà en mémoire : il est disponible en entier dès l'enregistrement.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+    }
+}
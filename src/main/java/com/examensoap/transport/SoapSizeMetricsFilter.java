@@ -0,0 +1,214 @@
+package com.examensoap.transport;
+
+import com.examensoap.jfr.SoapReceiveEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Taille des messages SOAP tels qu'ils passent sur le réseau (après encodage Fast Infoset éventuel).
+ * <p>
+ * Les octets lus et écrits sont comptés au fil de l'eau, sans copie du message. L'opération est
+ * celle posée sur la requête par {@code SoapMetricsInterceptor} ; une requête qui n'a atteint
+ * aucun endpoint (enveloppe invalide, ...) est enregistrée avec {@code operation=unknown}.
+ * <p>
+ * Métriques exposées (tag {@code operation}, en octets) : {@code soap.server.request.size} et
+ * {@code soap.server.response.size}.
+ * <p>
+ * Le même passage émet l'événement JFR {@link SoapReceiveEvent} lorsqu'un enregistrement l'a activé.
+ */
+public class SoapSizeMetricsFilter extends OncePerRequestFilter {
+
+    public static final String OPERATION_ATTRIBUTE = SoapSizeMetricsFilter.class.getName() + ".OPERATION";
+
+    private final MeterRegistry meterRegistry;
+
+    public SoapSizeMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Les GET servent le WSDL et les XSD
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CountingRequest countingRequest = new CountingRequest(request);
+        CountingResponse countingResponse = new CountingResponse(response);
+        SoapReceiveEvent event = new SoapReceiveEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(countingRequest, countingResponse);
+        } finally {
+            Object operation = request.getAttribute(OPERATION_ATTRIBUTE);
+            String tag = operation != null ? operation.toString() : "unknown";
+            summary("soap.server.request.size", tag, "Taille des requêtes SOAP reçues")
+                    .record(countingRequest.count());
+            summary("soap.server.response.size", tag, "Taille des réponses SOAP envoyées")
+                    .record(countingResponse.count());
+            commit(event, tag, countingRequest.count(), countingResponse.count(), response.getStatus());
+        }
+    }
+
+    private static void commit(SoapReceiveEvent event, String operation, long requestSize,
+                               long responseSize, int status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.requestSize = requestSize;
+            event.responseSize = responseSize;
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    private DistributionSummary summary(String name, String operation, String description) {
+        return DistributionSummary.builder(name)
+                .tag("operation", operation)
+                .baseUnit("bytes")
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static final class CountingRequest extends HttpServletRequestWrapper {
+
+        private CountingInputStream inputStream;
+
+        CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CountingInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        long count() {
+            return inputStream != null ? inputStream.count : 0;
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        long count() {
+            return outputStream != null ? outputStream.count : 0;
+        }
+    }
+
+    private static final class CountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private long count;
+
+        CountingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Schema tel que le creait Hibernate (ddl-auto=update) avant les migrations.
+-- Une base existante est marquee en version 1 sans execution (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE sectors_entity (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE classes_entity (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    sector_id   BIGINT       NOT NULL,
+    class_name  VARCHAR(255) NOT NULL,
+    description TEXT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_classes_entity_sector FOREIGN KEY (sector_id) REFERENCES sectors_entity (id)
+) ENGINE = InnoDB;
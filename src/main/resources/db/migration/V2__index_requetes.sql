@@ -0,0 +1,5 @@
+-- Index des requetes des repositories.
+-- (sector_id, class_name) sert aussi les recherches sur sector_id seul (findBySectorsId, suppression
+-- en cascade d'une filiere) : un index sur sector_id seul ferait doublon.
+CREATE INDEX idx_classes_entity_sector_class_name ON classes_entity (sector_id, class_name);
+CREATE INDEX idx_sectors_entity_name ON sectors_entity (name);
@@ -0,0 +1,27 @@
+-- Sequence des changements pour la synchronisation incrementale (get*ChangedSinceRequest).
+-- Chaque ecriture prend la valeur suivante de change_sequence_entity en verrouillant sa ligne jusqu'a la
+-- validation : les sequences sont donc visibles dans l'ordre, sans trou comble apres coup.
+-- Les lignes existantes recoivent la sequence 1, pour qu'une synchronisation depuis 0 les renvoie.
+
+CREATE TABLE change_sequence_entity (
+    name      VARCHAR(32) NOT NULL,
+    seq_value BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+INSERT INTO change_sequence_entity (name, seq_value) VALUES ('catalogue', 1);
+
+ALTER TABLE sectors_entity ADD COLUMN updated_seq BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE classes_entity ADD COLUMN updated_seq BIGINT NOT NULL DEFAULT 1;
+CREATE INDEX idx_sectors_entity_updated_seq ON sectors_entity (updated_seq);
+CREATE INDEX idx_classes_entity_updated_seq ON classes_entity (updated_seq);
+
+-- Une ligne par classe ou filiere supprimee, a la sequence de sa suppression
+CREATE TABLE change_tombstone_entity (
+    seq         BIGINT      NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    PRIMARY KEY (seq)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_change_tombstone_entity_type_seq ON change_tombstone_entity (entity_type, seq);
@@ -0,0 +1,119 @@
+package com.examensoap.aot;
+
+import com.examensoap.jfr.JfrEndpoint;
+import com.examensoap.statistics.HibernateQueriesEndpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.ws.server.endpoint.annotation.Endpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hints de l'image native, vérifiés sur ce que le classpath contient réellement : un endpoint, un type
+ * JAXB, une XSD ou une implémentation SAAJ ajouté sans son hint fait échouer ce test plutôt que la
+ * construction native.
+ */
+class SoapRuntimeHintsTests {
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+    private final RuntimeHints hints = new RuntimeHints();
+
+    SoapRuntimeHintsTests() {
+        new SoapRuntimeHints().registerHints(hints, classLoader);
+    }
+
+    @Test
+    void jaxbModelIsReflective() throws Exception {
+        List<String> classNames = new ArrayList<>();
+        for (Resource resource : resolver.getResources("classpath*:com/examensoap/model/*.class")) {
+            String simpleName = resource.getFilename().replace(".class", "");
+            if (!simpleName.equals("package-info")) {
+                classNames.add(SoapRuntimeHints.MODEL_PACKAGE + "." + simpleName);
+            }
+        }
+
+        assertThat(classNames).contains("com.examensoap.model.ObjectFactory", "com.examensoap.model.Sectors");
+        assertThat(classNames).allSatisfy(className -> assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(className))
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS))
+                .as(className).accepts(hints));
+        assertThat(RuntimeHintsPredicates.reflection().onType(
+                ClassUtils.resolveClassName(SoapRuntimeHints.MODEL_PACKAGE + ".package-info", classLoader))).accepts(hints);
+    }
+
+    @Test
+    void schemasAreResources() throws Exception {
+        Resource[] schemas = resolver.getResources("classpath:xsd/*.xsd");
+
+        assertThat(schemas).extracting(Resource::getFilename).contains("Sectors.xsd", "Classes.xsd", "Batch.xsd", "Export.xsd");
+        for (Resource schema : schemas) {
+            assertThat(RuntimeHintsPredicates.resource().forResource("xsd/" + schema.getFilename()))
+                    .as(schema.getFilename()).accepts(hints);
+        }
+    }
+
+    @Test
+    void everyPayloadRootMethodIsInvocable() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Endpoint.class));
+        List<Method> operations = new ArrayList<>();
+        for (BeanDefinition endpoint : scanner.findCandidateComponents(SoapRuntimeHints.ENDPOINT_PACKAGE)) {
+            for (Method method : ClassUtils.resolveClassName(endpoint.getBeanClassName(), classLoader).getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PayloadRoot.class)) {
+                    operations.add(method);
+                }
+            }
+        }
+
+        assertThat(operations).extracting(Method::getName).contains("getSectors", "getClasses", "batch", "exportSnapshot");
+        assertThat(operations).allSatisfy(method -> assertThat(RuntimeHintsPredicates.reflection().onMethod(method).invoke())
+                .as(method.toString()).accepts(hints));
+    }
+
+    @Test
+    void saajImplementationsListedByServiceLoaderAreInstantiable() throws Exception {
+        // Fabriques utilisées par SaajSoapMessageFactory ; SOAPConnectionFactory (client) n'est pas utilisée
+        List<Resource> services = new ArrayList<>();
+        for (String factory : List.of("SAAJMetaFactory", "MessageFactory", "SOAPFactory")) {
+            services.addAll(List.of(resolver.getResources("classpath*:META-INF/services/jakarta.xml.soap." + factory)));
+        }
+
+        assertThat(services).hasSize(3);
+        for (Resource service : services) {
+            assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/" + service.getFilename()))
+                    .as(service.getFilename()).accepts(hints);
+            for (String line : service.getContentAsString(StandardCharsets.UTF_8).lines().toList()) {
+                String implementation = line.replaceAll("#.*", "").trim();
+                if (implementation.isEmpty()) {
+                    continue;
+                }
+                Class<?> type = ClassUtils.resolveClassName(implementation, classLoader);
+                assertThat(RuntimeHintsPredicates.reflection().onConstructor(type.getConstructor()).invoke())
+                        .as(implementation).accepts(hints);
+            }
+        }
+    }
+
+    @Test
+    void actuatorRecordsAreSerializable() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(JfrEndpoint.RecordingInfo.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(HibernateQueriesEndpoint.QueryAggregate.class)).accepts(hints);
+    }
+}
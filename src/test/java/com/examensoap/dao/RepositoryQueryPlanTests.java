@@ -0,0 +1,207 @@
+package com.examensoap.dao;
+
+import com.examensoap.entity.ChangeTombstoneEntity;
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.entity.SectorsEntity;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans d'exécution des requêtes des repositories sur le schéma des migrations Flyway.
+ * <p>
+ * Chaque requête SQL émise par Hibernate est passée à {@code EXPLAIN} ; le test échoue si l'une
+ * d'elles parcourt toute une table. La base est H2 en mode MySQL : le plan est celui de H2, mais il
+ * ne trouve un index que si les migrations l'ont créé. {@code ddl-auto=validate} vérifie aussi que
+ * les migrations correspondent aux entités.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.examensoap.dao.RepositoryQueryPlanTests$CapturedStatements"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTests {
+
+    private static final int SECTORS = 20;
+    private static final int CLASSES_PER_SECTOR = 10;
+    // ANALYZE valide la transaction : les lignes d'un test restent pour les suivants
+    private static long seq = 1;
+
+    @Autowired
+    private ClassesRepository classesRepository;
+    @Autowired
+    private SectorsRepository sectorsRepository;
+    @Autowired
+    private ChangeSequenceRepository changeSequenceRepository;
+    @Autowired
+    private ChangeTombstoneRepository changeTombstoneRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> sectorIds = new ArrayList<>();
+    private final List<Long> classIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        // Assez de lignes pour qu'un parcours de table coûte plus cher qu'une lecture d'index
+        for (int s = 0; s < SECTORS; s++) {
+            SectorsEntity sector = new SectorsEntity();
+            sector.setName("Filière " + s);
+            sector.setUpdatedSeq(++seq);
+            entityManager.persist(sector);
+            sectorIds.add(sector.getId());
+            for (int c = 0; c < CLASSES_PER_SECTOR; c++) {
+                ClassesEntity classe = new ClassesEntity(null, "Classe " + s + "-" + c, "Description", sector, ++seq);
+                entityManager.persist(classe);
+                classIds.add(classe.getId());
+            }
+        }
+        for (int t = 0; t < SECTORS * CLASSES_PER_SECTOR; t++) {
+            entityManager.persist(new ChangeTombstoneEntity(++seq, t % 2 == 0
+                    ? ChangeTombstoneEntity.EntityType.CLASSES : ChangeTombstoneEntity.EntityType.SECTORS, (long) t));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void findClassesById() {
+        assertNoTableScan(() -> classesRepository.findById(classIds.get(5)));
+    }
+
+    @Test
+    void findClassesByIdWithSectors() {
+        assertNoTableScan(() -> classesRepository.findByIdWithSectors(classIds.get(5)));
+    }
+
+    @Test
+    void findAllClassesById() {
+        assertNoTableScan(() -> classesRepository.findAllById(classIds.subList(0, 3)));
+    }
+
+    @Test
+    void findClassesBySector() {
+        assertNoTableScan(() -> classesRepository.findBySectorsId(sectorIds.get(3)));
+    }
+
+    @Test
+    void countClassesBySector() {
+        // Lue par la réconciliation seulement, mais doit se contenter de l'index de la clé étrangère
+        assertNoTableScan(() -> classesRepository.countBySector());
+    }
+
+    @Test
+    void findClassesChangedSince() {
+        assertNoTableScan(() -> classesRepository.findChangedSince(10, 20, Limit.of(5)));
+    }
+
+    @Test
+    void deleteClasses() {
+        assertNoTableScan(() -> {
+            Long id = classIds.get(7);
+            if (classesRepository.existsById(id)) {
+                classesRepository.deleteById(id);
+            }
+        });
+    }
+
+    @Test
+    void findSectorsById() {
+        assertNoTableScan(() -> sectorsRepository.findById(sectorIds.get(2)));
+    }
+
+    @Test
+    void findAllSectorsById() {
+        assertNoTableScan(() -> sectorsRepository.findAllById(sectorIds.subList(0, 3)));
+    }
+
+    @Test
+    void findSectorsChangedSince() {
+        assertNoTableScan(() -> sectorsRepository.findChangedSince(10, 20, Limit.of(5)));
+    }
+
+    @Test
+    void findTombstonesChangedSince() {
+        assertNoTableScan(() -> changeTombstoneRepository.findChangedSince(
+                ChangeTombstoneEntity.EntityType.CLASSES, 10, 20, Limit.of(5)));
+    }
+
+    @Test
+    void lockChangeSequence() {
+        assertNoTableScan(() -> changeSequenceRepository.findForUpdate("catalogue"));
+    }
+
+    @Test
+    void deleteSectorsWithItsClasses() {
+        // La suppression en cascade charge d'abord les classes de la filière
+        assertNoTableScan(() -> sectorsRepository.deleteById(sectorIds.get(4)));
+    }
+
+    private void assertNoTableScan(Runnable operation) {
+        CapturedStatements.STATEMENTS.clear();
+        operation.run();
+        entityManager.flush();
+
+        List<String> statements = CapturedStatements.STATEMENTS.stream()
+                .filter(sql -> !sql.regionMatches(true, 0, "insert", 0, 6))
+                .toList();
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            assertThat(explain(sql)).as("Plan de %s", sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            // Les requêtes ne prennent que des identifiants, des séquences et des limites : la valeur ne change pas le plan
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setLong(i, 1L);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Relève le SQL envoyé par Hibernate ; déclaré par {@code hibernate.session_factory.statement_inspector}.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.examensoap.datasource;
+
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.entity.SectorsEntity;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routage primaire / réplica sur deux bases H2 embarquées qui ont le même schéma mais pas les mêmes
+ * lignes : le nom de la filière lue dit quelle base a répondu.
+ */
+@SpringBootTest(properties = {
+        "examensoap.datasource.replicas[0].url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "examensoap.datasource.replicas[0].username=sa",
+        "examensoap.datasource.replicas[0].password=",
+        "examensoap.datasource.replicas[0].driver-class-name=org.h2.Driver",
+        "examensoap.datasource.lag-query=SELECT 0",
+        "examensoap.datasource.check-interval=1h"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:replica-routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private SectorsRepository sectorsRepository;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createReplica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replica).load().migrate();
+        new JdbcTemplate(replica).update(
+                "MERGE INTO sectors_entity (id, name, updated_seq) VALUES (1000, 'from-replica', 0)");
+    }
+
+    @BeforeEach
+    void markReplicaHealthy() {
+        replicaLagMonitor.checkReplicas();
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        SectorsEntity sector = new SectorsEntity();
+        sector.setName("written");
+        transaction(false).executeWithoutResult(status -> sectorsRepository.save(sector));
+
+        assertThat(countByName(new JdbcTemplate(primaryDataSource), "written")).isEqualTo(1);
+        assertThat(countByName(new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")), "written"))
+                .isZero();
+    }
+
+    @Test
+    void readWriteTransactionReadsPrimary() {
+        new JdbcTemplate(primaryDataSource).update(
+                "MERGE INTO sectors_entity (id, name, updated_seq) VALUES (2000, 'from-primary', 0)");
+
+        List<String> names = transaction(false).execute(status -> names(sectorsRepository.findAll()));
+
+        assertThat(names).contains("from-primary").doesNotContain("from-replica");
+    }
+
+    @Test
+    void readOnlyTransactionReadsReplica() {
+        List<String> names = transaction(true).execute(status -> names(sectorsRepository.findAll()));
+
+        assertThat(names).containsExactly("from-replica");
+    }
+
+    @Test
+    void repositoryReadOutsideTransactionReadsReplica() {
+        // SimpleJpaRepository.findAll est @Transactional(readOnly = true) : sans transaction appelante,
+        // la lecture ouvre sa propre transaction en lecture seule
+        assertThat(names(sectorsRepository.findAll())).containsExactly("from-replica");
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private static List<String> names(List<SectorsEntity> sectors) {
+        return sectors.stream().map(SectorsEntity::getName).toList();
+    }
+
+    private static int countByName(JdbcTemplate jdbcTemplate, String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sectors_entity WHERE name = ?", Integer.class, name);
+    }
+}
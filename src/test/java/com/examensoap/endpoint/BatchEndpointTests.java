@@ -0,0 +1,205 @@
+package com.examensoap.endpoint;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.examensoap.interceptor.PayloadTracingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lots de requêtes de bout en bout, sur HTTP : ordre des résultats, lecture après écriture, erreurs par
+ * élément, limites du lot, et contexte HTTP transmis aux lectures exécutées sur l'exécuteur.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BatchEndpointTests {
+
+    private static final String BATCH = "http://examensoap.com/Batch";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void resultsComeBackInRequestOrder() throws Exception {
+        String name = "Lot-" + UUID.randomUUID();
+        add(name);
+
+        List<Element> results = batch(200,
+                "<s:getAllSectorsRequest/>",
+                "<c:getAllClassesRequest/>",
+                "<s:suggestSectorsRequest><s:prefix>" + name + "</s:prefix></s:suggestSectorsRequest>",
+                "<s:getSectorStatsRequest/>",
+                "<s:getAllSectorsRequest/>");
+
+        assertThat(results).hasSize(5);
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).getAttribute("index")).isEqualTo(String.valueOf(i));
+        }
+        assertThat(results).extracting(BatchEndpointTests::responseName).containsExactly(
+                "getAllSectorsResponse", "getAllClassesResponse", "suggestSectorsResponse",
+                "getSectorStatsResponse", "getAllSectorsResponse");
+        assertThat(results.get(2).getTextContent()).contains(name);
+    }
+
+    @Test
+    void readAfterWriteSeesTheWrite() throws Exception {
+        String name = "Lot-" + UUID.randomUUID();
+
+        List<Element> results = batch(200,
+                "<s:getAllSectorsRequest/>",
+                "<s:addSectorsRequest><s:sectors><s:id>0</s:id><s:name>" + name + "</s:name></s:sectors></s:addSectorsRequest>",
+                "<s:getAllSectorsRequest/>");
+
+        assertThat(responseName(results.get(1))).isEqualTo("addSectorsResponse");
+        assertThat(results.get(0).getTextContent()).doesNotContain(name);
+        assertThat(results.get(2).getTextContent()).contains(name);
+    }
+
+    @Test
+    void eachItemHasItsOwnFault() throws Exception {
+        List<Element> results = batch(200,
+                "<s:suggestSectorsRequest><s:prefix>a</s:prefix><s:limit>0</s:limit></s:suggestSectorsRequest>",
+                "<s:getAllSectorsRequest/>",
+                "<s:inconnuRequest/>");
+
+        assertThat(fault(results.get(0))).contains("Nombre de suggestions invalide");
+        assertThat(fault(results.get(1))).isNull();
+        assertThat(responseName(results.get(1))).isEqualTo("getAllSectorsResponse");
+        assertThat(fault(results.get(2))).contains("inconnuRequest");
+    }
+
+    @Test
+    void nestedBatchIsRejected() throws Exception {
+        List<Element> results = batch(200,
+                "<b:batchRequest><s:getAllSectorsRequest/></b:batchRequest>",
+                "<s:getAllSectorsRequest/>");
+
+        assertThat(fault(results.get(0))).isEqualTo("Les lots imbriqués ne sont pas supportés");
+        assertThat(responseName(results.get(1))).isEqualTo("getAllSectorsResponse");
+    }
+
+    @Test
+    void maxItemsIsEnforced() throws Exception {
+        String[] items = new String[51];
+        Arrays.fill(items, "<s:getAllSectorsRequest/>");
+
+        HttpResponse<String> response = send(items, null);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).contains("Le lot contient 51 requêtes (maximum 50)");
+        assertThat(batch(200, Arrays.copyOf(items, 50))).hasSize(50);
+    }
+
+    @Test
+    void parallelReadsSeeTheHttpRequest() throws Exception {
+        // La trace à la demande lit l'adresse et les en-têtes HTTP : elle ne voit les lectures du lot,
+        // exécutées sur d'autres threads, que si le contexte de transport leur est transmis
+        Logger logger = (Logger) LoggerFactory.getLogger(PayloadTracingInterceptor.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        Level previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            HttpResponse<String> response = send(new String[]{
+                    "<s:getAllSectorsRequest/>", "<s:getSectorStatsRequest/>"}, "true");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(appender.list).extracting(event -> event.getArgumentArray()[1])
+                    .contains("batchRequest", "getAllSectorsRequest", "getSectorStatsRequest");
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(previousLevel);
+        }
+    }
+
+    @Test
+    void sizeIsRecordedUnderTheBatchOperation() throws Exception {
+        batch(200, "<s:getAllSectorsRequest/>", "<s:getSectorStatsRequest/>", "<s:getAllSectorsRequest/>");
+
+        // Les éléments, lus sur l'exécuteur avec la requête HTTP du lot, ne remplacent pas son opération
+        assertThat(meterRegistry.find("soap.server.request.size").tag("operation", "batchRequest").summary())
+                .isNotNull();
+        assertThat(meterRegistry.find("soap.server.request.size").tag("operation", "getSectorStatsRequest").summary())
+                .isNull();
+    }
+
+    private void add(String name) throws Exception {
+        batch(200, "<s:addSectorsRequest><s:sectors><s:id>0</s:id><s:name>" + name + "</s:name></s:sectors></s:addSectorsRequest>");
+    }
+
+    private List<Element> batch(int expectedStatus, String... items) throws Exception {
+        HttpResponse<String> response = send(items, null);
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(expectedStatus);
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(response.body().getBytes(StandardCharsets.UTF_8)));
+        NodeList nodes = document.getElementsByTagNameNS(BATCH, "result");
+        List<Element> results = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            results.add((Element) nodes.item(i));
+        }
+        return results;
+    }
+
+    private HttpResponse<String> send(String[] items, String traceHeader) throws Exception {
+        String envelope = """
+                <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/"
+                                  xmlns:b="http://examensoap.com/Batch"
+                                  xmlns:s="http://examensoap.com/Sectors"
+                                  xmlns:c="http://examensoap.com/Classes">
+                  <soapenv:Body><b:batchRequest>%s</b:batchRequest></soapenv:Body>
+                </soapenv:Envelope>""".formatted(String.join("", items));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ws"))
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(envelope));
+        if (traceHeader != null) {
+            request.header("X-Soap-Trace", traceHeader);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String responseName(Element result) {
+        for (Node child = result.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element element && !BATCH.equals(element.getNamespaceURI())) {
+                return element.getLocalName();
+            }
+        }
+        return null;
+    }
+
+    private static String fault(Element result) {
+        NodeList faults = result.getElementsByTagNameNS(BATCH, "fault");
+        return faults.getLength() == 0 ? null : faults.item(0).getTextContent();
+    }
+}
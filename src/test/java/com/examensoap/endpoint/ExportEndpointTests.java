@@ -0,0 +1,123 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.exception.ServiceException;
+import com.examensoap.export.SnapshotExporter;
+import com.examensoap.model.ExportDelivery;
+import com.examensoap.model.ExportSnapshotRequest;
+import com.examensoap.model.ExportSnapshotResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.transport.context.DefaultTransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Réponse de l'export, contrôle de l'adresse du client et erreurs de {@link SnapshotExporter}.
+ */
+class ExportEndpointTests {
+
+    private static final SnapshotExporter.SnapshotExport EXPORT = new SnapshotExporter.SnapshotExport(
+            Path.of("/var/lib/examensoap/export/catalogue-20261019T030000Z.ndjson.gz"), 42, 2, 3, 128,
+            Duration.ofMillis(5));
+
+    private final SnapshotExporter snapshotExporter = mock(SnapshotExporter.class);
+
+    @AfterEach
+    void clearTransport() {
+        TransportContextHolder.setTransportContext(null);
+    }
+
+    @Test
+    void fileDeliveryReturnsOnlyFileName() throws Exception {
+        when(snapshotExporter.export()).thenReturn(EXPORT);
+        from("127.0.0.1");
+
+        ExportSnapshotResponse response = export(endpoint("127.0.0.1/32,::1/128"));
+
+        assertThat(response.getFileName()).isEqualTo("catalogue-20261019T030000Z.ndjson.gz");
+        assertThat(response.getPath()).isEqualTo("catalogue-20261019T030000Z.ndjson.gz");
+        assertThat(response.getChangeSequence()).isEqualTo(42);
+        assertThat(response.getClasses()).isEqualTo(3);
+    }
+
+    @Test
+    void exportAlreadyRunningGivesErrorResponse() throws Exception {
+        when(snapshotExporter.export()).thenThrow(new ServiceException("Un export est déjà en cours"));
+        from("::1");
+
+        ExportSnapshotResponse response = export(endpoint("127.0.0.1/32,::1/128"));
+
+        assertThat(response.getFileName()).isEqualTo("Erreur: Un export est déjà en cours");
+        assertThat(response.getChangeSequence()).isEqualTo(-1);
+        assertThat(response.getPath()).isNull();
+    }
+
+    @Test
+    void clientOutsideAllowedNetworksIsRefused() throws Exception {
+        from("10.1.2.3");
+
+        ExportSnapshotResponse response = export(endpoint("127.0.0.1/32,::1/128"));
+
+        assertThat(response.getFileName()).startsWith("Erreur: Export non autorisé");
+        assertThat(response.getChangeSequence()).isEqualTo(-1);
+        verify(snapshotExporter, never()).export();
+    }
+
+    @Test
+    void clientInsideConfiguredNetworkIsAccepted() throws Exception {
+        when(snapshotExporter.export()).thenReturn(EXPORT);
+        from("10.1.2.3");
+
+        assertThat(export(endpoint("10.0.0.0/8")).getChangeSequence()).isEqualTo(42);
+    }
+
+    @Test
+    void requestWithoutHttpClientIsRefused() throws Exception {
+        ExportSnapshotResponse response = export(endpoint("0.0.0.0/0"));
+
+        assertThat(response.getChangeSequence()).isEqualTo(-1);
+        verify(snapshotExporter, never()).export();
+    }
+
+    private ExportEndpoint endpoint(String allowedNetworks) throws Exception {
+        return new ExportEndpoint(snapshotExporter, List.of(allowedNetworks.split(",")));
+    }
+
+    private static void from(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        HttpServletConnection connection = mock(HttpServletConnection.class);
+        when(connection.getHttpServletRequest()).thenReturn(request);
+        TransportContextHolder.setTransportContext(new DefaultTransportContext(connection));
+    }
+
+    private static ExportSnapshotResponse export(ExportEndpoint endpoint) throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        MessageContext messageContext = new DefaultMessageContext(messageFactory);
+        ExportSnapshotRequest request = new ExportSnapshotRequest();
+        request.setDelivery(ExportDelivery.FILE);
+
+        endpoint.exportSnapshot(request, messageContext);
+
+        Jaxb2Marshaller unmarshaller = new Jaxb2Marshaller();
+        unmarshaller.setClassesToBeBound(ExportSnapshotResponse.class);
+        unmarshaller.afterPropertiesSet();
+        return (ExportSnapshotResponse) unmarshaller.unmarshal(messageContext.getResponse().getPayloadSource());
+    }
+}
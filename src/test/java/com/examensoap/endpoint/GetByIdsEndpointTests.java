@@ -0,0 +1,166 @@
+package com.examensoap.endpoint;
+
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.dto.ClassesDto;
+import com.examensoap.dto.SectorsDto;
+import com.examensoap.exception.ServiceException;
+import com.examensoap.mapper.SectorsSoapMapperImpl;
+import com.examensoap.model.Classes;
+import com.examensoap.model.GetClassesByIdsRequest;
+import com.examensoap.model.GetClassesByIdsResponse;
+import com.examensoap.model.GetSectorsByIdsRequest;
+import com.examensoap.model.GetSectorsByIdsResponse;
+import com.examensoap.model.Sectors;
+import com.examensoap.readmodel.CatalogueReadModel;
+import com.examensoap.service.impl.ClassesService;
+import com.examensoap.service.impl.SectorsService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * getSectorsByIdsRequest et getClassesByIdsRequest sur la base H2 du profil {@code test} (modèle de lecture
+ * désactivé, donc requêtes {@code IN} découpées par 500 IDs) : ordre, doublons, IDs manquants et erreurs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetByIdsEndpointTests {
+
+    private static final long MISSING = 9_000_000;
+
+    @Autowired
+    private SectorsEndpoint sectorsEndpoint;
+    @Autowired
+    private ClassesEndpoint classesEndpoint;
+    @Autowired
+    private SectorsService sectorsService;
+    @Autowired
+    private ClassesService classesService;
+
+    private final List<Long> sectorIds = new ArrayList<>();
+    private final List<Long> classIds = new ArrayList<>();
+
+    @BeforeAll
+    void createCatalogue() {
+        for (int i = 0; i < 700; i++) {
+            sectorIds.add(sectorsService.createSectors(new SectorsDto(null, "Multi-get " + i)).getId());
+        }
+        for (int i = 0; i < 5; i++) {
+            classIds.add(classesService.createClasse(
+                    new ClassesDto(null, "Classe " + i, "Description", sectorIds.get(i))).getId());
+        }
+    }
+
+    @Test
+    void sectorsComeBackInRequestedOrder() {
+        List<Long> ids = List.of(sectorIds.get(3), sectorIds.get(0), sectorIds.get(2));
+
+        GetSectorsByIdsResponse response = sectorsEndpoint.getSectorsByIds(sectorsRequest(ids));
+
+        assertThat(response.getSectorsList()).extracting(Sectors::getId).containsExactlyElementsOf(ids);
+        assertThat(response.getMissingId()).isEmpty();
+    }
+
+    @Test
+    void duplicatesAreReturnedOnceAtFirstPosition() {
+        Long a = sectorIds.get(1);
+        Long b = sectorIds.get(4);
+
+        GetSectorsByIdsResponse response = sectorsEndpoint.getSectorsByIds(
+                sectorsRequest(List.of(b, a, b, MISSING, a, MISSING)));
+
+        assertThat(response.getSectorsList()).extracting(Sectors::getId).containsExactly(b, a);
+        assertThat(response.getMissingId()).containsExactly(MISSING);
+    }
+
+    @Test
+    void missingIdsAreListedInRequestedOrder() {
+        GetClassesByIdsResponse response = classesEndpoint.getClassesByIds(
+                classesRequest(List.of(MISSING + 2, classIds.get(1), MISSING + 1, classIds.get(0))));
+
+        assertThat(response.getClassesList()).extracting(Classes::getId).containsExactly(classIds.get(1), classIds.get(0));
+        assertThat(response.getMissingId()).containsExactly(MISSING + 2, MISSING + 1);
+    }
+
+    @Test
+    void moreThan500IdsAreReadInChunksAndKeepOrder() {
+        // 700 filières dans un ordre aléatoire, avec 100 IDs inexistants intercalés : deux requêtes IN (500 + 300)
+        List<Long> ids = new ArrayList<>(sectorIds);
+        LongStream.range(0, 100).forEach(i -> ids.add(MISSING + i));
+        Collections.shuffle(ids, new Random(42));
+
+        GetSectorsByIdsResponse response = sectorsEndpoint.getSectorsByIds(sectorsRequest(ids));
+
+        assertThat(response.getSectorsList()).extracting(Sectors::getId)
+                .containsExactlyElementsOf(ids.stream().filter(sectorIds::contains).toList());
+        assertThat(response.getMissingId())
+                .containsExactlyElementsOf(ids.stream().filter(id -> id >= MISSING).toList());
+    }
+
+    @Test
+    void inClauseHoldsAtMost500Ids() {
+        SectorsRepository repository = mock(SectorsRepository.class);
+        CatalogueReadModel readModel = mock(CatalogueReadModel.class);
+        SectorsService service = new SectorsService(repository, null, new SectorsSoapMapperImpl(), null,
+                mock(PlatformTransactionManager.class), null, null, null, null, null, readModel);
+        List<Long> ids = LongStream.rangeClosed(1, 1000).boxed().toList();
+
+        service.getSectorsByIds(ids);
+
+        ArgumentCaptor<List<Long>> chunks = ArgumentCaptor.captor();
+        verify(repository, times(2)).findAllById(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(500, 500);
+    }
+
+    @Test
+    void tooManyIdsIsAFault() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        assertThatThrownBy(() -> classesEndpoint.getClassesByIds(classesRequest(ids)))
+                .isInstanceOf(ServiceException.class)
+                .hasMessageContaining("maximum 1000");
+    }
+
+    @Test
+    void readErrorIsAFaultNotAnEmptyAnswer() {
+        SectorsService failing = mock(SectorsService.class);
+        when(failing.getSectorsByIds(any())).thenThrow(new DataAccessResourceFailureException("base indisponible"));
+        SectorsEndpoint endpoint = new SectorsEndpoint(failing, 1000, 10, 50, 500, 5000);
+
+        assertThatThrownBy(() -> endpoint.getSectorsByIds(sectorsRequest(List.of(1L, 2L))))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    private static GetSectorsByIdsRequest sectorsRequest(List<Long> ids) {
+        GetSectorsByIdsRequest request = new GetSectorsByIdsRequest();
+        request.getId().addAll(ids);
+        return request;
+    }
+
+    private static GetClassesByIdsRequest classesRequest(List<Long> ids) {
+        GetClassesByIdsRequest request = new GetClassesByIdsRequest();
+        request.getId().addAll(ids);
+        return request;
+    }
+}
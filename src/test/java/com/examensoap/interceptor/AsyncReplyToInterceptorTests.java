@@ -0,0 +1,132 @@
+package com.examensoap.interceptor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réponses asynchrones WS-Addressing de bout en bout : l'application écoute sur un port libre et un
+ * serveur HTTP local joue le rôle de l'adresse {@code ReplyTo}. Le profil {@code test} autorise
+ * uniquement {@code localhost}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AsyncReplyToInterceptorTests {
+
+    private static final String ADDRESSING = "http://www.w3.org/2005/08/addressing";
+    private static final String SECTORS = "http://examensoap.com/Sectors";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final BlockingQueue<String> callbacks = new LinkedBlockingQueue<>();
+    private HttpServer callbackServer;
+
+    @BeforeEach
+    void startCallbackServer() throws IOException {
+        callbackServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        callbackServer.createContext("/callback", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+            callbacks.add(body);
+        });
+        callbackServer.start();
+    }
+
+    @AfterEach
+    void stopCallbackServer() {
+        callbackServer.stop(1);
+    }
+
+    @Test
+    void acknowledgesAndPostsResponseToAllowedReplyTo() throws Exception {
+        String messageId = "urn:uuid:" + UUID.randomUUID();
+
+        HttpResponse<String> acknowledgement = send(messageId, callbackAddress(), null);
+
+        assertThat(acknowledgement.statusCode()).isEqualTo(202);
+        assertThat(acknowledgement.body()).isEmpty();
+        String reply = callbacks.poll(10, TimeUnit.SECONDS);
+        assertThat(reply).isNotNull()
+                .contains("getAllSectorsResponse")
+                .contains("RelatesTo")
+                .contains(messageId);
+    }
+
+    @Test
+    void rejectsReplyToOutsideAllowedHosts() throws Exception {
+        HttpResponse<String> response = send("urn:uuid:" + UUID.randomUUID(),
+                "http://169.254.169.254/latest/meta-data", null);
+
+        assertFaultWithoutCallback(response);
+    }
+
+    @Test
+    void rejectsReplyToWithOtherScheme() throws Exception {
+        HttpResponse<String> response = send("urn:uuid:" + UUID.randomUUID(),
+                "file://localhost/etc/passwd", null);
+
+        assertFaultWithoutCallback(response);
+    }
+
+    @Test
+    void rejectsFaultToOutsideAllowedHosts() throws Exception {
+        HttpResponse<String> response = send("urn:uuid:" + UUID.randomUUID(),
+                callbackAddress(), "http://10.0.0.1:8080/faults");
+
+        assertFaultWithoutCallback(response);
+    }
+
+    private void assertFaultWithoutCallback(HttpResponse<String> response) throws InterruptedException {
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.body()).contains("Fault").contains("Adresse de réponse non autorisée");
+        assertThat(callbacks.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private String callbackAddress() {
+        return "http://localhost:" + callbackServer.getAddress().getPort() + "/callback";
+    }
+
+    private HttpResponse<String> send(String messageId, String replyTo, String faultTo) throws Exception {
+        String envelope = """
+                <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/"
+                                  xmlns:wsa="%s" xmlns:s="%s">
+                    <soapenv:Header>
+                        <wsa:Action>%s/getAllSectorsRequest</wsa:Action>
+                        <wsa:MessageID>%s</wsa:MessageID>
+                        <wsa:ReplyTo><wsa:Address>%s</wsa:Address></wsa:ReplyTo>
+                        %s
+                    </soapenv:Header>
+                    <soapenv:Body><s:getAllSectorsRequest/></soapenv:Body>
+                </soapenv:Envelope>
+                """.formatted(ADDRESSING, SECTORS, SECTORS, messageId, replyTo,
+                faultTo == null ? "" : "<wsa:FaultTo><wsa:Address>" + faultTo + "</wsa:Address></wsa:FaultTo>");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ws/"))
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .header("SOAPAction", "\"\"")
+                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
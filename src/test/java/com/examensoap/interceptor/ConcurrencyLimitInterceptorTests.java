@@ -0,0 +1,101 @@
+package com.examensoap.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Limite d'une requête à la fois par opération : rejet en faute SOAP au-delà, slot rendu en fin d'échange.
+ */
+class ConcurrencyLimitInterceptorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(meterRegistry, "vegas", 1, 1);
+
+    @Test
+    void requestBeyondTheLimitGetsAFault() throws Exception {
+        assertThat(interceptor.handleRequest(messageContext(), endpoint())).isTrue();
+
+        MessageContext rejected = messageContext();
+        assertThat(interceptor.handleRequest(rejected, endpoint())).isFalse();
+
+        SoapMessage response = (SoapMessage) rejected.getResponse();
+        assertThat(response.hasFault()).isTrue();
+        assertThat(response.getSoapBody().getFault().getFaultStringOrReason())
+                .contains("Service surchargé").contains("getSectorsRequest");
+        assertThat(meterRegistry.get("soap.concurrency.rejected").tag("operation", "getSectorsRequest")
+                .counter().count()).isEqualTo(1);
+        assertThat(inflight()).isEqualTo(1);
+    }
+
+    @Test
+    void successReleasesTheSlot() throws Exception {
+        MessageContext first = messageContext();
+        interceptor.handleRequest(first, endpoint());
+
+        interceptor.afterCompletion(first, endpoint(), null);
+
+        assertThat(inflight()).isZero();
+        assertThat(first.getPropertyNames()).isEmpty();
+        assertThat(interceptor.handleRequest(messageContext(), endpoint())).isTrue();
+    }
+
+    @Test
+    void errorReleasesTheSlot() throws Exception {
+        MessageContext first = messageContext();
+        interceptor.handleRequest(first, endpoint());
+
+        interceptor.afterCompletion(first, endpoint(), new IllegalStateException("échec"));
+
+        assertThat(inflight()).isZero();
+        assertThat(interceptor.handleRequest(messageContext(), endpoint())).isTrue();
+    }
+
+    @Test
+    void rejectedRequestHasNoSlotToRelease() throws Exception {
+        interceptor.handleRequest(messageContext(), endpoint());
+        MessageContext rejected = messageContext();
+        interceptor.handleRequest(rejected, endpoint());
+
+        interceptor.afterCompletion(rejected, endpoint(), null);
+
+        assertThat(inflight()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownAlgorithmIsRefused() {
+        assertThat(new ConcurrencyLimitInterceptor(meterRegistry, "Gradient2", 20, 200)).isNotNull();
+        assertThatThrownBy(() -> new ConcurrencyLimitInterceptor(meterRegistry, "vegass", 20, 200))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("vegass");
+    }
+
+    private double inflight() {
+        return meterRegistry.get("soap.concurrency.inflight").tag("operation", "getSectorsRequest").gauge().value();
+    }
+
+    private static MessageContext messageContext() throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        return new DefaultMessageContext(messageFactory);
+    }
+
+    private static MethodEndpoint endpoint() throws NoSuchMethodException {
+        return new MethodEndpoint(new Operations(), Operations.class.getMethod("getSectors"));
+    }
+
+    static class Operations {
+
+        @PayloadRoot(namespace = "http://examensoap.com/Sectors", localPart = "getSectorsRequest")
+        public void getSectors() {
+        }
+    }
+}
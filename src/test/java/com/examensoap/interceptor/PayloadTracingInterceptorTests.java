@@ -0,0 +1,155 @@
+package com.examensoap.interceptor;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.transport.context.DefaultTransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+import org.springframework.xml.transform.StringSource;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.transform.Result;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Choix des requêtes tracées (échantillonnage, en-tête {@code X-Soap-Trace} selon l'adresse du client)
+ * et contenu des lignes de trace.
+ */
+class PayloadTracingInterceptorTests {
+
+    private static final String LOCAL = "127.0.0.1/32,::1/128";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(PayloadTracingInterceptor.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    void captureLogs() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void restore() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        TransportContextHolder.setTransportContext(null);
+    }
+
+    @Test
+    void notSampledAndNoHeaderIsNotTraced() throws Exception {
+        from("127.0.0.1", null);
+
+        exchange(interceptor(0, 65536, LOCAL));
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void sampledRequestLogsRequestAndResponseWithSameTraceId() throws Exception {
+        MessageContext messageContext = exchange(interceptor(1, 65536, ""));
+
+        assertThat(appender.list).hasSize(2);
+        Object[] request = appender.list.get(0).getArgumentArray();
+        Object[] response = appender.list.get(1).getArgumentArray();
+        assertThat(request[0]).isEqualTo(response[0]);
+        assertThat((String) request[2]).contains("getSectorsRequest");
+        assertThat((String) response[3]).contains("getSectorsResponse");
+        // Retiré en fin d'échange
+        assertThat(messageContext.getPropertyNames()).isEmpty();
+    }
+
+    @Test
+    void headerFromAllowedNetworkIsTraced() throws Exception {
+        from("127.0.0.1", "true");
+
+        exchange(interceptor(0, 65536, LOCAL));
+
+        assertThat(appender.list).hasSize(2);
+    }
+
+    @Test
+    void headerFromOtherNetworkIsIgnored() throws Exception {
+        from("203.0.113.7", "true");
+
+        exchange(interceptor(0, 65536, LOCAL));
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void headerIsIgnoredWhenNoNetworkIsAllowed() throws Exception {
+        from("127.0.0.1", "true");
+
+        exchange(interceptor(0, 65536, ""));
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void headerMustBeTrue() throws Exception {
+        from("127.0.0.1", "non");
+
+        exchange(interceptor(0, 65536, LOCAL));
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void longEnvelopesAreTruncated() throws Exception {
+        exchange(interceptor(1, 40, ""));
+
+        String request = (String) appender.list.get(0).getArgumentArray()[2];
+        assertThat(request).hasSizeLessThan(100).contains("caractères tronqués]");
+    }
+
+    private static PayloadTracingInterceptor interceptor(double sampleRate, int maxLength, String networks) {
+        return new PayloadTracingInterceptor(sampleRate, maxLength, List.of(networks.split(",")));
+    }
+
+    private static void from(String remoteAddress, String traceHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws");
+        request.setRemoteAddr(remoteAddress);
+        if (traceHeader != null) {
+            request.addHeader("X-Soap-Trace", traceHeader);
+        }
+        TransportContextHolder.setTransportContext(new DefaultTransportContext(
+                new HttpServletConnection(request, new MockHttpServletResponse()) {
+                }));
+    }
+
+    // Requête getSectorsRequest puis réponse, comme le ferait le dispatcher
+    private static MessageContext exchange(PayloadTracingInterceptor interceptor) throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        MessageContext messageContext = new DefaultMessageContext(messageFactory);
+        payload("<s:getSectorsRequest xmlns:s=\"http://examensoap.com/Sectors\"><s:id>1</s:id></s:getSectorsRequest>",
+                messageContext.getRequest().getPayloadResult());
+
+        interceptor.handleRequest(messageContext, null);
+        payload("<s:getSectorsResponse xmlns:s=\"http://examensoap.com/Sectors\"/>",
+                messageContext.getResponse().getPayloadResult());
+        interceptor.handleResponse(messageContext, null);
+        interceptor.afterCompletion(messageContext, null, null);
+        return messageContext;
+    }
+
+    private static void payload(String xml, Result result) throws Exception {
+        new TransformerHelper().transform(new StringSource(xml), result);
+    }
+}
@@ -0,0 +1,138 @@
+package com.examensoap.interceptor;
+
+import com.examensoap.transport.SoapSizeMetricsFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.transport.context.DefaultTransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Issue de chaque requête ({@code soap.server.requests}), fautes comptées par code et opération posée sur
+ * la requête HTTP pour {@link SoapSizeMetricsFilter}.
+ */
+class SoapMetricsInterceptorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SoapMetricsInterceptor interceptor = new SoapMetricsInterceptor(meterRegistry);
+
+    @AfterEach
+    void clearTransportContext() {
+        TransportContextHolder.setTransportContext(null);
+    }
+
+    @Test
+    void successIsTimedAndOperationExposed() throws Exception {
+        MockHttpServletRequest request = http();
+        MessageContext messageContext = messageContext();
+
+        interceptor.handleRequest(messageContext, endpoint("getSectors"));
+        messageContext.getResponse();
+        interceptor.afterCompletion(messageContext, endpoint("getSectors"), null);
+
+        assertThat(count("getSectorsRequest", "success")).isEqualTo(1);
+        assertThat(request.getAttribute(SoapSizeMetricsFilter.OPERATION_ATTRIBUTE)).isEqualTo("getSectorsRequest");
+        assertThat(messageContext.getPropertyNames()).isEmpty();
+    }
+
+    @Test
+    void faultIsCountedWithItsCode() throws Exception {
+        MessageContext messageContext = messageContext();
+
+        interceptor.handleRequest(messageContext, endpoint("getSectors"));
+        ((SoapMessage) messageContext.getResponse()).getSoapBody().addServerOrReceiverFault("Échec", Locale.FRENCH);
+        interceptor.afterCompletion(messageContext, endpoint("getSectors"), null);
+
+        assertThat(count("getSectorsRequest", "fault")).isEqualTo(1);
+        assertThat(meterRegistry.get("soap.server.faults")
+                .tag("operation", "getSectorsRequest").tag("code", "Server").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exceptionAndMissingResponseHaveTheirOutcome() throws Exception {
+        MessageContext failed = messageContext();
+        interceptor.handleRequest(failed, endpoint("getSectors"));
+        interceptor.afterCompletion(failed, endpoint("getSectors"), new IllegalStateException("échec"));
+
+        MessageContext deferred = messageContext();
+        interceptor.handleRequest(deferred, endpoint("getSectors"));
+        interceptor.afterCompletion(deferred, endpoint("getSectors"), null);
+
+        assertThat(count("getSectorsRequest", "error")).isEqualTo(1);
+        assertThat(count("getSectorsRequest", "accepted")).isEqualTo(1);
+    }
+
+    @Test
+    void batchItemsKeepTheBatchOperationOnTheHttpRequest() throws Exception {
+        MockHttpServletRequest request = http();
+        MessageContext batch = messageContext();
+        interceptor.handleRequest(batch, endpoint("batch"));
+
+        // Lecture d'un élément sur l'exécuteur : même contexte de transport que le lot
+        MessageContext item = messageContext();
+        interceptor.handleRequest(item, endpoint("getSectors"));
+        item.getResponse();
+        interceptor.afterCompletion(item, endpoint("getSectors"), null);
+
+        assertThat(request.getAttribute(SoapSizeMetricsFilter.OPERATION_ATTRIBUTE)).isEqualTo("batchRequest");
+        assertThat(count("getSectorsRequest", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void withoutHttpRequestOnlyTheDurationIsRecorded() throws Exception {
+        MessageContext messageContext = messageContext();
+
+        interceptor.handleRequest(messageContext, endpoint("getSectors"));
+        messageContext.getResponse();
+        interceptor.afterCompletion(messageContext, endpoint("getSectors"), null);
+
+        assertThat(count("getSectorsRequest", "success")).isEqualTo(1);
+    }
+
+    private long count(String operation, String outcome) {
+        return meterRegistry.get("soap.server.requests").tag("operation", operation).tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private static MockHttpServletRequest http() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws");
+        TransportContextHolder.setTransportContext(new DefaultTransportContext(
+                new HttpServletConnection(request, new MockHttpServletResponse()) {
+                }));
+        return request;
+    }
+
+    private static MessageContext messageContext() throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        return new DefaultMessageContext(messageFactory);
+    }
+
+    private static MethodEndpoint endpoint(String method) throws NoSuchMethodException {
+        return new MethodEndpoint(new Operations(), Operations.class.getMethod(method));
+    }
+
+    static class Operations {
+
+        @PayloadRoot(namespace = "http://examensoap.com/Sectors", localPart = "getSectorsRequest")
+        public void getSectors() {
+        }
+
+        @PayloadRoot(namespace = "http://examensoap.com/Batch", localPart = "batchRequest")
+        public void batch() {
+        }
+    }
+}
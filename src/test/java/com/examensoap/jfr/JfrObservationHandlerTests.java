@@ -0,0 +1,98 @@
+package com.examensoap.jfr;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Observations des phases SOAP traduites en événements JFR, relus dans un vrai enregistrement.
+ */
+class JfrObservationHandlerTests {
+
+    private final JfrObservationHandler handler = new JfrObservationHandler();
+
+    @Test
+    void supportsOnlySoapPhases() {
+        assertThat(handler.supportsContext(context("soap.invoke"))).isTrue();
+        assertThat(handler.supportsContext(context("soap.dispatch"))).isFalse();
+        assertThat(handler.supportsContext(new Observation.Context())).isFalse();
+    }
+
+    @Test
+    void noEventIsCreatedWithoutRecording() {
+        Observation.Context context = context("soap.invoke");
+
+        handler.onStart(context);
+
+        assertThat((Object) context.get(SoapPhaseEvent.class)).isNull();
+        handler.onStop(context);
+    }
+
+    @Test
+    void enabledPhasesAreRecordedWithOperationAndPayload(@TempDir Path directory) throws Exception {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(handler);
+        Path file = directory.resolve("soap.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(SoapInvokeEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(SoapServiceEvent.class).withThreshold(Duration.ZERO);
+            recording.disable(SoapMarshalEvent.class);
+            recording.start();
+
+            Observation dispatch = Observation.start("soap.dispatch", registry)
+                    .lowCardinalityKeyValue("soap.operation", "getSectorsRequest");
+            dispatch.scoped(() -> {
+                Observation invoke = Observation.start("soap.invoke", registry)
+                        .lowCardinalityKeyValue("soap.payload", "GetSectorsRequest");
+                invoke.scoped(() -> {
+                    Observation.createNotStarted("soap.service", registry)
+                            .lowCardinalityKeyValue("class", "SectorsService")
+                            .lowCardinalityKeyValue("method", "getSectors")
+                            .observe(() -> { });
+                    // Désactivée dans l'enregistrement : aucun événement
+                    Observation.createNotStarted("soap.marshal", registry).observe(() -> { });
+                });
+                invoke.stop();
+            });
+            dispatch.stop();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.examensoap."))
+                .toList();
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .containsExactlyInAnyOrder("com.examensoap.SoapInvoke", "com.examensoap.SoapService");
+        RecordedEvent invoke = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.examensoap.SoapInvoke"))
+                .findFirst().orElseThrow();
+        assertThat(invoke.getString("operation")).isEqualTo("getSectorsRequest");
+        assertThat(invoke.getString("payloadType")).isEqualTo("GetSectorsRequest");
+        assertThat(invoke.getString("error")).isNull();
+        RecordedEvent service = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.examensoap.SoapService"))
+                .findFirst().orElseThrow();
+        assertThat(service.getString("operation")).isEqualTo("getSectorsRequest");
+        assertThat(service.getString("service")).isEqualTo("SectorsService");
+        assertThat(service.getString("method")).isEqualTo("getSectors");
+    }
+
+    private static Observation.Context context(String name) {
+        Observation.Context context = new Observation.Context();
+        context.setName(name);
+        return context;
+    }
+}
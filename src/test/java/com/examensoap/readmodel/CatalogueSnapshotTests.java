@@ -0,0 +1,134 @@
+package com.examensoap.readmodel;
+
+import com.examensoap.model.Classes;
+import com.examensoap.model.Sectors;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalogue de départ : filières 1 et 2 ; classes 10 et 30 dans la 1, 20 dans la 2.
+ */
+class CatalogueSnapshotTests {
+
+    private final CatalogueSnapshot snapshot = catalogue();
+
+    @Test
+    void builderIndexesRowsAndSectors() {
+        assertThat(snapshot.sectorCount()).isEqualTo(2);
+        assertThat(snapshot.classCount()).isEqualTo(3);
+        assertThat(ids(snapshot.allClasses())).containsExactly(10L, 20L, 30L);
+        assertThat(ids(snapshot.classesBySector(1))).containsExactly(10L, 30L);
+        assertThat(ids(snapshot.classesBySector(2))).containsExactly(20L);
+        assertThat(snapshot.classesBySector(3)).isEmpty();
+        assertThat(snapshot.classById(20)).get().extracting(Classes::getClassName).isEqualTo("Réseaux");
+        assertThat(snapshot.classById(99)).isEmpty();
+        assertThat(snapshot.sectorById(2)).get().extracting(Sectors::getName).isEqualTo("Génie Civil");
+    }
+
+    @Test
+    void builderKeepsOneCopyOfRepeatedStrings() {
+        CatalogueSnapshot.Builder builder = new CatalogueSnapshot.Builder();
+        builder.addSector(1, "Informatique");
+        builder.addClass(1, "Classe", new String("Même description"), 1);
+        builder.addClass(2, "Autre", new String("Même description"), 1);
+        CatalogueSnapshot built = builder.build();
+
+        assertThat(built.classById(1).orElseThrow().getDescription())
+                .isSameAs(built.classById(2).orElseThrow().getDescription());
+    }
+
+    @Test
+    void builderGrowsPastInitialCapacity() {
+        CatalogueSnapshot.Builder builder = new CatalogueSnapshot.Builder();
+        for (long sectorId = 1; sectorId <= 40; sectorId++) {
+            builder.addSector(sectorId, "Filière " + sectorId);
+        }
+        for (long classId = 1; classId <= 5000; classId++) {
+            builder.addClass(classId, "Classe " + classId, null, classId % 40 + 1);
+        }
+        CatalogueSnapshot built = builder.build();
+
+        assertThat(built.sectorCount()).isEqualTo(40);
+        assertThat(built.classCount()).isEqualTo(5000);
+        assertThat(built.classesBySector(1)).hasSize(125);
+        assertThat(built.classById(5000)).get().extracting(Classes::getSectors).isEqualTo(1L);
+    }
+
+    @Test
+    void withClassCreatesAtEndOrInMiddle() {
+        CatalogueSnapshot appended = snapshot.withClass(40, "Algèbre", null, 2);
+        CatalogueSnapshot inserted = appended.withClass(15, "Bases de données", "SQL", 1);
+
+        assertThat(ids(inserted.allClasses())).containsExactly(10L, 15L, 20L, 30L, 40L);
+        assertThat(ids(inserted.classesBySector(1))).containsExactly(10L, 15L, 30L);
+        assertThat(ids(inserted.classesBySector(2))).containsExactly(20L, 40L);
+        assertThat(inserted.classById(30)).get().extracting(Classes::getClassName).isEqualTo("Compilation");
+        assertThat(inserted.classById(15)).get().extracting(Classes::getDescription).isEqualTo("SQL");
+        // La version d'origine n'a pas changé
+        assertThat(snapshot.classCount()).isEqualTo(3);
+        assertThat(snapshot.classById(40)).isEmpty();
+    }
+
+    @Test
+    void withClassMovesClassToAnotherSector() {
+        CatalogueSnapshot moved = snapshot.withClass(10, "Java avancé", null, 2);
+
+        assertThat(ids(moved.classesBySector(1))).containsExactly(30L);
+        assertThat(ids(moved.classesBySector(2))).containsExactly(10L, 20L);
+        assertThat(moved.classById(10)).get().extracting(Classes::getClassName).isEqualTo("Java avancé");
+        assertThat(ids(snapshot.classesBySector(1))).containsExactly(10L, 30L);
+    }
+
+    @Test
+    void withoutClassRemovesRowAndSectorEntry() {
+        CatalogueSnapshot removed = snapshot.withoutClass(10);
+
+        assertThat(ids(removed.allClasses())).containsExactly(20L, 30L);
+        assertThat(ids(removed.classesBySector(1))).containsExactly(30L);
+        assertThat(removed.classById(10)).isEmpty();
+        assertThat(removed.classById(30)).isPresent();
+        assertThat(snapshot.withoutClass(99)).isSameAs(snapshot);
+    }
+
+    @Test
+    void withSectorRenamesOrCreates() {
+        CatalogueSnapshot renamed = snapshot.withSector(1, "Info");
+        CatalogueSnapshot created = renamed.withSector(0, "Tronc commun");
+
+        assertThat(renamed.sectorById(1)).get().extracting(Sectors::getName).isEqualTo("Info");
+        assertThat(ids(created.allSectors())).containsExactly(0L, 1L, 2L);
+        assertThat(created.classesBySector(0)).isEmpty();
+        assertThat(ids(created.classesBySector(1))).containsExactly(10L, 30L);
+        assertThat(snapshot.sectorById(1)).get().extracting(Sectors::getName).isEqualTo("Informatique");
+    }
+
+    @Test
+    void withoutSectorRemovesItsClasses() {
+        CatalogueSnapshot removed = snapshot.withoutSector(1);
+
+        assertThat(ids(removed.allSectors())).containsExactly(2L);
+        assertThat(ids(removed.allClasses())).containsExactly(20L);
+        assertThat(removed.classById(10)).isEmpty();
+        assertThat(ids(removed.classesBySector(2))).containsExactly(20L);
+        assertThat(snapshot.withoutSector(99)).isSameAs(snapshot);
+    }
+
+    private static CatalogueSnapshot catalogue() {
+        CatalogueSnapshot.Builder builder = new CatalogueSnapshot.Builder();
+        builder.addSector(1, "Informatique");
+        builder.addSector(2, "Génie Civil");
+        builder.addClass(10, "Java", "Programmation objet", 1);
+        builder.addClass(20, "Réseaux", null, 2);
+        builder.addClass(30, "Compilation", null, 1);
+        return builder.build();
+    }
+
+    private static List<Long> ids(List<?> rows) {
+        return rows.stream()
+                .map(row -> row instanceof Classes classe ? classe.getId() : ((Sectors) row).getId())
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.examensoap.readmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntMapTests {
+
+    @Test
+    void indexOfMapsEachKeyToItsPosition() {
+        long[] keys = {42, -7, 0, Long.MAX_VALUE, Long.MIN_VALUE, 99};
+        LongIntMap map = LongIntMap.indexOf(keys, 5);
+
+        assertThat(map.size()).isEqualTo(5);
+        assertThat(map.get(42)).isZero();
+        assertThat(map.get(-7)).isEqualTo(1);
+        assertThat(map.get(0)).isEqualTo(2);
+        assertThat(map.get(Long.MAX_VALUE)).isEqualTo(3);
+        assertThat(map.get(Long.MIN_VALUE)).isEqualTo(4);
+        // Au-delà de count : absente
+        assertThat(map.get(99)).isEqualTo(-1);
+    }
+
+    @Test
+    void emptyMapFindsNothing() {
+        LongIntMap map = LongIntMap.indexOf(new long[0], 0);
+
+        assertThat(map.size()).isZero();
+        assertThat(map.get(0)).isEqualTo(-1);
+        assertThat(map.with(0, 0).get(0)).isZero();
+    }
+
+    @Test
+    void collidingKeysAreAllFound() {
+        // Clés espacées d'un multiple de la capacité, et nombreuses : sondage et croissance
+        long[] keys = LongStream.range(0, 10_000).map(i -> i << 20).toArray();
+        LongIntMap map = LongIntMap.indexOf(keys, keys.length);
+
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(map.get(keys[i])).isEqualTo(i);
+        }
+        assertThat(map.get(1)).isEqualTo(-1);
+    }
+
+    @Test
+    void withReturnsCopyAndLeavesOriginalUnchanged() {
+        LongIntMap original = LongIntMap.indexOf(new long[]{1, 2}, 2);
+
+        LongIntMap added = original.with(3, 2);
+        LongIntMap replaced = added.with(1, 7);
+
+        assertThat(original.size()).isEqualTo(2);
+        assertThat(original.get(3)).isEqualTo(-1);
+        assertThat(added.size()).isEqualTo(3);
+        assertThat(added.get(1)).isZero();
+        assertThat(added.get(3)).isEqualTo(2);
+        assertThat(replaced.size()).isEqualTo(3);
+        assertThat(replaced.get(1)).isEqualTo(7);
+    }
+
+    @Test
+    void withGrowsPastInitialCapacity() {
+        LongIntMap map = LongIntMap.indexOf(new long[0], 0);
+        for (int i = 0; i < 100; i++) {
+            map = map.with(i * 31L, i);
+        }
+
+        assertThat(map.size()).isEqualTo(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(map.get(i * 31L)).isEqualTo(i);
+        }
+    }
+}
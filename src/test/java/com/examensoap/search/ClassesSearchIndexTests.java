@@ -0,0 +1,170 @@
+package com.examensoap.search;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.mapper.ClassesSoapMapperImpl;
+import com.examensoap.model.Classes;
+import com.examensoap.model.ClassesSearchHit;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index construit sur quatre classes lues à la séquence 10. Les classes 1 (filière 1) et 3 (filière 2) ont
+ * « génie » dans le nom et la même longueur ; la classe 2 (filière 1) ne l'a que dans sa description ; la
+ * classe 4 (filière 2) ne l'a pas.
+ */
+class ClassesSearchIndexTests {
+
+    private final ClassesRepository classesRepository = mock(ClassesRepository.class);
+    private final ChangeSequence changeSequence = mock(ChangeSequence.class);
+    private final ClassesSearchIndex index = new ClassesSearchIndex(classesRepository, new ClassesSoapMapperImpl(),
+            changeSequence, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void build() {
+        when(changeSequence.current()).thenReturn(10L);
+        when(classesRepository.findAll()).thenReturn(List.of(
+                classe(1L, "Génie Logiciel", "Conception de logiciels", 1L),
+                classe(2L, "Réseaux", "Génie des réseaux et télécoms", 1L),
+                classe(3L, "Génie Civil", "Béton armé", 2L),
+                classe(4L, "Mathématiques", "Algèbre et analyse", 2L)));
+        index.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void ranksByBm25ThenById() {
+        ClassesSearchIndex.Page page = index.search("genie", 0, 10);
+
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(ids(page)).containsExactly(1L, 3L, 2L);
+        assertThat(page.hits().get(0).getScore()).isEqualTo(page.hits().get(1).getScore());
+        assertThat(page.hits().get(1).getScore()).isGreaterThan(page.hits().get(2).getScore());
+    }
+
+    @Test
+    void matchesWithoutAccentsOrCase() {
+        assertThat(ids(index.search("GÉNIE", 0, 10))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.search("mathematiques algebre", 0, 10))).containsExactly(4L);
+        assertThat(ids(index.search("Télécoms", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void requiresAllTerms() {
+        assertThat(ids(index.search("génie logiciel", 0, 10))).containsExactly(1L);
+        assertThat(index.search("génie inconnu", 0, 10).total()).isZero();
+        assertThat(index.search("de la", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void pagesKeepTotalAndStableOrder() {
+        ClassesSearchIndex.Page first = index.search("genie", 0, 2);
+        ClassesSearchIndex.Page second = index.search("genie", 1, 2);
+        ClassesSearchIndex.Page beyond = index.search("genie", 5, 2);
+
+        assertThat(ids(first)).containsExactly(1L, 3L);
+        assertThat(ids(second)).containsExactly(2L);
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(beyond.hits()).isEmpty();
+        assertThat(beyond.total()).isEqualTo(3);
+        assertThat(index.search("genie", Integer.MAX_VALUE, Integer.MAX_VALUE).hits()).isEmpty();
+    }
+
+    @Test
+    void followsChangesInSequenceOrder() {
+        // Nom plus court que celui des classes 1 et 3 : mieux classée
+        index.onClassesChanged(saved(4L, "Génie Mécanique", 2L, 12));
+        // Plus ancien que le précédent pour la même classe : ignoré
+        index.onClassesChanged(saved(4L, "Statistiques", 2L, 11));
+        // Déjà dans la table lue : ignoré
+        index.onClassesChanged(ClassesChangedEvent.deleted(1L, 1L, 9));
+
+        assertThat(ids(index.search("genie", 0, 10))).containsExactly(4L, 1L, 3L, 2L);
+        assertThat(index.search("statistiques", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void sectorDeletionRemovesItsClasses() {
+        index.onSectorsChanged(SectorsChangedEvent.deleted(1L, 13));
+        // Écrite avant la suppression de sa filière, reçue après : ignorée
+        index.onClassesChanged(saved(5L, "Génie Réseaux", 1L, 12));
+        index.onClassesChanged(saved(6L, "Génie Civil", 2L, 14));
+
+        assertThat(ids(index.search("genie", 0, 10))).containsExactlyInAnyOrder(3L, 6L);
+    }
+
+    @Test
+    void rebuildPicksUpWritesFromElsewhere() {
+        // Écritures d'une autre instance : aucun événement ici
+        when(changeSequence.current()).thenReturn(20L);
+        when(classesRepository.findAll()).thenReturn(List.of(
+                classe(1L, "Génie Logiciel", "Conception de logiciels", 1L),
+                classe(5L, "Génie Chimique", "Procédés", 3L)));
+
+        index.rebuild();
+
+        assertThat(ids(index.search("genie", 0, 10))).containsExactlyInAnyOrder(1L, 5L);
+        // Le nouvel ordre part de la séquence relue : les événements plus anciens sont ignorés
+        index.onClassesChanged(saved(3L, "Génie Civil", 2L, 15));
+        assertThat(ids(index.search("civil", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() {
+        when(changeSequence.current()).thenReturn(20L);
+        when(classesRepository.findAll()).thenAnswer(invocation -> {
+            // Validée pendant la lecture, après l'état lu
+            index.onClassesChanged(saved(6L, "Génie Maritime", 2L, 21));
+            // Déjà dans l'état lu
+            index.onClassesChanged(ClassesChangedEvent.deleted(3L, 2L, 19));
+            return List.of(
+                    classe(1L, "Génie Logiciel", "Conception de logiciels", 1L),
+                    classe(3L, "Génie Civil", "Béton armé", 2L));
+        });
+
+        index.rebuild();
+
+        assertThat(ids(index.search("genie", 0, 10))).containsExactlyInAnyOrder(1L, 3L, 6L);
+    }
+
+    @Test
+    void failedRebuildKeepsCurrentIndex() {
+        when(classesRepository.findAll()).thenThrow(new IllegalStateException("base indisponible"));
+
+        index.rebuild();
+
+        assertThat(ids(index.search("genie", 0, 10))).containsExactly(1L, 3L, 2L);
+        index.onClassesChanged(saved(4L, "Génie Mécanique", 2L, 12));
+        assertThat(ids(index.search("genie", 0, 10))).containsExactly(4L, 1L, 3L, 2L);
+    }
+
+    private static List<Long> ids(ClassesSearchIndex.Page page) {
+        return page.hits().stream().map(ClassesSearchHit::getClasses).map(Classes::getId).toList();
+    }
+
+    private static ClassesChangedEvent saved(Long classId, String className, Long sectorId, long updatedSeq) {
+        return new ClassesChangedEvent(classId, className, null, sectorId, sectorId, false, updatedSeq);
+    }
+
+    private static ClassesEntity classe(Long id, String className, String description, Long sectorId) {
+        SectorsEntity sector = new SectorsEntity();
+        sector.setId(sectorId);
+        ClassesEntity classe = new ClassesEntity();
+        classe.setId(id);
+        classe.setClassName(className);
+        classe.setDescription(description);
+        classe.setSectors(sector);
+        return classe;
+    }
+}
@@ -0,0 +1,70 @@
+package com.examensoap.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamePrefixIndexTests {
+
+    private static final NamePrefixIndex.Name GENIE_LOGICIEL = new NamePrefixIndex.Name(1L, "Génie Logiciel", 1L);
+    private static final NamePrefixIndex.Name LOGIQUE = new NamePrefixIndex.Name(2L, "Logique formelle", 1L);
+    private static final NamePrefixIndex.Name GENIE_CIVIL = new NamePrefixIndex.Name(3L, "Génie-Civil", 2L);
+    private static final NamePrefixIndex.Name RESEAUX = new NamePrefixIndex.Name(4L, "Réseaux  (niveau 2)", 2L);
+
+    private final NamePrefixIndex index = NamePrefixIndex.of(List.of(RESEAUX, LOGIQUE, GENIE_CIVIL, GENIE_LOGICIEL));
+
+    @Test
+    void namesStartingWithPrefixComeFirstThenWordMatches() {
+        assertThat(ids(index.suggest("log", 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.suggest("genie", 10))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        assertThat(ids(index.suggest("GÉNIE civ", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("civil", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("reseaux niveau 2", 10))).containsExactly(4L);
+        assertThat(ids(index.suggest("niv", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void limitAndNoDuplicates() {
+        NamePrefixIndex repeated = NamePrefixIndex.of(List.of(new NamePrefixIndex.Name(5L, "Java Java avancé", null)));
+
+        assertThat(ids(repeated.suggest("java", 10))).containsExactly(5L);
+        assertThat(index.suggest("g", 1)).hasSize(1);
+        assertThat(index.suggest("", 10)).hasSize(4);
+        assertThat(index.suggest("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void plusAndMinusReturnCopies() {
+        NamePrefixIndex.Name algebre = new NamePrefixIndex.Name(6L, "Algèbre linéaire", 1L);
+
+        NamePrefixIndex added = index.plus(algebre);
+        NamePrefixIndex removed = added.minus(GENIE_LOGICIEL);
+
+        assertThat(added.size()).isEqualTo(5);
+        assertThat(ids(added.suggest("lin", 10))).containsExactly(6L);
+        assertThat(ids(removed.suggest("log", 10))).containsExactly(2L);
+        assertThat(removed.size()).isEqualTo(4);
+        // Les versions précédentes n'ont pas changé
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.suggest("lin", 10)).isEmpty();
+        assertThat(ids(added.suggest("log", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void emptyNamesAreNotIndexed() {
+        NamePrefixIndex blank = NamePrefixIndex.EMPTY.plus(new NamePrefixIndex.Name(7L, " - ", null));
+
+        assertThat(blank.isEmpty()).isTrue();
+        assertThat(NamePrefixIndex.EMPTY.minus(GENIE_CIVIL).isEmpty()).isTrue();
+    }
+
+    private static List<Long> ids(List<NamePrefixIndex.Name> names) {
+        return names.stream().map(NamePrefixIndex.Name::id).toList();
+    }
+}
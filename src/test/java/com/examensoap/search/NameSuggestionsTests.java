@@ -0,0 +1,137 @@
+package com.examensoap.search;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.entity.ClassesEntity;
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.model.ClassesSuggestion;
+import com.examensoap.model.Sectors;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Noms chargés à la séquence 10 : filières 1 « Informatique » et 2 « Génie Civil » ; classes 1 et 2 dans la
+ * filière 1, 3 dans la filière 2.
+ */
+class NameSuggestionsTests {
+
+    private final ClassesRepository classesRepository = mock(ClassesRepository.class);
+    private final SectorsRepository sectorsRepository = mock(SectorsRepository.class);
+    private final ChangeSequence changeSequence = mock(ChangeSequence.class);
+    private final NameSuggestions suggestions = new NameSuggestions(classesRepository, sectorsRepository,
+            changeSequence, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void load() {
+        when(changeSequence.current()).thenReturn(10L);
+        when(sectorsRepository.findAll()).thenReturn(List.of(sector(1L, "Informatique"), sector(2L, "Génie Civil")));
+        when(classesRepository.findAll()).thenReturn(List.of(
+                classe(1L, "Génie Logiciel", 1L),
+                classe(2L, "Génie Réseaux", 1L),
+                classe(3L, "Génie Structures", 2L)));
+        suggestions.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void suggestsFromLoadedNames() {
+        assertThat(classIds("genie", null)).containsExactly(1L, 2L, 3L);
+        assertThat(classIds("genie", 2L)).containsExactly(3L);
+        assertThat(sectorIds("gen")).containsExactly(2L);
+    }
+
+    @Test
+    void sectorDeletionRemovesAllItsClasses() {
+        suggestions.onSectorsChanged(SectorsChangedEvent.deleted(1L, 11));
+
+        assertThat(classIds("genie", null)).containsExactly(3L);
+        assertThat(classIds("genie", 1L)).isEmpty();
+        assertThat(classIds("genie", 2L)).containsExactly(3L);
+        assertThat(sectorIds("info")).isEmpty();
+        // Les autres écritures sont toujours suivies
+        suggestions.onClassesChanged(saved(4L, "Génie Maritime", 2L, 12));
+        assertThat(classIds("genie", 2L)).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void reloadPicksUpWritesFromElsewhere() {
+        when(changeSequence.current()).thenReturn(20L);
+        when(sectorsRepository.findAll()).thenReturn(List.of(sector(2L, "Génie Civil")));
+        when(classesRepository.findAll()).thenReturn(List.of(classe(3L, "Génie Structures", 2L), classe(5L, "Génie Urbain", 2L)));
+
+        suggestions.reload();
+
+        assertThat(classIds("genie", null)).containsExactly(3L, 5L);
+        assertThat(classIds("genie", 1L)).isEmpty();
+        assertThat(sectorIds("info")).isEmpty();
+        // Le nouvel ordre part de la séquence relue : les événements plus anciens sont ignorés
+        suggestions.onClassesChanged(saved(6L, "Génie Nucléaire", 2L, 15));
+        assertThat(classIds("genie", null)).containsExactly(3L, 5L);
+    }
+
+    @Test
+    void changesDuringReloadAreReplayed() {
+        when(changeSequence.current()).thenReturn(20L);
+        when(classesRepository.findAll()).thenAnswer(invocation -> {
+            // Validées pendant la lecture, après l'état lu
+            suggestions.onClassesChanged(saved(6L, "Génie Nucléaire", 2L, 21));
+            suggestions.onSectorsChanged(SectorsChangedEvent.deleted(1L, 22));
+            // Déjà dans l'état lu
+            suggestions.onClassesChanged(ClassesChangedEvent.deleted(3L, 2L, 19));
+            return List.of(classe(1L, "Génie Logiciel", 1L), classe(3L, "Génie Structures", 2L));
+        });
+
+        suggestions.reload();
+
+        assertThat(classIds("genie", null)).containsExactly(6L, 3L);
+        assertThat(sectorIds("info")).isEmpty();
+    }
+
+    @Test
+    void failedReloadKeepsCurrentNames() {
+        when(classesRepository.findAll()).thenThrow(new IllegalStateException("base indisponible"));
+
+        suggestions.reload();
+
+        assertThat(classIds("genie", null)).containsExactly(1L, 2L, 3L);
+        suggestions.onClassesChanged(saved(4L, "Génie Maritime", 2L, 12));
+        assertThat(classIds("genie", null)).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    private List<Long> classIds(String prefix, Long sectorId) {
+        return suggestions.suggestClasses(prefix, sectorId, 10).stream().map(ClassesSuggestion::getId).toList();
+    }
+
+    private List<Long> sectorIds(String prefix) {
+        return suggestions.suggestSectors(prefix, 10).stream().map(Sectors::getId).toList();
+    }
+
+    private static ClassesChangedEvent saved(Long classId, String className, Long sectorId, long updatedSeq) {
+        return new ClassesChangedEvent(classId, className, null, sectorId, sectorId, false, updatedSeq);
+    }
+
+    private static SectorsEntity sector(Long id, String name) {
+        SectorsEntity sector = new SectorsEntity();
+        sector.setId(id);
+        sector.setName(name);
+        return sector;
+    }
+
+    private static ClassesEntity classe(Long id, String className, Long sectorId) {
+        ClassesEntity classe = new ClassesEntity();
+        classe.setId(id);
+        classe.setClassName(className);
+        classe.setSectors(sector(sectorId, null));
+        return classe;
+    }
+}
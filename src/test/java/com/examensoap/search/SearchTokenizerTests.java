@@ -0,0 +1,33 @@
+package com.examensoap.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTests {
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(SearchTokenizer.tokenize("Génie ÉLECTRIQUE Àéïôù ç")).containsExactly("genie", "electrique", "aeiou");
+        assertThat(SearchTokenizer.fold("Œuvre, Noël !")).isEqualTo("œuvre, noel !");
+    }
+
+    @Test
+    void splitsOnPunctuationAndDropsStopWordsAndSingleLetters() {
+        assertThat(SearchTokenizer.tokenize("L'analyse des données, et la conception d'applications (Java/SQL)"))
+                .containsExactly("analyse", "donnees", "conception", "applications", "java", "sql");
+    }
+
+    @Test
+    void keepsDigitsAndRepetitions() {
+        assertThat(SearchTokenizer.tokenize("Niveau 3 : réseau, réseau IPv6"))
+                .containsExactly("niveau", "3", "reseau", "reseau", "ipv6");
+    }
+
+    @Test
+    void emptyOrNullTextHasNoTerms() {
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+        assertThat(SearchTokenizer.tokenize("  ")).isEmpty();
+        assertThat(SearchTokenizer.tokenize("de la, et : l'")).isEmpty();
+    }
+}
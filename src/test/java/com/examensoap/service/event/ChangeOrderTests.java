@@ -0,0 +1,55 @@
+package com.examensoap.service.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Événements reçus dans le désordre par un état chargé à la séquence 10.
+ */
+class ChangeOrderTests {
+
+    private final ChangeOrder order = new ChangeOrder(10);
+
+    @Test
+    void ignoresWritesAlreadyInLoadedState() {
+        assertThat(order.accept(classSaved(1L, 5L, 10))).isFalse();
+        assertThat(order.accept(SectorsChangedEvent.deleted(5L, 9))).isFalse();
+        assertThat(order.accept(classSaved(1L, 5L, 11))).isTrue();
+    }
+
+    @Test
+    void ignoresOlderEventForSameRow() {
+        assertThat(order.accept(classSaved(1L, 5L, 13))).isTrue();
+        assertThat(order.accept(classSaved(1L, 6L, 12))).isFalse();
+        assertThat(order.accept(ClassesChangedEvent.deleted(1L, 5L, 11))).isFalse();
+        // Une autre classe n'est pas concernée
+        assertThat(order.accept(classSaved(2L, 6L, 12))).isTrue();
+
+        assertThat(order.accept(new SectorsChangedEvent(5L, "Génie Civil", false, 15))).isTrue();
+        assertThat(order.accept(new SectorsChangedEvent(5L, "Ancien nom", false, 14))).isFalse();
+    }
+
+    @Test
+    void ignoresClassWrittenBeforeItsSectorWasDeleted() {
+        assertThat(order.accept(SectorsChangedEvent.deleted(5L, 20))).isTrue();
+
+        assertThat(order.sectorDeletedAfter(5L, 12)).isTrue();
+        assertThat(order.sectorDeletedAfter(5L, 20)).isFalse();
+        assertThat(order.sectorDeletedAfter(6L, 12)).isFalse();
+        assertThat(order.accept(classSaved(1L, 5L, 12))).isFalse();
+        assertThat(order.accept(classSaved(2L, 6L, 13))).isTrue();
+        // La suppression d'une classe reste appliquée : elle a déjà disparu avec sa filière
+        assertThat(order.accept(ClassesChangedEvent.deleted(3L, 5L, 14))).isTrue();
+    }
+
+    @Test
+    void isNewComparesWithLoadedSequence() {
+        assertThat(order.isNew(10)).isFalse();
+        assertThat(order.isNew(11)).isTrue();
+    }
+
+    private static ClassesChangedEvent classSaved(Long classId, Long sectorId, long updatedSeq) {
+        return new ClassesChangedEvent(classId, "Classe " + classId, null, sectorId, null, false, updatedSeq);
+    }
+}
@@ -0,0 +1,96 @@
+package com.examensoap.service.support;
+
+import com.examensoap.entity.ChangeTombstoneEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fusion des lignes modifiées et des suppressions. Une ligne est représentée par sa séquence, et son état
+ * SOAP par {@code "ligne <séquence>"}.
+ */
+class ChangeSetTests {
+
+    private static final long UP_TO = 100;
+
+    @Test
+    void interleavesRowsAndTombstonesBySequence() {
+        ChangeSet<String> changes = merge(List.of(1L, 4L, 5L), tombstones(2, 3, 6), 10);
+
+        assertThat(changes.changed()).containsExactly("ligne 1", "ligne 4", "ligne 5");
+        assertThat(changes.deletedIds()).containsExactly(1002L, 1003L, 1006L);
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(changes.highWaterMark()).isEqualTo(UP_TO);
+    }
+
+    @Test
+    void exactlyLimitChangesIsComplete() {
+        ChangeSet<String> changes = merge(List.of(1L, 3L), tombstones(2), 3);
+
+        assertThat(changes.changed()).hasSize(2);
+        assertThat(changes.deletedIds()).hasSize(1);
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(changes.highWaterMark()).isEqualTo(UP_TO);
+    }
+
+    @Test
+    void oneChangeOverLimitStopsAtLastReturnedSequence() {
+        ChangeSet<String> changes = merge(List.of(1L, 3L, 4L), tombstones(2), 3);
+
+        assertThat(changes.changed()).containsExactly("ligne 1", "ligne 3");
+        assertThat(changes.deletedIds()).containsExactly(1002L);
+        assertThat(changes.hasMore()).isTrue();
+        assertThat(changes.highWaterMark()).isEqualTo(3);
+    }
+
+    @Test
+    void limitCanEndOnTombstone() {
+        // Les deux requêtes ont lu limit + 1 lignes chacune ; la fusion s'arrête sur une suppression
+        ChangeSet<String> changes = merge(List.of(1L, 5L, 6L), tombstones(2, 3, 4), 2);
+
+        assertThat(changes.changed()).containsExactly("ligne 1");
+        assertThat(changes.deletedIds()).containsExactly(1002L);
+        assertThat(changes.hasMore()).isTrue();
+        assertThat(changes.highWaterMark()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyTombstonesOrOnlyRows() {
+        ChangeSet<String> deletions = merge(List.of(), tombstones(7, 8), 1);
+        ChangeSet<String> rows = merge(List.of(7L, 8L), List.of(), 5);
+
+        assertThat(deletions.changed()).isEmpty();
+        assertThat(deletions.deletedIds()).containsExactly(1007L);
+        assertThat(deletions.hasMore()).isTrue();
+        assertThat(deletions.highWaterMark()).isEqualTo(7);
+        assertThat(rows.changed()).containsExactly("ligne 7", "ligne 8");
+        assertThat(rows.hasMore()).isFalse();
+        assertThat(rows.highWaterMark()).isEqualTo(UP_TO);
+    }
+
+    @Test
+    void nothingChangedReturnsCommittedSequence() {
+        ChangeSet<String> changes = merge(List.of(), List.of(), 10);
+
+        assertThat(changes.changed()).isEmpty();
+        assertThat(changes.deletedIds()).isEmpty();
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(changes.highWaterMark()).isEqualTo(UP_TO);
+    }
+
+    private static ChangeSet<String> merge(List<Long> rows, List<ChangeTombstoneEntity> tombstones, int limit) {
+        Function<Long, String> toSoap = seq -> "ligne " + seq;
+        return ChangeSet.merge(rows, Long::longValue, tombstones, limit, UP_TO, toSoap);
+    }
+
+    // La ligne supprimée à la séquence n a l'ID 1000 + n
+    private static List<ChangeTombstoneEntity> tombstones(long... seqs) {
+        return Arrays.stream(seqs)
+                .mapToObj(seq -> new ChangeTombstoneEntity(seq, ChangeTombstoneEntity.EntityType.CLASSES, 1000 + seq))
+                .toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.examensoap.service.support;
+
+import com.examensoap.service.event.SectorsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regroupement des lectures concurrentes, et lecture après écriture : la première lecture est bloquée
+ * par un verrou pour que la seconde arrive pendant qu'elle est en cours.
+ */
+class SingleFlightTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry, true);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        releaseLoad.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneLoad() throws Exception {
+        CompletableFuture<String> first = read("avant");
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = read("jamais lu");
+        while (coalesced() == 0) {
+            Thread.sleep(10);
+        }
+        releaseLoad.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("avant");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("avant");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void readAfterCommittedWriteDoesNotJoinOlderLoad() throws Exception {
+        CompletableFuture<String> first = read("avant");
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        singleFlight.onSectorsChanged(SectorsChangedEvent.deleted(1L, 2));
+        CompletableFuture<String> afterWrite = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute("sectors.all", null, () -> {
+                    loads.incrementAndGet();
+                    return "après";
+                }), executor);
+
+        // La lecture lancée avant l'écriture est toujours bloquée : la seconde ne l'a pas rejointe
+        assertThat(afterWrite.get(5, TimeUnit.SECONDS)).isEqualTo("après");
+        assertThat(coalesced()).isZero();
+        releaseLoad.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("avant");
+        assertThat(loads).hasValue(2);
+    }
+
+    private CompletableFuture<String> read(String value) {
+        return CompletableFuture.supplyAsync(() -> singleFlight.execute("sectors.all", null, () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                releaseLoad.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }), executor);
+    }
+
+    private double coalesced() {
+        Counter counter = meterRegistry.find("service.singleflight.coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
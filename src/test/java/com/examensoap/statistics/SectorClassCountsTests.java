@@ -0,0 +1,111 @@
+package com.examensoap.statistics;
+
+import com.examensoap.dao.ClassesRepository;
+import com.examensoap.dao.SectorsRepository;
+import com.examensoap.entity.SectorsEntity;
+import com.examensoap.model.SectorStats;
+import com.examensoap.service.event.ClassesChangedEvent;
+import com.examensoap.service.event.SectorsChangedEvent;
+import com.examensoap.service.support.ChangeSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compteurs tenus à jour par des événements reçus dans le désordre, et pendant une réconciliation. La base
+ * est simulée : deux filières, 3 classes dans la 1 et aucune dans la 2, à la séquence 10.
+ */
+class SectorClassCountsTests {
+
+    private final ClassesRepository classesRepository = mock(ClassesRepository.class);
+    private final SectorsRepository sectorsRepository = mock(SectorsRepository.class);
+    private final ChangeSequence changeSequence = mock(ChangeSequence.class);
+    private final SectorClassCounts counts = new SectorClassCounts(classesRepository, sectorsRepository,
+            changeSequence, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void database() {
+        when(changeSequence.current()).thenReturn(10L);
+        when(sectorsRepository.findAll()).thenReturn(List.of(sector(1L, "Informatique"), sector(2L, "Génie Civil")));
+        when(classesRepository.countBySector()).thenReturn(List.of(count(1L, 3)));
+        counts.reconcile();
+    }
+
+    @Test
+    void ignoresEventsAlreadyCounted() {
+        counts.onClassesChanged(moved(7L, 1L, 2L, 9));
+
+        assertThat(classCounts()).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void movesInAnyOrderGiveSameCounts() {
+        // Classe 7 : 1 → 2 (séquence 11) puis 2 → 1 (séquence 12), reçus à l'envers
+        counts.onClassesChanged(moved(7L, 2L, 1L, 12));
+        counts.onClassesChanged(moved(7L, 1L, 2L, 11));
+
+        assertThat(classCounts()).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void ignoresClassMovedIntoSectorDeletedSince() {
+        counts.onSectorsChanged(SectorsChangedEvent.deleted(2L, 13));
+        counts.onClassesChanged(moved(7L, 1L, 2L, 11));
+        counts.onSectorsChanged(new SectorsChangedEvent(2L, "Ancien nom", false, 12));
+
+        assertThat(counts.snapshot()).extracting(SectorStats::getId).containsExactly(1L);
+        assertThat(classCounts()).containsExactly(2L);
+    }
+
+    @Test
+    void replaysWritesCommittedDuringReconcile() {
+        when(changeSequence.current()).thenReturn(20L);
+        when(classesRepository.countBySector()).thenAnswer(invocation -> {
+            // Validée avant la lecture de la séquence : déjà dans le GROUP BY
+            counts.onClassesChanged(moved(7L, 1L, 2L, 19));
+            // Validée après : absente du GROUP BY
+            counts.onClassesChanged(ClassesChangedEvent.deleted(8L, 1L, 21));
+            return List.of(count(1L, 2), count(2L, 1));
+        });
+
+        counts.reconcile();
+
+        assertThat(classCounts()).containsExactly(1L, 1L);
+    }
+
+    private List<Long> classCounts() {
+        return counts.snapshot().stream().map(SectorStats::getClassCount).toList();
+    }
+
+    private static ClassesChangedEvent moved(Long classId, Long from, Long to, long updatedSeq) {
+        return new ClassesChangedEvent(classId, "Classe " + classId, null, to, from, false, updatedSeq);
+    }
+
+    private static SectorsEntity sector(Long id, String name) {
+        SectorsEntity sector = new SectorsEntity();
+        sector.setId(id);
+        sector.setName(name);
+        return sector;
+    }
+
+    private static ClassesRepository.SectorClassCount count(Long sectorId, long classCount) {
+        return new ClassesRepository.SectorClassCount() {
+            @Override
+            public Long getSectorId() {
+                return sectorId;
+            }
+
+            @Override
+            public long getClassCount() {
+                return classCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.examensoap.statistics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.metamodel.spi.RuntimeMetamodelsImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockMakers;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Paramètres comptés dans l'ordre SQL et lignes de journal des requêtes lentes (seuil de 100 ms).
+ */
+class SlowQueryStatisticsTests {
+
+    private static final String SQL = "select s1_0.id from sectors s1_0 where s1_0.name=?";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryStatistics.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+    private SlowQueryStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactoryOptions options = mock(SessionFactoryOptions.class);
+        when(options.getQueryStatisticsMaxSize()).thenReturn(100);
+        // Le mock maker par défaut (inline) échoue sur ces interfaces : proxys JDK, sans entité
+        RuntimeMetamodelsImplementor metamodels = proxy(RuntimeMetamodelsImplementor.class);
+        when(metamodels.getMappingMetamodel()).thenReturn(proxy(MappingMetamodelImplementor.class));
+        SessionFactoryImplementor sessionFactory = proxy(SessionFactoryImplementor.class);
+        when(sessionFactory.getSessionFactoryOptions()).thenReturn(options);
+        when(sessionFactory.getRuntimeMetamodels()).thenReturn(metamodels);
+        statistics = new SlowQueryStatistics(sessionFactory, 100);
+
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void restore() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        // Pas d'ordre lent laissé en attente sur le thread pour le test suivant
+        statistics.closeSession();
+    }
+
+    @Test
+    void countsBindParametersOutsideLiterals() {
+        assertThat(SlowQueryStatistics.countBindParameters("select 1")).isZero();
+        assertThat(SlowQueryStatistics.countBindParameters("insert into t values (?, ?, ?)")).isEqualTo(3);
+        assertThat(SlowQueryStatistics.countBindParameters("select * from t where a = '?' and b = ?")).isEqualTo(1);
+        // Apostrophe doublée : le littéral continue, le ? qu'il contient n'est pas compté
+        assertThat(SlowQueryStatistics.countBindParameters("select * from t where a = 'l''école ?' and b = ?"))
+                .isEqualTo(1);
+        assertThat(SlowQueryStatistics.countBindParameters("select * from t where a = '' and b = ?")).isEqualTo(1);
+    }
+
+    @Test
+    void slowSqlIsLoggedWithTheRowsOfItsQuery() {
+        statistics.slowQuery(SQL, 250);
+
+        assertThat(appender.list).isEmpty();
+        statistics.queryExecuted("select s.id from SectorsEntity s where s.name = :name", 3, 260);
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getLevel()).isEqualTo(Level.WARN);
+        assertThat(appender.list.get(0).getArgumentArray()).containsExactly(250L, 3, 1, SQL);
+    }
+
+    @Test
+    void slowSqlWithoutQueryIsLoggedAtNextSqlOrSessionClose() {
+        statistics.slowQuery(SQL, 150);
+        statistics.slowQuery("select c1_0.id from classes c1_0 where c1_0.id=?", 120);
+
+        assertThat(appender.list).extracting(event -> event.getArgumentArray()[3]).containsExactly(SQL);
+
+        statistics.closeSession();
+
+        assertThat(appender.list).hasSize(2);
+        assertThat(appender.list.get(1).getArgumentArray()[0]).isEqualTo(120L);
+    }
+
+    @Test
+    void slowQueryWithFastSqlUsesTheThreshold() {
+        statistics.queryExecuted("select s from SectorsEntity s", 10, 99);
+        assertThat(appender.list).isEmpty();
+
+        statistics.queryExecuted("select s from SectorsEntity s", 5000, 100);
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .isEqualTo("Requête lente : 100 ms, 5000 ligne(s) : select s from SectorsEntity s");
+    }
+
+    private static <T> T proxy(Class<T> type) {
+        return mock(type, withSettings().mockMaker(MockMakers.PROXY));
+    }
+}
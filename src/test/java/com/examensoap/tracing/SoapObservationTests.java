@@ -0,0 +1,163 @@
+package com.examensoap.tracing;
+
+import com.examensoap.interceptor.SoapObservationInterceptor;
+import com.examensoap.model.GetAllSectorsRequest;
+import com.examensoap.model.GetAllSectorsResponse;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.adapter.DefaultMethodEndpointAdapter;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.server.endpoint.annotation.RequestPayload;
+import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.xml.transform.StringSource;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.namespace.QName;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Observations d'une requête SOAP : {@code soap.dispatch} posée par {@link SoapObservationInterceptor}, avec
+ * ses phases {@code soap.invoke}, {@code soap.unmarshal} et {@code soap.marshal} posées par
+ * {@link ObservedEndpointAdapter}, et contexte de trace lu dans l'en-tête SOAP {@code traceparent}.
+ */
+class SoapObservationTests {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final TestObservationRegistry registry = TestObservationRegistry.create();
+    private final SoapObservationInterceptor interceptor = new SoapObservationInterceptor(registry);
+    private SaajSoapMessageFactory messageFactory;
+    private ObservedEndpointAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        DefaultMethodEndpointAdapter delegate = new DefaultMethodEndpointAdapter();
+        delegate.afterPropertiesSet();
+        adapter = new ObservedEndpointAdapter(delegate, () -> registry);
+    }
+
+    @Test
+    void phasesAreChildrenOfTheDispatch() throws Exception {
+        MethodEndpoint endpoint = endpoint("getAllSectors");
+        MessageContext messageContext = request(null);
+
+        interceptor.handleRequest(messageContext, endpoint);
+        adapter.invoke(messageContext, endpoint);
+        interceptor.afterCompletion(messageContext, endpoint, null);
+
+        assertThat(registry)
+                .hasNumberOfObservationsEqualTo(4)
+                .hasObservationWithNameEqualTo("soap.dispatch").that()
+                .hasContextualNameEqualTo("getAllSectorsRequest")
+                .hasLowCardinalityKeyValue("soap.operation", "getAllSectorsRequest")
+                .hasLowCardinalityKeyValue("soap.outcome", "success")
+                .doesNotHaveParentObservation()
+                .hasBeenStopped();
+        assertThat(registry)
+                .hasObservationWithNameEqualTo("soap.invoke").that()
+                .hasParentObservationContextMatching(parent -> parent.getName().equals("soap.dispatch"))
+                .hasBeenStopped();
+        assertThat(registry)
+                .hasObservationWithNameEqualTo("soap.unmarshal").that()
+                .hasLowCardinalityKeyValue("soap.payload", "GetAllSectorsRequest")
+                .hasParentObservationContextMatching(parent -> parent.getName().equals("soap.invoke"));
+        assertThat(registry)
+                .hasObservationWithNameEqualTo("soap.marshal").that()
+                .hasLowCardinalityKeyValue("soap.payload", "GetAllSectorsResponse")
+                .hasParentObservationContextMatching(parent -> parent.getName().equals("soap.invoke"));
+        assertThat(messageContext.getPropertyNames()).isEmpty();
+        assertThat(registry.getCurrentObservation()).isNull();
+    }
+
+    @Test
+    void traceContextIsReadFromTheSoapHeader() throws Exception {
+        MethodEndpoint endpoint = endpoint("getAllSectors");
+        MessageContext messageContext = request(TRACEPARENT);
+
+        assertThat(interceptor.understands(((SoapMessage) messageContext.getRequest()).getSoapHeader()
+                .examineAllHeaderElements().next())).isTrue();
+        interceptor.handleRequest(messageContext, endpoint);
+        interceptor.afterCompletion(messageContext, endpoint, null);
+
+        assertThat(registry).hasHandledContextsThatSatisfy(contexts -> {
+            assertThat(contexts).singleElement().isInstanceOf(SoapHeaderReceiverContext.class);
+            @SuppressWarnings("unchecked")
+            ReceiverContext<SoapMessage> context = (ReceiverContext<SoapMessage>) contexts.get(0);
+            assertThat(context.getGetter().get(context.getCarrier(), "traceparent")).isEqualTo(TRACEPARENT);
+            assertThat(context.getGetter().get(context.getCarrier(), "tracestate")).isNull();
+        });
+    }
+
+    @Test
+    void withoutSoapHeaderTheDispatchIsAPlainObservation() throws Exception {
+        MethodEndpoint endpoint = endpoint("getAllSectors");
+        MessageContext messageContext = request(null);
+
+        interceptor.handleRequest(messageContext, endpoint);
+        interceptor.afterCompletion(messageContext, endpoint, null);
+
+        assertThat(registry).hasHandledContextsThatSatisfy(contexts ->
+                assertThat(contexts).singleElement().isNotInstanceOf(ReceiverContext.class));
+    }
+
+    @Test
+    void endpointErrorIsRecordedOnInvokeAndDispatch() throws Exception {
+        MethodEndpoint endpoint = endpoint("failing");
+        MessageContext messageContext = request(null);
+
+        interceptor.handleRequest(messageContext, endpoint);
+        assertThatThrownBy(() -> adapter.invoke(messageContext, endpoint)).isInstanceOf(IllegalStateException.class);
+        interceptor.afterCompletion(messageContext, endpoint, new IllegalStateException("base indisponible"));
+
+        assertThat(registry)
+                .hasObservationWithNameEqualTo("soap.invoke").that().hasError();
+        assertThat(registry)
+                .hasObservationWithNameEqualTo("soap.dispatch").that()
+                .hasLowCardinalityKeyValue("soap.outcome", "error")
+                .hasError();
+        assertThat(registry).hasNumberOfObservationsWithNameEqualTo("soap.marshal", 0);
+    }
+
+    private MessageContext request(String traceparent) throws Exception {
+        SoapMessage request = messageFactory.createWebServiceMessage();
+        new TransformerHelper().transform(
+                new StringSource("<s:getAllSectorsRequest xmlns:s=\"http://examensoap.com/Sectors\"/>"),
+                request.getPayloadResult());
+        if (traceparent != null) {
+            request.getSoapHeader().addHeaderElement(new QName("urn:trace", "traceparent", "t")).setText(traceparent);
+        }
+        return new DefaultMessageContext(request, messageFactory);
+    }
+
+    private static MethodEndpoint endpoint(String method) throws NoSuchMethodException {
+        return new MethodEndpoint(new Endpoint(), Endpoint.class.getMethod(method, GetAllSectorsRequest.class));
+    }
+
+    static class Endpoint {
+
+        @PayloadRoot(namespace = "http://examensoap.com/Sectors", localPart = "getAllSectorsRequest")
+        @ResponsePayload
+        public GetAllSectorsResponse getAllSectors(@RequestPayload GetAllSectorsRequest request) {
+            return new GetAllSectorsResponse();
+        }
+
+        @PayloadRoot(namespace = "http://examensoap.com/Sectors", localPart = "getAllSectorsRequest")
+        @ResponsePayload
+        public GetAllSectorsResponse failing(@RequestPayload GetAllSectorsRequest request) {
+            throw new IllegalStateException("base indisponible");
+        }
+    }
+}
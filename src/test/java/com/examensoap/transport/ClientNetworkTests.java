@@ -0,0 +1,37 @@
+package com.examensoap.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientNetworkTests {
+
+    @Test
+    void matchesPrefixBits() throws Exception {
+        ClientNetwork network = ClientNetwork.parse("192.168.1.0/25");
+
+        assertThat(network.contains(InetAddress.getByName("192.168.1.127"))).isTrue();
+        assertThat(network.contains(InetAddress.getByName("192.168.1.128"))).isFalse();
+        assertThat(network.contains(InetAddress.getByName("::1"))).isFalse();
+        assertThat(ClientNetwork.parse("::1").contains(InetAddress.getByName("0:0:0:0:0:0:0:1"))).isTrue();
+    }
+
+    @Test
+    void rejectsHostNamesAndInvalidPrefixes() {
+        assertThatThrownBy(() -> ClientNetwork.parse("exemple.com")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ClientNetwork.parse("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyListMatchesNothing() throws Exception {
+        List<ClientNetwork> none = ClientNetwork.parseAll(List.of("", " "));
+
+        assertThat(none).isEmpty();
+        assertThat(ClientNetwork.anyContains(none, InetAddress.getByName("127.0.0.1"))).isFalse();
+        assertThat(ClientNetwork.anyContains(ClientNetwork.parseAll(List.of("0.0.0.0/0")), null)).isFalse();
+    }
+}
@@ -0,0 +1,166 @@
+package com.examensoap.transport;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.jvnet.fastinfoset.FastInfosetResult;
+import org.jvnet.fastinfoset.FastInfosetSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.xml.transform.TransformerHelper;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Négociation Fast Infoset sur le dispatcher SOAP : aller-retour complet en binaire, choix du format de
+ * réponse par l'en-tête {@code Accept} et faute SOAP sur un corps illisible.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class FastInfosetFilterTests {
+
+    private static final String ENVELOPE = """
+            <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/"
+                              xmlns:s="http://examensoap.com/Sectors">
+                <soapenv:Body>%s</soapenv:Body>
+            </soapenv:Envelope>
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final TransformerHelper transformerHelper = new TransformerHelper();
+
+    @Test
+    void fastInfosetRequestGetsFastInfosetResponse() throws Exception {
+        byte[] request = encode(ENVELOPE.formatted(
+                "<s:addSectorsRequest><s:sectors><s:id>0</s:id><s:name>Filière binaire</s:name></s:sectors>"
+                        + "</s:addSectorsRequest>"));
+
+        HttpResponse<byte[]> response = post(request, "application/fastinfoset", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/fastinfoset");
+        assertThat(response.body().length).isGreaterThan(0);
+        assertThat(decode(response.body())).contains("addSectorsResponse").contains("Filière binaire");
+    }
+
+    @Test
+    void xmlRequestAcceptingFastInfosetGetsFastInfosetResponse() throws Exception {
+        HttpResponse<byte[]> response = post(xml("<s:getAllSectorsRequest/>"), "text/xml; charset=utf-8",
+                "text/xml;q=0.5, application/fastinfoset");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/fastinfoset");
+        assertThat(decode(response.body())).contains("getAllSectorsResponse");
+    }
+
+    @Test
+    void fastInfosetWithZeroQualityKeepsXml() throws Exception {
+        HttpResponse<byte[]> response = post(xml("<s:getAllSectorsRequest/>"), "text/xml; charset=utf-8",
+                "application/fastinfoset;q=0, text/xml");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                contentType -> assertThat(contentType).startsWith("text/xml"));
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).contains("getAllSectorsResponse");
+    }
+
+    @Test
+    void malformedSoap11BodyGetsClientFault() throws Exception {
+        HttpResponse<byte[]> response = post("pas du fast infoset".getBytes(StandardCharsets.UTF_8),
+                "application/fastinfoset", null);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/fastinfoset");
+        assertThat(decode(response.body())).contains("Fault").contains("Client")
+                .contains("Corps Fast Infoset illisible");
+    }
+
+    @Test
+    void malformedSoap12BodyGetsSenderFault() throws Exception {
+        HttpResponse<byte[]> response = post(new byte[]{(byte) 0xE0, 0, 0, 1, 0x7F},
+                "application/soap+fastinfoset", null);
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/soap+fastinfoset");
+        assertThat(decode(response.body())).contains("Sender").contains("Corps Fast Infoset illisible");
+    }
+
+    @Test
+    void decodedBodyIsDeliveredToReadListener() throws Exception {
+        String envelope = ENVELOPE.formatted("<s:getAllSectorsRequest/>");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws/");
+        request.setContentType("application/fastinfoset");
+        request.setContent(encode(envelope));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        new FastInfosetFilter().doFilter(request, new MockHttpServletResponse(), (decoded, response) -> {
+            ServletInputStream input = decoded.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        received.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(allDataRead).isTrue();
+        assertThat(received.toString(StandardCharsets.UTF_8)).contains("getAllSectorsRequest");
+    }
+
+    private HttpResponse<byte[]> post(byte[] body, String contentType, String accept) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/ws/"))
+                .header("Content-Type", contentType)
+                .header("SOAPAction", "\"\"")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] xml(String payload) {
+        return ENVELOPE.formatted(payload).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] encode(String xml) throws Exception {
+        ByteArrayOutputStream fastInfoset = new ByteArrayOutputStream();
+        transformerHelper.transform(new StreamSource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))),
+                new FastInfosetResult(fastInfoset));
+        return fastInfoset.toByteArray();
+    }
+
+    private String decode(byte[] fastInfoset) throws Exception {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        transformerHelper.transform(new FastInfosetSource(new ByteArrayInputStream(fastInfoset)), new StreamResult(xml));
+        return xml.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.examensoap.transport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Octets lus et écrits comptés par opération, sans copie du message.
+ */
+class SoapSizeMetricsFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SoapSizeMetricsFilter filter = new SoapSizeMetricsFilter(meterRegistry);
+
+    @Test
+    void countsBytesReadAndWrittenForTheOperation() throws Exception {
+        MockHttpServletRequest request = post("<requête/>");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            servletRequest.getInputStream().readAllBytes();
+            servletRequest.setAttribute(SoapSizeMetricsFilter.OPERATION_ATTRIBUTE, "getSectorsRequest");
+            servletResponse.getOutputStream().write("<réponse/>".getBytes(StandardCharsets.UTF_8));
+            servletResponse.getOutputStream().write('\n');
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(summary("soap.server.request.size", "getSectorsRequest").totalAmount())
+                .isEqualTo("<requête/>".getBytes(StandardCharsets.UTF_8).length);
+        assertThat(summary("soap.server.response.size", "getSectorsRequest").totalAmount())
+                .isEqualTo("<réponse/>".getBytes(StandardCharsets.UTF_8).length + 1);
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("<réponse/>\n");
+    }
+
+    @Test
+    void requestWithoutEndpointIsUnknown() throws Exception {
+        filter.doFilter(post("pas du XML"), new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+        });
+
+        assertThat(summary("soap.server.request.size", "unknown").count()).isEqualTo(1);
+        assertThat(summary("soap.server.request.size", "unknown").totalAmount()).isZero();
+    }
+
+    @Test
+    void getRequestsAreNotMeasured() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ws/sectors.wsdl");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) ->
+                servletResponse.getOutputStream().write(new byte[100]));
+
+        assertThat(meterRegistry.find("soap.server.response.size").summary()).isNull();
+    }
+
+    private DistributionSummary summary(String name, String operation) {
+        return meterRegistry.get(name).tag("operation", operation).summary();
+    }
+
+    private static MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}